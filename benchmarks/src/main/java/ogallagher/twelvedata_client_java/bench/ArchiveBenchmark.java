@@ -0,0 +1,108 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import ogallagher.twelvedata_client_java.BarArchive;
+import ogallagher.twelvedata_client_java.ColumnarTimeSeries;
+import ogallagher.twelvedata_client_java.TwelvedataClient;
+
+/**
+ * Reloading an exported series and reading every close price, from a json file against a {@link BarArchive}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArchiveBenchmark {
+	@Param({"500", "5000"})
+	public int bars;
+	
+	private Gson gson;
+	private Path json;
+	private Path archive;
+	private long middle;
+	
+	@Setup
+	public void setup() throws IOException {
+		gson = TwelvedataClient.configureGson(new GsonBuilder()).create();
+		
+		byte[] body = Fixtures.timeSeries(bars);
+		json = Files.createTempFile("archive-benchmark", ".json");
+		Files.write(json, body);
+		
+		ColumnarTimeSeries series = gson.fromJson(DecodeBenchmark.reader(body), ColumnarTimeSeries.class);
+		archive = Files.createTempFile("archive-benchmark", ".tdba");
+		BarArchive.write(archive, series);
+		middle = series.getTimestamp(series.size() / 2);
+	}
+	
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(json);
+		Files.deleteIfExists(archive);
+	}
+	
+	@Benchmark
+	public double json() throws IOException {
+		ColumnarTimeSeries series;
+		try (Reader reader = Files.newBufferedReader(json)) {
+			series = gson.fromJson(reader, ColumnarTimeSeries.class);
+		}
+		
+		double sum = 0;
+		for (int i=0; i<series.size(); i++) {
+			sum += series.getClose(i);
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public double archive() throws IOException {
+		BarArchive series = BarArchive.open(archive);
+		
+		double sum = 0;
+		for (int i=0; i<series.size(); i++) {
+			sum += series.getClose(i);
+		}
+		return sum;
+	}
+	
+	/**
+	 * Open and read the second half, by timestamp.
+	 */
+	@Benchmark
+	public double archiveSlice() throws IOException {
+		BarArchive series = BarArchive.open(archive).slice(middle, Long.MAX_VALUE);
+		
+		double sum = 0;
+		for (int i=0; i<series.size(); i++) {
+			sum += series.getClose(i);
+		}
+		return sum;
+	}
+}
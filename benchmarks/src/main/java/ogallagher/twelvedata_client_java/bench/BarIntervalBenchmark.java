@@ -0,0 +1,49 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+
+/**
+ * Bar datetime arithmetic, which runs for every window of a paged fetch.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BarIntervalBenchmark {
+	@Param({BarInterval.MIN_1, BarInterval.HR_1, BarInterval.DY_1, BarInterval.MO_1})
+	public String interval;
+	
+	public LocalDateTime base = LocalDateTime.of(2021, 10, 15, 15, 59);
+	
+	@Benchmark
+	public LocalDateTime offsetBars() {
+		return BarInterval.offsetBars(base, interval, -5000);
+	}
+	
+	/**
+	 * Weekly and monthly bars fall back to {@link #offsetBars()}.
+	 */
+	@Benchmark
+	public LocalDateTime offsetBarsCounted() {
+		return BarInterval.offsetBarsCounted(base, interval, -5000, "NASDAQ");
+	}
+}
@@ -0,0 +1,93 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import ogallagher.twelvedata_client_java.ColumnarTimeSeries;
+import ogallagher.twelvedata_client_java.CsvTimeSeriesDecoder;
+import ogallagher.twelvedata_client_java.TwelvedataClient;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+
+import okio.Buffer;
+
+/**
+ * Decoding of {@code time_series} response bodies, with the same json converter as the client.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DecodeBenchmark {
+	/**
+	 * Bars per response, from a short intraday call to the api max.
+	 */
+	@Param({"30", "500", "5000"})
+	public int bars;
+	
+	private byte[] body;
+	private byte[] csv;
+	private Gson gson;
+	private CsvTimeSeriesDecoder csvDecoder;
+	
+	@Setup
+	public void setup() {
+		body = Fixtures.timeSeries(bars);
+		csv = Fixtures.timeSeriesCsv(bars);
+		gson = TwelvedataClient.configureGson(new GsonBuilder()).create();
+		csvDecoder = new CsvTimeSeriesDecoder();
+	}
+	
+	/**
+	 * Includes parsing bar timestamps, which happens at decode time.
+	 */
+	@Benchmark
+	public TimeSeries timeSeries() {
+		return gson.fromJson(reader(body), TimeSeries.class);
+	}
+	
+	@Benchmark
+	public ColumnarTimeSeries columnarTimeSeries() {
+		return gson.fromJson(reader(body), ColumnarTimeSeries.class);
+	}
+	
+	/**
+	 * Same bars as {@link #columnarTimeSeries()}, from a csv response body.
+	 */
+	@Benchmark
+	public ColumnarTimeSeries columnarTimeSeriesCsv() throws IOException {
+		return csvDecoder.read(new Buffer().write(csv), "America/New_York");
+	}
+	
+	/**
+	 * @param body Response body.
+	 * 
+	 * @return Reader of {@code body}, as the converter reads a response.
+	 */
+	static Reader reader(byte[] body) {
+		return new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8);
+	}
+}
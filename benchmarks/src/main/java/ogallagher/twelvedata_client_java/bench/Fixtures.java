@@ -0,0 +1,187 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+
+/**
+ * Api response bodies for benchmarks, in the exact format the api returns them.
+ * 
+ * Responses are generated from a fixed seed rather than stored, so that any size can be benchmarked and
+ * every run decodes identical bytes.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class Fixtures {
+	private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+	private static final long SEED = 20211016;
+	
+	private static final String[] EXCHANGES = {"NASDAQ", "NYSE", "LSE", "XETR", "TSX"};
+	private static final String[] TIMEZONES = {
+		"America/New_York", "America/New_York", "Europe/London", "Europe/Berlin", "America/Toronto"
+	};
+	
+	/**
+	 * @param bars Number of bars.
+	 * 
+	 * @return Body of a {@code time_series} response with {@code bars} one minute bars, newest first, ending
+	 * at the last close of a regular NASDAQ session.
+	 */
+	public static byte[] timeSeries(int bars) {
+		Random random = new Random(SEED);
+		StringBuilder json = new StringBuilder(128 + bars * 160);
+		
+		json.append("{\"meta\":{")
+			.append("\"symbol\":\"AAPL\",")
+			.append("\"interval\":\"").append(BarInterval.MIN_1).append("\",")
+			.append("\"currency\":\"USD\",")
+			.append("\"exchange_timezone\":\"America/New_York\",")
+			.append("\"exchange\":\"NASDAQ\",")
+			.append("\"type\":\"Common Stock\"")
+			.append("},\"values\":[");
+		
+		LocalDateTime datetime = LocalDateTime.of(2021, 10, 15, 15, 59);
+		double close = 144.84;
+		for (int b=0; b<bars; b++) {
+			if (b > 0) {
+				json.append(',');
+			}
+			
+			double open = close + random.nextGaussian() * 0.05;
+			double high = Math.max(open, close) + random.nextDouble() * 0.08;
+			double low = Math.min(open, close) - random.nextDouble() * 0.08;
+			
+			json.append("{\"datetime\":\"").append(DATETIME.format(datetime)).append("\",")
+				.append("\"open\":\"").append(price(open)).append("\",")
+				.append("\"high\":\"").append(price(high)).append("\",")
+				.append("\"low\":\"").append(price(low)).append("\",")
+				.append("\"close\":\"").append(price(close)).append("\",")
+				.append("\"volume\":\"").append(50000 + random.nextInt(400000)).append("\"}");
+			
+			close = open;
+			datetime = previousMinute(datetime);
+		}
+		
+		json.append("],\"status\":\"ok\"}");
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @param bars Number of bars.
+	 * 
+	 * @return Body of a {@code time_series} response in csv format, with the same bars as 
+	 * {@link #timeSeries(int)}, in exchange time.
+	 */
+	public static byte[] timeSeriesCsv(int bars) {
+		Random random = new Random(SEED);
+		StringBuilder csv = new StringBuilder(64 + bars * 64);
+		
+		csv.append("datetime;open;high;low;close;volume\n");
+		
+		LocalDateTime datetime = LocalDateTime.of(2021, 10, 15, 15, 59);
+		double close = 144.84;
+		for (int b=0; b<bars; b++) {
+			double open = close + random.nextGaussian() * 0.05;
+			double high = Math.max(open, close) + random.nextDouble() * 0.08;
+			double low = Math.min(open, close) - random.nextDouble() * 0.08;
+			
+			csv.append(DATETIME.format(datetime)).append(';')
+				.append(price(open)).append(';')
+				.append(price(high)).append(';')
+				.append(price(low)).append(';')
+				.append(price(close)).append(';')
+				.append(50000 + random.nextInt(400000)).append('\n');
+			
+			close = open;
+			datetime = previousMinute(datetime);
+		}
+		
+		return csv.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @param results Number of matching securities.
+	 * 
+	 * @return Body of a {@code symbol_search} response with {@code results} securities.
+	 */
+	public static byte[] symbolSearch(int results) {
+		Random random = new Random(SEED);
+		StringBuilder json = new StringBuilder(32 + results * 220);
+		
+		json.append("{\"data\":[");
+		for (int r=0; r<results; r++) {
+			if (r > 0) {
+				json.append(',');
+			}
+			
+			int e = random.nextInt(EXCHANGES.length);
+			json.append("{\"symbol\":\"AA").append((char) ('A' + r % 26)).append(r / 26).append("\",")
+				.append("\"instrument_name\":\"Example Holdings ").append(r).append(" Inc\",")
+				.append("\"exchange\":\"").append(EXCHANGES[e]).append("\",")
+				.append("\"mic_code\":\"XNGS\",")
+				.append("\"exchange_timezone\":\"").append(TIMEZONES[e]).append("\",")
+				.append("\"instrument_type\":\"Common Stock\",")
+				.append("\"country\":\"United States\",")
+				.append("\"currency\":\"USD\"}");
+		}
+		
+		json.append("],\"status\":\"ok\"}");
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @param symbols Requested symbols.
+	 * 
+	 * @return {@code price} response body, which is keyed by symbol when more than one symbol is requested.
+	 */
+	public static byte[] latestPrices(String[] symbols) {
+		StringBuilder json = new StringBuilder(16 + symbols.length * 40);
+		
+		if (symbols.length == 1) {
+			json.append("{\"price\":\"").append(price(100 + Math.floorMod(symbols[0].hashCode(), 1000) / 10.0)).append("\"}");
+		}
+		else {
+			json.append('{');
+			for (int s=0; s<symbols.length; s++) {
+				if (s > 0) {
+					json.append(',');
+				}
+				json.append('"').append(symbols[s]).append("\":{\"price\":\"")
+					.append(price(100 + Math.floorMod(symbols[s].hashCode(), 1000) / 10.0)).append("\"}");
+			}
+			json.append('}');
+		}
+		
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * @param price Price.
+	 * 
+	 * @return {@code price} with 5 decimals, as the api formats prices.
+	 */
+	private static String price(double price) {
+		return String.format(Locale.ROOT, "%.5f", price);
+	}
+	
+	/**
+	 * @param datetime Bar datetime within a regular session.
+	 * 
+	 * @return Datetime of the previous one minute bar, skipping nights and weekends.
+	 */
+	private static LocalDateTime previousMinute(LocalDateTime datetime) {
+		LocalDateTime previous = datetime.minusMinutes(1);
+		if (previous.getHour() < 9 || (previous.getHour() == 9 && previous.getMinute() < 30)) {
+			previous = previous.minusDays(1).withHour(15).withMinute(59);
+			while (previous.getDayOfWeek().getValue() > 5) {
+				previous = previous.minusDays(1);
+			}
+		}
+		return previous;
+	}
+}
@@ -0,0 +1,93 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ogallagher.twelvedata_client_java.BollingerBands;
+import ogallagher.twelvedata_client_java.ExponentialMovingAverage;
+import ogallagher.twelvedata_client_java.Indicator;
+import ogallagher.twelvedata_client_java.Macd;
+import ogallagher.twelvedata_client_java.RelativeStrengthIndex;
+import ogallagher.twelvedata_client_java.SimpleMovingAverage;
+
+/**
+ * Indicator updates per tick, and batch computation over a whole history.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class IndicatorBenchmark {
+	private static final int HISTORY = 5000;
+	
+	@Param({"sma", "ema", "rsi", "macd", "bollinger"})
+	public String indicator;
+	
+	private Indicator tick;
+	private Indicator batch;
+	private float[] prices;
+	private double[] out;
+	private int next = 0;
+	
+	@Setup
+	public void setup() {
+		tick = create(indicator);
+		batch = create(indicator);
+		
+		Random random = new Random(20211016);
+		prices = new float[HISTORY];
+		double price = 144.84;
+		for (int i=0; i<HISTORY; i++) {
+			price += random.nextGaussian() * 0.05;
+			prices[i] = (float) price;
+		}
+		out = new double[HISTORY];
+	}
+	
+	private static Indicator create(String indicator) {
+		switch (indicator) {
+			case "sma":
+				return new SimpleMovingAverage(50);
+			case "ema":
+				return new ExponentialMovingAverage(50);
+			case "rsi":
+				return new RelativeStrengthIndex();
+			case "macd":
+				return new Macd();
+			default:
+				return new BollingerBands();
+		}
+	}
+	
+	@Benchmark
+	public double update() {
+		double value = tick.update(prices[next]);
+		next = (next + 1 == HISTORY) ? 0 : next + 1;
+		return value;
+	}
+	
+	/**
+	 * Reported time is per {@value #HISTORY} bars.
+	 */
+	@Benchmark
+	public double[] apply() {
+		return batch.apply(prices, HISTORY, out);
+	}
+}
@@ -0,0 +1,285 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import ogallagher.twelvedata_client_java.InProcessMetrics;
+import ogallagher.twelvedata_client_java.LatencyHistogram;
+import ogallagher.twelvedata_client_java.MetricsListener;
+import ogallagher.twelvedata_client_java.TwelvedataClient;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.SecuritySet;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+
+/**
+ * Offline load test of {@link TwelvedataClient}, which drives a client from concurrent callers against a
+ * {@link StandInServer} and reports throughput, latency percentiles and allocation rate.
+ * 
+ * Every call requests a random symbol, so that calls are not coalesced or cached and each one reaches
+ * the server. Allocation is measured over all threads of the process except the server's.
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ogallagher.twelvedata_client_java.bench.LoadTest --callers 64 --latency 50
+ * </pre>
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class LoadTest {
+	private static final String USAGE = 
+		"options (defaults in parentheses):\n"
+		+ "  --callers <n>              concurrent callers (16)\n"
+		+ "  --warmup <seconds>         unmeasured warmup (5)\n"
+		+ "  --duration <seconds>       measured duration (30)\n"
+		+ "  --bars <n>                 bars per time series call (500)\n"
+		+ "  --symbol-search <0-1>      fraction of calls that are symbol lookups (0.1)\n"
+		+ "  --calls-per-minute <n>     client rate limit (unlimited)\n"
+		+ "  --latency <ms>             server latency (20)\n"
+		+ "  --jitter <ms>              max random server latency added (10)\n"
+		+ "  --error-rate <0-1>         fraction of http 500 responses (0)\n"
+		+ "  --rate-limit-rate <0-1>    fraction of http 429 responses (0)\n"
+		+ "  --verbose                  keep client log output";
+	
+	private static final LocalDateTime END_DATE = LocalDateTime.of(2021, 10, 15, 16, 0);
+	private static final String OK = "ok";
+	
+	private final TwelvedataClient client;
+	private final int callers;
+	private final int bars;
+	private final double symbolSearchShare;
+	
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private final ConcurrentHashMap<String,LongAdder> outcomes = new ConcurrentHashMap<>();
+	private volatile boolean measuring = false;
+	private volatile boolean running = true;
+	
+	public LoadTest(TwelvedataClient client, int callers, int bars, double symbolSearchShare) {
+		this.client = client;
+		this.callers = callers;
+		this.bars = bars;
+		this.symbolSearchShare = symbolSearchShare;
+	}
+	
+	/**
+	 * Run callers for {@code warmup}, then measure them for {@code duration}.
+	 * 
+	 * @param warmup Unmeasured duration, to let the jit compile hot paths and the connection pool fill.
+	 * @param duration Measured duration.
+	 * 
+	 * @return Measurements.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting for callers.
+	 */
+	public Result run(Duration warmup, Duration duration) throws InterruptedException {
+		CountDownLatch done = new CountDownLatch(callers);
+		for (int c=0; c<callers; c++) {
+			Thread caller = new Thread(() -> {
+				try {
+					while (running) {
+						call();
+					}
+				}
+				finally {
+					done.countDown();
+				}
+			}, "load-test-caller-" + c);
+			caller.setDaemon(true);
+			caller.start();
+		}
+		
+		TimeUnit.NANOSECONDS.sleep(warmup.toNanos());
+		
+		long allocatedStart = allocatedBytes();
+		long start = System.nanoTime();
+		measuring = true;
+		
+		TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+		
+		measuring = false;
+		long elapsed = System.nanoTime() - start;
+		long allocated = allocatedBytes() - allocatedStart;
+		
+		running = false;
+		done.await();
+		
+		TreeMap<String,Long> counts = new TreeMap<>();
+		outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+		
+		return new Result(latency, counts, elapsed, allocated);
+	}
+	
+	/**
+	 * Make one api call and record its latency and outcome if measuring.
+	 */
+	private void call() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String symbol = "S" + random.nextInt(1000000);
+		boolean symbolSearch = random.nextDouble() < symbolSearchShare;
+		
+		long start = System.nanoTime();
+		String outcome;
+		if (symbolSearch) {
+			SecuritySet securities = client.symbolLookup(symbol, 30);
+			outcome = (securities != null) ? OK : MetricsListener.ENDPOINT_SYMBOL_SEARCH + " failed";
+		}
+		else {
+			TimeSeries timeSeries = client.fetchTimeSeries(symbol, BarInterval.MIN_1, END_DATE, bars);
+			outcome = timeSeries.isFailure() ? "code " + timeSeries.code : OK;
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		if (measuring) {
+			latency.record(elapsed);
+			outcomes.computeIfAbsent(outcome, (o) -> new LongAdder()).increment();
+		}
+	}
+	
+	/**
+	 * @return Bytes allocated so far by live threads, except {@link StandInServer} threads.
+	 */
+	private static long allocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long total = 0;
+		
+		for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds())) {
+			if (info != null && !info.getThreadName().startsWith(StandInServer.THREAD_PREFIX)) {
+				total += Math.max(threads.getThreadAllocatedBytes(info.getThreadId()), 0);
+			}
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Load test measurements.
+	 */
+	public static class Result {
+		public final LatencyHistogram latency;
+		public final Map<String,Long> outcomes;
+		public final long elapsedNanos;
+		public final long allocatedBytes;
+		
+		Result(LatencyHistogram latency, Map<String,Long> outcomes, long elapsedNanos, long allocatedBytes) {
+			this.latency = latency;
+			this.outcomes = outcomes;
+			this.elapsedNanos = elapsedNanos;
+			this.allocatedBytes = allocatedBytes;
+		}
+		
+		/**
+		 * @return Completed calls per second.
+		 */
+		public double getThroughput() {
+			return latency.getCount() * 1e9 / elapsedNanos;
+		}
+		
+		/**
+		 * @return Allocated megabytes per second.
+		 */
+		public double getAllocationRate() {
+			return allocatedBytes * 1e9 / elapsedNanos / (1 << 20);
+		}
+		
+		/**
+		 * @return Allocated bytes per completed call.
+		 */
+		public long getAllocationPerCall() {
+			long calls = latency.getCount();
+			return (calls == 0) ? 0 : allocatedBytes / calls;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format(
+				"calls       %d in %.1f s%n"
+				+ "throughput  %.1f calls/s%n"
+				+ "outcomes    %s%n"
+				+ "latency ms  p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n"
+				+ "allocation  %.1f MB/s, %d KB/call",
+				latency.getCount(), elapsedNanos / 1e9,
+				getThroughput(),
+				outcomes,
+				latency.getPercentile(50) / 1e6, latency.getPercentile(90) / 1e6, latency.getPercentile(99) / 1e6,
+				latency.getPercentile(99.9) / 1e6, latency.getMax() / 1e6,
+				getAllocationRate(), getAllocationPerCall() / 1024
+			);
+		}
+	}
+	
+	public static void main(String[] args) throws Exception {
+		Map<String,String> options = new HashMap<>();
+		for (int a=0; a<args.length; a++) {
+			if (args[a].equals("--help")) {
+				System.out.println(USAGE);
+				return;
+			}
+			else if (args[a].equals("--verbose")) {
+				options.put("verbose", "true");
+			}
+			else if (args[a].startsWith("--") && a + 1 < args.length) {
+				options.put(args[a].substring(2), args[++a]);
+			}
+			else {
+				System.err.println("unknown argument " + args[a] + "\n" + USAGE);
+				System.exit(1);
+			}
+		}
+		
+		int callers = Integer.parseInt(options.getOrDefault("callers", "16"));
+		int callsPerMinute = Integer.parseInt(options.getOrDefault("calls-per-minute", String.valueOf(Integer.MAX_VALUE)));
+		
+		// client logs every call, which would dominate the measurements
+		PrintStream console = System.out;
+		if (!options.containsKey("verbose")) {
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		}
+		
+		try (StandInServer server = new StandInServer()) {
+			server
+				.latency(
+					Duration.ofMillis(Long.parseLong(options.getOrDefault("latency", "20"))),
+					Duration.ofMillis(Long.parseLong(options.getOrDefault("jitter", "10")))
+				)
+				.errorRate(Double.parseDouble(options.getOrDefault("error-rate", "0")))
+				.rateLimitRate(Double.parseDouble(options.getOrDefault("rate-limit-rate", "0")));
+			
+			InProcessMetrics metrics = new InProcessMetrics();
+			TwelvedataClient client = TwelvedataClient.builder()
+				.baseUrl(server.getBaseUrl())
+				.key("load-test")
+				.maxCallsPerMinute(callsPerMinute)
+				.maxRequests(callers, callers)
+				.metrics(metrics)
+				.build();
+			
+			LoadTest test = new LoadTest(
+				client, 
+				callers, 
+				Integer.parseInt(options.getOrDefault("bars", "500")), 
+				Double.parseDouble(options.getOrDefault("symbol-search", "0.1"))
+			);
+			
+			console.println("load test of " + callers + " callers against " + server.getBaseUrl());
+			Result result = test.run(
+				Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5"))),
+				Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")))
+			);
+			
+			console.println(result);
+			console.println("server      " + server);
+			console.println("client      " + metrics);
+		}
+	}
+}
@@ -0,0 +1,380 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Local websocket server that stands in for the twelvedata price stream, so that
+ * {@link ogallagher.twelvedata_client_java.PriceStream} can be tested without an api key.
+ * 
+ * The server implements just enough of the websocket protocol for the stream: the handshake, unfragmented text
+ * frames, ping and close. It answers {@code subscribe}, {@code unsubscribe}, {@code reset} and {@code heartbeat}
+ * actions like the api, and sends price events for subscribed symbols at a configurable rate per connection.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class PriceStreamStandIn implements AutoCloseable {
+	/**
+	 * Same as {@link StandInServer#THREAD_PREFIX}, to exclude server threads from client measurements.
+	 */
+	public static final String THREAD_PREFIX = StandInServer.THREAD_PREFIX;
+	
+	private static final String ACCEPT_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+	private static final String HEARTBEAT_STATUS = "{\"event\":\"heartbeat\",\"status\":\"ok\"}";
+	
+	private static final int OPCODE_TEXT = 0x1;
+	private static final int OPCODE_CLOSE = 0x8;
+	private static final int OPCODE_PING = 0x9;
+	private static final int OPCODE_PONG = 0xA;
+	
+	private final ServerSocket server;
+	private final ExecutorService executor;
+	private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+	private volatile boolean closed = false;
+	
+	/**
+	 * Price events per second per connection, or {@code 0} to send none.
+	 */
+	private volatile int pricesPerSecond = 1000;
+	
+	private final LongAdder accepted = new LongAdder();
+	private final LongAdder pricesSent = new LongAdder();
+	private final LongAdder heartbeats = new LongAdder();
+	
+	/**
+	 * Start a stand-in stream on a free port of the loopback address.
+	 * 
+	 * @throws IOException Failed to bind the server.
+	 */
+	public PriceStreamStandIn() throws IOException {
+		AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newCachedThreadPool((runnable) -> {
+			Thread thread = new Thread(runnable, THREAD_PREFIX + "ws-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		executor.execute(this::accept);
+	}
+	
+	private void accept() {
+		while (!closed) {
+			try {
+				Connection connection = new Connection(server.accept());
+				connections.add(connection);
+				accepted.increment();
+				executor.execute(connection::read);
+			}
+			catch (IOException e) {
+				// closed
+			}
+		}
+	}
+	
+	/**
+	 * @param pricesPerSecond Price events per second per connection, spread over its subscribed symbols.
+	 * 
+	 * @return This server.
+	 */
+	public PriceStreamStandIn pricesPerSecond(int pricesPerSecond) {
+		this.pricesPerSecond = pricesPerSecond;
+		return this;
+	}
+	
+	/**
+	 * @return Url of the price stream, in place of {@link ogallagher.twelvedata_client_java.PriceStream#STREAM_URL}.
+	 */
+	public String getUrl() {
+		return "ws://" + server.getInetAddress().getHostAddress() + ":" + server.getLocalPort() + "/v1/quotes/price";
+	}
+	
+	/**
+	 * Abruptly close every connection, like a network failure, so that clients reconnect.
+	 */
+	public void dropConnections() {
+		for (Connection connection : connections) {
+			connection.close();
+		}
+	}
+	
+	public long getAccepted() {
+		return accepted.sum();
+	}
+	
+	public long getPricesSent() {
+		return pricesSent.sum();
+	}
+	
+	public long getHeartbeats() {
+		return heartbeats.sum();
+	}
+	
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			server.close();
+		}
+		catch (IOException e) {
+			// already closed
+		}
+		dropConnections();
+		executor.shutdownNow();
+	}
+	
+	@Override
+	public String toString() {
+		return "PriceStreamStandIn("
+			+ "accepted=" + getAccepted() + ","
+			+ "prices=" + getPricesSent() + ","
+			+ "heartbeats=" + getHeartbeats()
+			+ ")";
+	}
+	
+	/**
+	 * One client connection.
+	 */
+	private class Connection {
+		private final Socket socket;
+		private final OutputStream out;
+		private final CopyOnWriteArrayList<String> symbols = new CopyOnWriteArrayList<>();
+		private volatile boolean open = true;
+		
+		Connection(Socket socket) throws IOException {
+			this.socket = socket;
+			this.socket.setTcpNoDelay(true);
+			this.out = new BufferedOutputStream(socket.getOutputStream());
+		}
+		
+		void read() {
+			try {
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				handshake(in);
+				executor.execute(this::tick);
+				
+				while (open) {
+					int b0 = in.readUnsignedByte();
+					int b1 = in.readUnsignedByte();
+					int opcode = b0 & 0x0F;
+					
+					long length = b1 & 0x7F;
+					if (length == 126) {
+						length = in.readUnsignedShort();
+					}
+					else if (length == 127) {
+						length = in.readLong();
+					}
+					
+					byte[] mask = new byte[4];
+					if ((b1 & 0x80) != 0) {
+						in.readFully(mask);
+					}
+					byte[] payload = new byte[(int) length];
+					in.readFully(payload);
+					for (int i=0; i<payload.length; i++) {
+						payload[i] ^= mask[i & 3];
+					}
+					
+					if (opcode == OPCODE_TEXT) {
+						action(new String(payload, StandardCharsets.UTF_8));
+					}
+					else if (opcode == OPCODE_PING) {
+						send(OPCODE_PONG, payload);
+					}
+					else if (opcode == OPCODE_CLOSE) {
+						send(OPCODE_CLOSE, payload);
+						break;
+					}
+				}
+			}
+			catch (IOException e) {
+				// disconnected
+			}
+			finally {
+				close();
+			}
+		}
+		
+		private void handshake(DataInputStream in) throws IOException {
+			String key = null;
+			for (String line = readLine(in); !line.isEmpty(); line = readLine(in)) {
+				int colon = line.indexOf(':');
+				if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase("Sec-WebSocket-Key")) {
+					key = line.substring(colon + 1).trim();
+				}
+			}
+			if (key == null) {
+				throw new IOException("not a websocket handshake");
+			}
+			
+			String accept;
+			try {
+				accept = Base64.getEncoder().encodeToString(
+					MessageDigest.getInstance("SHA-1").digest((key + ACCEPT_GUID).getBytes(StandardCharsets.US_ASCII))
+				);
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IOException(e);
+			}
+			
+			synchronized (out) {
+				out.write((
+					"HTTP/1.1 101 Switching Protocols\r\n"
+					+ "Upgrade: websocket\r\n"
+					+ "Connection: Upgrade\r\n"
+					+ "Sec-WebSocket-Accept: " + accept + "\r\n\r\n"
+				).getBytes(StandardCharsets.US_ASCII));
+				out.flush();
+			}
+		}
+		
+		private String readLine(DataInputStream in) throws IOException {
+			StringBuilder line = new StringBuilder();
+			for (int c = in.readUnsignedByte(); c != '\n'; c = in.readUnsignedByte()) {
+				if (c != '\r') {
+					line.append((char) c);
+				}
+			}
+			return line.toString();
+		}
+		
+		/**
+		 * Answer a client action.
+		 */
+		private void action(String message) throws IOException {
+			if (message.contains("\"heartbeat\"")) {
+				heartbeats.increment();
+				send(HEARTBEAT_STATUS);
+			}
+			else if (message.contains("\"reset\"")) {
+				symbols.clear();
+			}
+			else {
+				int start = message.indexOf("\"symbols\":\"");
+				if (start < 0) {
+					return;
+				}
+				start += "\"symbols\":\"".length();
+				String[] requested = message.substring(start, message.indexOf('"', start)).split(",");
+				
+				StringBuilder success = new StringBuilder();
+				for (String symbol : requested) {
+					if (message.contains("\"unsubscribe\"")) {
+						symbols.remove(symbol);
+					}
+					else {
+						symbols.addIfAbsent(symbol);
+					}
+					
+					success
+						.append((success.length() == 0) ? "" : ",")
+						.append("{\"symbol\":\"").append(symbol).append("\",\"exchange\":\"NASDAQ\",\"type\":\"Common Stock\"}");
+				}
+				
+				send("{\"event\":\"subscribe-status\",\"status\":\"ok\",\"success\":[" + success + "],\"fails\":[]}");
+			}
+		}
+		
+		/**
+		 * Send prices of subscribed symbols, round robin, at the configured rate.
+		 */
+		private void tick() {
+			long next = System.nanoTime();
+			long sequence = 0;
+			
+			try {
+				while (open) {
+					int rate = pricesPerSecond;
+					if (rate <= 0 || symbols.isEmpty()) {
+						LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+						next = System.nanoTime();
+						continue;
+					}
+					
+					next += 1_000_000_000L / rate;
+					long wait = next - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+					
+					String symbol = symbols.get((int) (sequence % symbols.size()));
+					sequence++;
+					
+					// prices drift around 100, with 4 decimals like the api
+					long tenThousandths = 1_000_000 + (sequence * 7919) % 20_000;
+					send(
+						"{\"event\":\"price\",\"symbol\":\"" + symbol + "\",\"currency\":\"USD\",\"exchange\":\"NASDAQ\","
+						+ "\"type\":\"Common Stock\",\"timestamp\":" + (System.currentTimeMillis() / 1000) + ","
+						+ "\"price\":" + (tenThousandths / 10000) + "." + String.format("%04d", tenThousandths % 10000) + ","
+						+ "\"day_volume\":" + sequence + "}"
+					);
+					pricesSent.increment();
+				}
+			}
+			catch (IOException | IndexOutOfBoundsException | ArithmeticException e) {
+				// disconnected, or symbols changed concurrently
+				if (open) {
+					executor.execute(this::tick);
+				}
+			}
+		}
+		
+		private void send(String text) throws IOException {
+			send(OPCODE_TEXT, text.getBytes(StandardCharsets.UTF_8));
+		}
+		
+		private void send(int opcode, byte[] payload) throws IOException {
+			synchronized (out) {
+				out.write(0x80 | opcode);
+				if (payload.length < 126) {
+					out.write(payload.length);
+				}
+				else if (payload.length < (1 << 16)) {
+					out.write(126);
+					out.write(payload.length >>> 8);
+					out.write(payload.length);
+				}
+				else {
+					out.write(127);
+					for (int shift=56; shift>=0; shift-=8) {
+						out.write((int) ((long) payload.length >>> shift));
+					}
+				}
+				out.write(payload);
+				out.flush();
+			}
+		}
+		
+		void close() {
+			open = false;
+			connections.remove(this);
+			try {
+				socket.close();
+			}
+			catch (IOException e) {
+				// already closed
+			}
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ogallagher.twelvedata_client_java.RateLimiter;
+import ogallagher.twelvedata_client_java.TwelvedataClient;
+
+/**
+ * Cost of checking and taking rate limiter permits, alone and with 8 threads contending for one limiter.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RateLimiterBenchmark {
+	private static final int CONTENDED = 8;
+	
+	private TwelvedataClient client;
+	/**
+	 * Grants every request, so each acquire is a successful update of shared state.
+	 */
+	private RateLimiter open;
+	/**
+	 * Has no permits left, so each acquire is a rejected read of shared state.
+	 */
+	private RateLimiter exhausted;
+	
+	@Setup
+	public void setup() {
+		client = TwelvedataClient.builder()
+			.key("benchmark")
+			.maxCallsPerMinute(8)
+			.build();
+		
+		open = new RateLimiter(1000000000, Duration.ofSeconds(1), 1000000);
+		
+		exhausted = RateLimiter.perMinute(1);
+		while (exhausted.tryAcquire(1)) {}
+	}
+	
+	@Benchmark
+	public boolean callAllowed() {
+		return client.callAllowed();
+	}
+	
+	@Benchmark
+	@Threads(CONTENDED)
+	public boolean callAllowedContended() {
+		return client.callAllowed();
+	}
+	
+	@Benchmark
+	public boolean tryAcquire() {
+		return open.tryAcquire(1);
+	}
+	
+	@Benchmark
+	@Threads(CONTENDED)
+	public boolean tryAcquireContended() {
+		return open.tryAcquire(1);
+	}
+	
+	@Benchmark
+	@Threads(CONTENDED)
+	public boolean tryAcquireExhaustedContended() {
+		return exhausted.tryAcquire(1);
+	}
+}
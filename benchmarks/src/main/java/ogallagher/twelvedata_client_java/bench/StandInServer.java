@@ -0,0 +1,260 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local http server that stands in for the twelvedata api, serving {@code time_series} in json or csv,
+ * {@code symbol_search} and {@code price} from {@link Fixtures}, so the client can be load tested without spending api credits.
+ * 
+ * Each response is delayed by a configurable latency, and a configurable fraction of requests fail with
+ * http 500 or are rejected with http 429, like the api does when the credits of the current minute run out.
+ * Settings can be changed while the server is running.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class StandInServer implements AutoCloseable {
+	/**
+	 * Prefix of the names of server threads, ex. to exclude them from client measurements in the same process.
+	 */
+	public static final String THREAD_PREFIX = "stand-in-";
+	
+	private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+	/**
+	 * Bars served when a {@code time_series} request has no {@code outputsize}, ex. for a date range.
+	 */
+	public static final int DEFAULT_BARS = 500;
+	
+	private static final byte[] SERVER_ERROR = (
+		"{\"code\":500,\"message\":\"stand-in server error\",\"status\":\"error\"}"
+	).getBytes(StandardCharsets.UTF_8);
+	private static final byte[] RATE_LIMITED = (
+		"{\"code\":429,\"message\":\"You have run out of API credits for the current minute.\",\"status\":\"error\"}"
+	).getBytes(StandardCharsets.UTF_8);
+	
+	private final HttpServer server;
+	private final ExecutorService executor;
+	
+	private final ConcurrentHashMap<Integer,byte[]> timeSeriesBodies = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Integer,byte[]> timeSeriesCsvBodies = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Integer,byte[]> symbolSearchBodies = new ConcurrentHashMap<>();
+	
+	private volatile long latencyNanos = 0;
+	private volatile long jitterNanos = 0;
+	private volatile double errorRate = 0;
+	private volatile double rateLimitRate = 0;
+	
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder rateLimited = new LongAdder();
+	private final LongAdder bytesSent = new LongAdder();
+	
+	/**
+	 * Start a stand-in server on a free port of the loopback address.
+	 * 
+	 * @throws IOException Failed to bind the server.
+	 */
+	public StandInServer() throws IOException {
+		AtomicInteger threads = new AtomicInteger();
+		executor = Executors.newCachedThreadPool((runnable) -> {
+			Thread thread = new Thread(runnable, THREAD_PREFIX + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/time_series", (exchange) -> {
+			if ("CSV".equalsIgnoreCase(queryParam(exchange, "format", "json"))) {
+				handle(exchange, DEFAULT_BARS, (bars) -> timeSeriesCsvBodies.computeIfAbsent(bars, Fixtures::timeSeriesCsv));
+			}
+			else {
+				handle(exchange, DEFAULT_BARS, (bars) -> timeSeriesBodies.computeIfAbsent(bars, Fixtures::timeSeries));
+			}
+		});
+		server.createContext("/symbol_search", (exchange) -> {
+			handle(exchange, 30, (results) -> symbolSearchBodies.computeIfAbsent(results, Fixtures::symbolSearch));
+		});
+		server.createContext("/price", (exchange) -> {
+			handle(exchange, 1, (size) -> Fixtures.latestPrices(queryParam(exchange, "symbol", "AAPL").split(",")));
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+	
+	/**
+	 * @return Base url to pass to {@link ogallagher.twelvedata_client_java.TwelvedataClient.Builder#baseUrl(String)}.
+	 */
+	public String getBaseUrl() {
+		InetSocketAddress address = server.getAddress();
+		return "http://" + address.getHostString() + ":" + address.getPort() + "/";
+	}
+	
+	/**
+	 * @param latency Min delay of each response.
+	 * @param jitter Max random delay added to {@code latency}.
+	 * 
+	 * @return This server.
+	 */
+	public StandInServer latency(Duration latency, Duration jitter) {
+		latencyNanos = latency.toNanos();
+		jitterNanos = jitter.toNanos();
+		return this;
+	}
+	
+	/**
+	 * @param errorRate Fraction of requests, from 0 to 1, that fail with http 500.
+	 * 
+	 * @return This server.
+	 */
+	public StandInServer errorRate(double errorRate) {
+		this.errorRate = errorRate;
+		return this;
+	}
+	
+	/**
+	 * @param rateLimitRate Fraction of requests, from 0 to 1, that are rejected with http 429.
+	 * 
+	 * @return This server.
+	 */
+	public StandInServer rateLimitRate(double rateLimitRate) {
+		this.rateLimitRate = rateLimitRate;
+		return this;
+	}
+	
+	/**
+	 * @param exchange Request exchange.
+	 * @param defaultSize Response size when the request has no {@code outputsize}.
+	 * @param bodies Response body of a given size.
+	 */
+	private void handle(HttpExchange exchange, int defaultSize, IntFunction<byte[]> bodies) throws IOException {
+		requests.increment();
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		
+		try {
+			long delay = latencyNanos + ((jitterNanos > 0) ? random.nextLong(jitterNanos + 1) : 0);
+			if (delay > 0) {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			}
+			
+			double outcome = random.nextDouble();
+			if (outcome < rateLimitRate) {
+				rateLimited.increment();
+				respond(exchange, 429, RATE_LIMITED);
+			}
+			else if (outcome < rateLimitRate + errorRate) {
+				errors.increment();
+				respond(exchange, 500, SERVER_ERROR);
+			}
+			else {
+				respond(exchange, 200, bodies.apply(outputSize(exchange, defaultSize)));
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			exchange.close();
+		}
+	}
+	
+	private void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+		bytesSent.add(body.length);
+	}
+	
+	/**
+	 * @param exchange Request exchange.
+	 * @param name Query parameter name.
+	 * @param defaultValue Value when the request has no {@code name} parameter.
+	 * 
+	 * @return Decoded value of the query parameter.
+	 */
+	private static String queryParam(HttpExchange exchange, String name, String defaultValue) {
+		String query = exchange.getRequestURI().getQuery();
+		if (query != null) {
+			for (String param : query.split("&")) {
+				if (param.startsWith(name + "=")) {
+					return param.substring(name.length() + 1);
+				}
+			}
+		}
+		
+		return defaultValue;
+	}
+	
+	/**
+	 * @param exchange Request exchange.
+	 * @param defaultSize Value when the request has no {@code outputsize}.
+	 * 
+	 * @return Value of the {@code outputsize} query parameter.
+	 */
+	private static int outputSize(HttpExchange exchange, int defaultSize) {
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (String param : query.split("&")) {
+				if (param.startsWith("outputsize=")) {
+					try {
+						return Math.max(1, Integer.parseInt(param.substring("outputsize=".length())));
+					}
+					catch (NumberFormatException e) {
+						return defaultSize;
+					}
+				}
+			}
+		}
+		
+		return defaultSize;
+	}
+	
+	public long getRequests() {
+		return requests.sum();
+	}
+	
+	public long getErrors() {
+		return errors.sum();
+	}
+	
+	public long getRateLimited() {
+		return rateLimited.sum();
+	}
+	
+	public long getBytesSent() {
+		return bytesSent.sum();
+	}
+	
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+	
+	@Override
+	public String toString() {
+		return "StandInServer("
+			+ "url=" + getBaseUrl() + ","
+			+ "requests=" + getRequests() + ","
+			+ "errors=" + getErrors() + ","
+			+ "rateLimited=" + getRateLimited()
+			+ ")";
+	}
+}
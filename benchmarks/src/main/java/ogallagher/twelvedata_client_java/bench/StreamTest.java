@@ -0,0 +1,163 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ogallagher.twelvedata_client_java.PriceListener;
+import ogallagher.twelvedata_client_java.PriceRingBuffer;
+import ogallagher.twelvedata_client_java.PriceStream;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Offline test of {@link PriceStream}, which streams prices from a {@link PriceStreamStandIn} through a
+ * {@link PriceRingBuffer} to a polling consumer, optionally dropping the connection periodically, and reports
+ * throughput, reconnects, prices lost and allocation per price on the stream's reader thread.
+ * 
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ogallagher.twelvedata_client_java.bench.StreamTest --rate 50000 --drop-every 5
+ * </pre>
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class StreamTest {
+	private static final String USAGE =
+		"options (defaults in parentheses):\n"
+		+ "  --symbols <n>              subscribed symbols (100)\n"
+		+ "  --rate <n>                 server prices per second (20000)\n"
+		+ "  --duration <seconds>       measured duration (10)\n"
+		+ "  --drop-every <seconds>     drop the connection periodically, or 0 to never (0)\n"
+		+ "  --capacity <n>             ring buffer capacity (65536)\n"
+		+ "  --verbose                  keep client log output";
+	
+	/**
+	 * Prefix of the names of okhttp websocket reader threads.
+	 */
+	private static final String READER_THREAD_PREFIX = "OkHttp ";
+	
+	/**
+	 * @return Bytes allocated so far by okhttp threads, which read and decode stream frames.
+	 */
+	private static long readerAllocatedBytes() {
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long total = 0;
+		
+		for (long id : threads.getAllThreadIds()) {
+			java.lang.management.ThreadInfo info = threads.getThreadInfo(id);
+			if (info != null && info.getThreadName().startsWith(READER_THREAD_PREFIX)) {
+				total += Math.max(threads.getThreadAllocatedBytes(id), 0);
+			}
+		}
+		
+		return total;
+	}
+	
+	public static void main(String[] args) throws Exception {
+		Map<String,String> options = new HashMap<>();
+		for (int a=0; a<args.length; a++) {
+			if (args[a].equals("--help")) {
+				System.out.println(USAGE);
+				return;
+			}
+			else if (args[a].equals("--verbose")) {
+				options.put("verbose", "true");
+			}
+			else if (args[a].startsWith("--") && a + 1 < args.length) {
+				options.put(args[a].substring(2), args[++a]);
+			}
+			else {
+				System.err.println("unknown argument " + args[a] + "\n" + USAGE);
+				System.exit(1);
+			}
+		}
+		
+		int symbolCount = Integer.parseInt(options.getOrDefault("symbols", "100"));
+		long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("duration", "10")));
+		long dropNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(options.getOrDefault("drop-every", "0")));
+		
+		PrintStream console = System.out;
+		if (!options.containsKey("verbose")) {
+			System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		}
+		
+		List<String> symbols = new ArrayList<>();
+		for (int s=0; s<symbolCount; s++) {
+			symbols.add("SYM" + s);
+		}
+		
+		try (PriceStreamStandIn server = new PriceStreamStandIn()) {
+			server.pricesPerSecond(Integer.parseInt(options.getOrDefault("rate", "20000")));
+			
+			PriceRingBuffer buffer = new PriceRingBuffer(Integer.parseInt(options.getOrDefault("capacity", "65536")));
+			OkHttpClient httpClient = new OkHttpClient();
+			PriceStream stream = new PriceStream(server.getUrl(), "stream-test", httpClient, buffer, Duration.ofSeconds(1));
+			
+			AtomicLong consumed = new AtomicLong();
+			AtomicLong invalid = new AtomicLong();
+			double[] lastPrices = new double[symbolCount];
+			PriceListener consumer = (symbolId, symbol, timestamp, price, dayVolume) -> {
+				if (symbolId >= symbolCount || !(price >= 100 && price < 102) || timestamp <= 0) {
+					invalid.incrementAndGet();
+				}
+				else {
+					lastPrices[symbolId] = price;
+				}
+				consumed.lazySet(consumed.get() + 1);
+			};
+			
+			stream.subscribe(symbols);
+			stream.connect();
+			console.println("streaming " + symbolCount + " symbols from " + server.getUrl());
+			
+			long start = System.nanoTime();
+			long lastDrop = start;
+			long allocatedStart = readerAllocatedBytes();
+			long receivedStart = stream.getPricesReceived();
+			long sequence = 0;
+			
+			while (System.nanoTime() - start < durationNanos) {
+				long next = buffer.poll(sequence, consumer);
+				if (next == sequence) {
+					LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+				}
+				sequence = next;
+				
+				if (dropNanos > 0 && System.nanoTime() - lastDrop > dropNanos) {
+					server.dropConnections();
+					lastDrop = System.nanoTime();
+				}
+			}
+			sequence = buffer.poll(sequence, consumer);
+			
+			long elapsed = System.nanoTime() - start;
+			long received = stream.getPricesReceived() - receivedStart;
+			long allocated = readerAllocatedBytes() - allocatedStart;
+			stream.close();
+			// okhttp threads would keep the process alive
+			httpClient.dispatcher().executorService().shutdown();
+			httpClient.connectionPool().evictAll();
+			
+			console.println(String.format(
+				"prices      %d in %.1f s, %.0f prices/s%n"
+				+ "consumed    %d, lost %d, invalid %d%n"
+				+ "reconnects  %d%n"
+				+ "allocation  %d bytes/price on reader threads, including okhttp frame reading",
+				received, elapsed / 1e9, received * 1e9 / elapsed,
+				consumed.get(), sequence - consumed.get(), invalid.get(),
+				stream.getReconnects(),
+				(received == 0) ? 0 : allocated / received
+			));
+			console.println("server      " + server);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package ogallagher.twelvedata_client_java.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import ogallagher.twelvedata_client_java.TwelvedataClient;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.SecuritySet;
+
+/**
+ * Decoding of {@code symbol_search} response bodies, as returned by
+ * {@link TwelvedataClient#symbolLookup(String, int) symbolLookup}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SymbolSearchBenchmark {
+	@Param({"1", "30", "120"})
+	public int results;
+	
+	private byte[] body;
+	private Gson gson;
+	
+	@Setup
+	public void setup() {
+		body = Fixtures.symbolSearch(results);
+		gson = TwelvedataClient.configureGson(new GsonBuilder()).create();
+	}
+	
+	@Benchmark
+	public SecuritySet symbolSearch() {
+		return gson.fromJson(DecodeBenchmark.reader(body), SecuritySet.class);
+	}
+}
@@ -0,0 +1,259 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Adjusts the rate of a {@link RateLimiter} in real time, from the api credits the server reports with each response,
+ * instead of trusting a constant rate that may underuse a paid plan or exceed a shared one.
+ * 
+ * Each api response has headers {@value #HEADER_CREDITS_USED} and {@value #HEADER_CREDITS_LEFT}, whose sum is the
+ * credits per minute of the api key's plan. That sum is the ceiling of the rate. Until the server has rejected
+ * a call, the rate follows the ceiling directly, so a client configured for the free plan uses a paid plan in full
+ * after its first response.
+ * 
+ * When the server rejects a call with http 429, as the http status or as the {@code code} of the response body, the
+ * limiter is paused until the start of the next minute, when the api resets credits, and the rate is halved, ex.
+ * because other clients use the same key. Calls in flight when the limiter is paused are usually rejected too, so
+ * the rate is halved only once per pause. When the server reports that no credits are left, the limiter is paused
+ * the same way, without changing the rate. After a backoff, every {@link #DEFAULT_RAMP_INTERVAL ramp interval} of
+ * calls without rejections raises the rate by {@link #RAMP_FACTOR}, back up to the ceiling.
+ * 
+ * Without credit headers, ex. from a stand-in server, the ceiling is the rate of the limiter when this was created.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class AdaptiveRateLimit {
+	public static final String HEADER_CREDITS_USED = "api-credits-used";
+	public static final String HEADER_CREDITS_LEFT = "api-credits-left";
+	
+	/**
+	 * Min time between rate increases after a backoff.
+	 */
+	public static final Duration DEFAULT_RAMP_INTERVAL = Duration.ofSeconds(10);
+	/**
+	 * Factor of each rate increase after a backoff.
+	 */
+	public static final double RAMP_FACTOR = 1.5;
+	/**
+	 * Factor of the rate after a rejection.
+	 */
+	public static final double BACKOFF_FACTOR = 0.5;
+	
+	private static final int RATE_LIMITED = 429;
+	private static final Duration MINUTE = Duration.ofMinutes(1);
+	
+	private final RateLimiter limiter;
+	private volatile long rampIntervalNanos = DEFAULT_RAMP_INTERVAL.toNanos();
+	private volatile int minCallsPerMinute = 1;
+	
+	/**
+	 * Credits per minute of the plan, as last reported by the server or configured. Guarded by {@code this}.
+	 */
+	private int ceiling;
+	/**
+	 * Credits per minute the limiter is set to. Guarded by {@code this}.
+	 */
+	private int rate;
+	/**
+	 * Whether the rate is below the ceiling because of a rejection. Guarded by {@code this}.
+	 */
+	private boolean backedOff = false;
+	/**
+	 * {@link System#nanoTime()} of the last rate change. Guarded by {@code this}.
+	 */
+	private long lastChange = System.nanoTime();
+	/**
+	 * {@link System#nanoTime()} when the pause after the last backoff ends. Guarded by {@code this}.
+	 */
+	private long backoffUntil = lastChange;
+	
+	private final AtomicLong rejections = new AtomicLong();
+	private final AtomicLong exhaustions = new AtomicLong();
+	
+	private final Interceptor interceptor = this::intercept;
+	
+	/**
+	 * @param limiter Rate limiter to adjust, whose current rate is the ceiling until the server reports one.
+	 */
+	public AdaptiveRateLimit(RateLimiter limiter) {
+		this.limiter = limiter;
+		this.ceiling = limiter.getPermitsPerMinute();
+		this.rate = ceiling;
+	}
+	
+	/**
+	 * @param rampInterval Min time between rate increases after a backoff.
+	 * 
+	 * @return This.
+	 */
+	public AdaptiveRateLimit rampInterval(Duration rampInterval) {
+		this.rampIntervalNanos = rampInterval.toNanos();
+		return this;
+	}
+	
+	/**
+	 * @param minCallsPerMinute Min rate that backoff can lower the limiter to.
+	 * 
+	 * @return This.
+	 */
+	public AdaptiveRateLimit minCallsPerMinute(int minCallsPerMinute) {
+		this.minCallsPerMinute = Math.max(minCallsPerMinute, 1);
+		return this;
+	}
+	
+	/**
+	 * @return Interceptor that adjusts the limiter from each response, to add to the http client of the api.
+	 */
+	public Interceptor interceptor() {
+		return interceptor;
+	}
+	
+	private Response intercept(Interceptor.Chain chain) throws IOException {
+		Response response = chain.proceed(chain.request());
+		
+		if (KeyPool.failureCode(response) == RATE_LIMITED) {
+			onRejected();
+		}
+		else {
+			int used = header(response, HEADER_CREDITS_USED);
+			int left = header(response, HEADER_CREDITS_LEFT);
+			onCredits(used, left);
+		}
+		
+		return response;
+	}
+	
+	/**
+	 * @return Value of an integer header, or {@code -1} if missing or invalid.
+	 */
+	private static int header(Response response, String name) {
+		String value = response.header(name);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value.trim());
+			}
+			catch (NumberFormatException e) {
+				// ignore
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Back off after the server rejected a call for exceeding the rate limit.
+	 */
+	void onRejected() {
+		rejections.incrementAndGet();
+		
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (now - backoffUntil < 0) {
+				// ex. a call in flight when the limiter was paused
+				return;
+			}
+			
+			long pause = nanosUntilNextMinute();
+			backoffUntil = now + pause;
+			limiter.pause(pause);
+			
+			backedOff = true;
+			setRate((int) Math.max(rate * BACKOFF_FACTOR, minCallsPerMinute));
+		}
+	}
+	
+	/**
+	 * Adjust to the credits the server reported with a successful response.
+	 * 
+	 * @param used Credits used in the current minute, or {@code -1} if unknown.
+	 * @param left Credits left in the current minute, or {@code -1} if unknown.
+	 */
+	void onCredits(int used, int left) {
+		if (left == 0) {
+			exhaustions.incrementAndGet();
+			limiter.pause(nanosUntilNextMinute());
+		}
+		
+		synchronized (this) {
+			if (used >= 0 && left >= 0 && used + left > 0) {
+				ceiling = used + left;
+			}
+			
+			if (rate > ceiling || (!backedOff && rate < ceiling)) {
+				setRate(ceiling);
+			}
+			else if (backedOff && System.nanoTime() - lastChange >= rampIntervalNanos) {
+				int next = (int) Math.min(Math.max(rate * RAMP_FACTOR, rate + 1), ceiling);
+				backedOff = next < ceiling;
+				setRate(next);
+			}
+		}
+	}
+	
+	/**
+	 * Caller must hold the lock.
+	 */
+	private void setRate(int callsPerMinute) {
+		lastChange = System.nanoTime();
+		if (callsPerMinute != rate) {
+			rate = callsPerMinute;
+			limiter.setRate(callsPerMinute, MINUTE);
+		}
+	}
+	
+	/**
+	 * @return Nanoseconds until the start of the next wall clock minute, when the api resets credits.
+	 */
+	private static long nanosUntilNextMinute() {
+		long minute = MINUTE.toMillis();
+		return TimeUnit.MILLISECONDS.toNanos(minute - Math.floorMod(System.currentTimeMillis(), minute));
+	}
+	
+	public RateLimiter getLimiter() {
+		return limiter;
+	}
+	
+	/**
+	 * @return Credits per minute of the plan, as last reported by the server.
+	 */
+	public synchronized int getCeiling() {
+		return ceiling;
+	}
+	
+	/**
+	 * @return Credits per minute the limiter is set to.
+	 */
+	public synchronized int getRate() {
+		return rate;
+	}
+	
+	/**
+	 * @return Number of calls rejected with http 429.
+	 */
+	public long getRejections() {
+		return rejections.get();
+	}
+	
+	/**
+	 * @return Number of responses that reported no credits left.
+	 */
+	public long getExhaustions() {
+		return exhaustions.get();
+	}
+	
+	@Override
+	public synchronized String toString() {
+		return "AdaptiveRateLimit("
+			+ "rate=" + rate + "/min,"
+			+ "ceiling=" + ceiling + "/min,"
+			+ "rejections=" + getRejections() + ","
+			+ "exhaustions=" + getExhaustions()
+			+ ")";
+	}
+}
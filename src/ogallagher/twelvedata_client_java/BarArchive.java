@@ -0,0 +1,538 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+
+/**
+ * Read only, memory mapped file of a trade bar series, in a compact columnar binary format, so that exported
+ * series can be reloaded without decoding json.
+ * 
+ * A file is a fixed {@value #HEADER_SIZE} byte header, followed by one section per column: timestamps, volumes,
+ * and open, high, low and close prices, each an array of {@code size} little endian primitives. The header holds
+ * a magic number, the format version, the number of bars, the first and last timestamps, the file offset of
+ * each section, and the symbol, interval, exchange timezone, exchange and type as zero padded utf-8.
+ * 
+ * <pre>
+ * offset  size  field
+ *      0     4  magic, "TDBA"
+ *      4     4  version
+ *      8     8  number of bars
+ *     16     8  first timestamp, epoch milliseconds
+ *     24     8  last timestamp, epoch milliseconds
+ *     32    48  offsets of the timestamp, volume, open, high, low and close sections
+ *     80    32  symbol
+ *    112    16  interval
+ *    128    64  exchange timezone
+ *    192    32  exchange
+ *    224    32  type
+ *    256        sections; long columns, then float columns, each aligned to 8 bytes
+ * </pre>
+ * 
+ * {@link #open(Path) Opening} an archive maps each section, without reading it, so it takes the same time
+ * regardless of file size. Bars are read from the mapping on access, and the operating system pages them in
+ * and out of its page cache as needed, where they are shared by every process that maps the same file.
+ * {@link #slice(long, long) Slices} share the mapping too. Nothing is copied until {@link #toColumnar()}.
+ * 
+ * Each column is mapped separately, so a file holds up to {@link #MAX_BARS} bars, ex. over 20 years of one
+ * minute bars of a 24 hour market.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class BarArchive {
+	public static final int MAGIC = 0x54444241;
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 256;
+	/**
+	 * Max bars of a file, which is the max length of a mapped long column.
+	 */
+	public static final long MAX_BARS = Integer.MAX_VALUE / Long.BYTES;
+	
+	private static final int OFFSET_SIZE = 8;
+	private static final int OFFSET_FIRST = 16;
+	private static final int OFFSET_LAST = 24;
+	private static final int OFFSET_SECTIONS = 32;
+	private static final int OFFSET_SYMBOL = 80;
+	private static final int OFFSET_INTERVAL = 112;
+	private static final int OFFSET_TIMEZONE = 128;
+	private static final int OFFSET_EXCHANGE = 192;
+	private static final int OFFSET_TYPE = 224;
+	
+	private static final int LENGTH_SYMBOL = 32;
+	private static final int LENGTH_INTERVAL = 16;
+	private static final int LENGTH_TIMEZONE = 64;
+	private static final int LENGTH_EXCHANGE = 32;
+	private static final int LENGTH_TYPE = 32;
+	
+	private static final int SECTION_TIMESTAMPS = 0;
+	private static final int SECTION_VOLUME = 1;
+	private static final int SECTION_OPEN = 2;
+	private static final int SECTION_HIGH = 3;
+	private static final int SECTION_LOW = 4;
+	private static final int SECTION_CLOSE = 5;
+	private static final int SECTIONS = 6;
+	
+	/**
+	 * Bytes per write while exporting a column.
+	 */
+	private static final int WRITE_CHUNK = 1 << 16;
+	
+	private final String symbol;
+	private final String interval;
+	private final String exchangeTimezone;
+	private final String exchange;
+	private final String type;
+	
+	private final int size;
+	private final LongBuffer timestamps;
+	private final LongBuffer volume;
+	private final FloatBuffer open;
+	private final FloatBuffer high;
+	private final FloatBuffer low;
+	private final FloatBuffer close;
+	
+	private BarArchive(
+		String symbol, String interval, String exchangeTimezone, String exchange, String type,
+		LongBuffer timestamps, LongBuffer volume, FloatBuffer open, FloatBuffer high, FloatBuffer low, FloatBuffer close
+	) {
+		this.symbol = symbol;
+		this.interval = interval;
+		this.exchangeTimezone = exchangeTimezone;
+		this.exchange = exchange;
+		this.type = type;
+		
+		this.size = timestamps.remaining();
+		this.timestamps = timestamps;
+		this.volume = volume;
+		this.open = open;
+		this.high = high;
+		this.low = low;
+		this.close = close;
+	}
+	
+	/**
+	 * Write a series to an archive file, replacing any existing file atomically, so that readers of the old file
+	 * keep their mapping of it.
+	 * 
+	 * @param file Archive file.
+	 * @param series Bars in ascending chronological order, ex. from {@link ColumnarTimeSeries#of(TimeSeries)}.
+	 * 
+	 * @throws IOException Failed to write the file.
+	 * @throws IllegalArgumentException {@code series} is a failure, is not in ascending chronological order,
+	 * or has metadata longer than its header field.
+	 */
+	public static void write(Path file, ColumnarTimeSeries series) throws IOException {
+		if (series.isFailure()) {
+			throw new IllegalArgumentException("cannot archive failed series " + series);
+		}
+		
+		int n = series.size();
+		long[] timestamps = series.timestamps();
+		for (int i=1; i<n; i++) {
+			if (timestamps[i] < timestamps[i-1]) {
+				throw new IllegalArgumentException("cannot archive series not in ascending chronological order " + series);
+			}
+		}
+		
+		long[] offsets = sectionOffsets(n);
+		
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putLong(OFFSET_SIZE, n);
+		header.putLong(OFFSET_FIRST, (n > 0) ? timestamps[0] : 0);
+		header.putLong(OFFSET_LAST, (n > 0) ? timestamps[n-1] : 0);
+		for (int s=0; s<SECTIONS; s++) {
+			header.putLong(OFFSET_SECTIONS + s * Long.BYTES, offsets[s]);
+		}
+		putString(header, OFFSET_SYMBOL, LENGTH_SYMBOL, series.symbol);
+		putString(header, OFFSET_INTERVAL, LENGTH_INTERVAL, series.interval);
+		putString(header, OFFSET_TIMEZONE, LENGTH_TIMEZONE, series.exchangeTimezone);
+		putString(header, OFFSET_EXCHANGE, LENGTH_EXCHANGE, series.exchange);
+		putString(header, OFFSET_TYPE, LENGTH_TYPE, series.type);
+		
+		Path parent = file.toAbsolutePath().getParent();
+		Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				writeFully(channel, header, 0);
+				
+				ByteBuffer chunk = ByteBuffer.allocateDirect(WRITE_CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+				writeColumn(channel, chunk, offsets[SECTION_TIMESTAMPS], timestamps, n);
+				writeColumn(channel, chunk, offsets[SECTION_VOLUME], series.volume(), n);
+				writeColumn(channel, chunk, offsets[SECTION_OPEN], series.open(), n);
+				writeColumn(channel, chunk, offsets[SECTION_HIGH], series.high(), n);
+				writeColumn(channel, chunk, offsets[SECTION_LOW], series.low(), n);
+				writeColumn(channel, chunk, offsets[SECTION_CLOSE], series.close(), n);
+				
+				channel.force(false);
+			}
+			
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	/**
+	 * Write an api time series to an archive file.
+	 * 
+	 * @param file Archive file.
+	 * @param timeSeries Time series, in any chronological order.
+	 * 
+	 * @throws IOException Failed to write the file.
+	 * 
+	 * @see #write(Path, ColumnarTimeSeries)
+	 */
+	public static void write(Path file, TimeSeries timeSeries) throws IOException {
+		write(file, ColumnarTimeSeries.of(timeSeries));
+	}
+	
+	/**
+	 * @param n Number of bars.
+	 * 
+	 * @return File offset of each section.
+	 */
+	private static long[] sectionOffsets(long n) {
+		if (n > MAX_BARS) {
+			throw new IllegalArgumentException("cannot archive " + n + " bars; max is " + MAX_BARS);
+		}
+		
+		long[] offsets = new long[SECTIONS];
+		long offset = HEADER_SIZE;
+		for (int s=0; s<SECTIONS; s++) {
+			offsets[s] = offset;
+			offset += align(n * sectionWidth(s));
+		}
+		return offsets;
+	}
+	
+	/**
+	 * @param section Section index.
+	 * 
+	 * @return Bytes per bar of the section.
+	 */
+	private static int sectionWidth(int section) {
+		return (section == SECTION_TIMESTAMPS || section == SECTION_VOLUME) ? Long.BYTES : Float.BYTES;
+	}
+	
+	private static long align(long bytes) {
+		return (bytes + 7) & ~7L;
+	}
+	
+	private static void writeColumn(FileChannel channel, ByteBuffer chunk, long position, long[] column, int n) throws IOException {
+		for (int i=0; i<n; ) {
+			chunk.clear();
+			for (; i<n && chunk.remaining() >= Long.BYTES; i++) {
+				chunk.putLong(column[i]);
+			}
+			chunk.flip();
+			position += writeFully(channel, chunk, position);
+		}
+	}
+	
+	private static void writeColumn(FileChannel channel, ByteBuffer chunk, long position, float[] column, int n) throws IOException {
+		for (int i=0; i<n; ) {
+			chunk.clear();
+			for (; i<n && chunk.remaining() >= Float.BYTES; i++) {
+				chunk.putFloat(column[i]);
+			}
+			chunk.flip();
+			position += writeFully(channel, chunk, position);
+		}
+	}
+	
+	/**
+	 * @return Number of bytes written.
+	 */
+	private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		int written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer, position + written);
+		}
+		return written;
+	}
+	
+	private static void putString(ByteBuffer header, int offset, int length, String value) {
+		if (value == null) {
+			return;
+		}
+		
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > length) {
+			throw new IllegalArgumentException("cannot archive " + value + " in a " + length + " byte header field");
+		}
+		header.position(offset);
+		header.put(bytes);
+		header.position(0);
+	}
+	
+	private static String getString(ByteBuffer header, int offset, int length) {
+		int end = offset;
+		while (end < offset + length && header.get(end) != 0) {
+			end++;
+		}
+		if (end == offset) {
+			return null;
+		}
+		
+		byte[] bytes = new byte[end - offset];
+		header.position(offset);
+		header.get(bytes);
+		header.position(0);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Map an archive file. The file can be replaced by {@link #write(Path, ColumnarTimeSeries)} while mapped,
+	 * but must not be modified in place.
+	 * 
+	 * @param file Archive file.
+	 * 
+	 * @return Archive of all bars in the file.
+	 * 
+	 * @throws IOException Failed to read the file, or it is not a valid archive.
+	 */
+	public static BarArchive open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE) {
+				throw new IOException("bar archive " + file + " is too short");
+			}
+			
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != MAGIC) {
+				throw new IOException(file + " is not a bar archive");
+			}
+			if (header.getInt(4) != VERSION) {
+				throw new IOException("unsupported bar archive version " + header.getInt(4) + " of " + file);
+			}
+			
+			long n = header.getLong(OFFSET_SIZE);
+			if (n < 0 || n > MAX_BARS) {
+				throw new IOException("invalid bar count " + n + " of " + file);
+			}
+			
+			// the channel can be closed once mapped; mappings stay valid until garbage collected
+			ByteBuffer[] sections = new ByteBuffer[SECTIONS];
+			for (int s=0; s<SECTIONS; s++) {
+				long offset = header.getLong(OFFSET_SECTIONS + s * Long.BYTES);
+				long length = n * sectionWidth(s);
+				if (offset < HEADER_SIZE || offset + length > fileSize) {
+					throw new IOException("bar archive " + file + " is truncated");
+				}
+				
+				sections[s] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+			}
+			
+			return new BarArchive(
+				getString(header, OFFSET_SYMBOL, LENGTH_SYMBOL),
+				getString(header, OFFSET_INTERVAL, LENGTH_INTERVAL),
+				getString(header, OFFSET_TIMEZONE, LENGTH_TIMEZONE),
+				getString(header, OFFSET_EXCHANGE, LENGTH_EXCHANGE),
+				getString(header, OFFSET_TYPE, LENGTH_TYPE),
+				sections[SECTION_TIMESTAMPS].asLongBuffer(),
+				sections[SECTION_VOLUME].asLongBuffer(),
+				sections[SECTION_OPEN].asFloatBuffer(),
+				sections[SECTION_HIGH].asFloatBuffer(),
+				sections[SECTION_LOW].asFloatBuffer(),
+				sections[SECTION_CLOSE].asFloatBuffer()
+			);
+		}
+	}
+	
+	/**
+	 * @param from Index of the first bar, inclusive.
+	 * @param to Index of the last bar, exclusive.
+	 * 
+	 * @return Archive of bars {@code [from, to)}, sharing the same mapping.
+	 */
+	public BarArchive slice(int from, int to) {
+		if (from < 0 || to > size || from > to) {
+			throw new IndexOutOfBoundsException("slice [" + from + ", " + to + ") of " + size + " bars");
+		}
+		
+		return new BarArchive(
+			symbol, interval, exchangeTimezone, exchange, type,
+			timestamps.duplicate().position(from).limit(to).slice(),
+			volume.duplicate().position(from).limit(to).slice(),
+			open.duplicate().position(from).limit(to).slice(),
+			high.duplicate().position(from).limit(to).slice(),
+			low.duplicate().position(from).limit(to).slice(),
+			close.duplicate().position(from).limit(to).slice()
+		);
+	}
+	
+	/**
+	 * @param start Epoch milliseconds of the range start, inclusive.
+	 * @param end Epoch milliseconds of the range end, exclusive.
+	 * 
+	 * @return Archive of bars in {@code [start, end)}, sharing the same mapping.
+	 */
+	public BarArchive slice(long start, long end) {
+		int from = indexOf(start);
+		return slice(from, Math.max(from, indexOf(end)));
+	}
+	
+	/**
+	 * @param timestamp Epoch milliseconds.
+	 * 
+	 * @return Index of the first bar at or after {@code timestamp}, or {@link #size()} if there is none.
+	 */
+	public int indexOf(long timestamp) {
+		int lo = 0, hi = size;
+		
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			
+			if (timestamps.get(mid) < timestamp) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		
+		return lo;
+	}
+	
+	/**
+	 * Copy the bars to the heap.
+	 * 
+	 * @return Columnar time series of the bars.
+	 */
+	public ColumnarTimeSeries toColumnar() {
+		ColumnarTimeSeries series = new ColumnarTimeSeries(size);
+		series.symbol = symbol;
+		series.interval = interval;
+		series.exchangeTimezone = exchangeTimezone;
+		series.exchange = exchange;
+		series.type = type;
+		
+		for (int i=0; i<size; i++) {
+			series.append(timestamps.get(i), open.get(i), high.get(i), low.get(i), close.get(i), volume.get(i));
+		}
+		
+		return series;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public long getTimestamp(int i) {
+		return timestamps.get(i);
+	}
+	
+	public float getOpen(int i) {
+		return open.get(i);
+	}
+	
+	public float getHigh(int i) {
+		return high.get(i);
+	}
+	
+	public float getLow(int i) {
+		return low.get(i);
+	}
+	
+	public float getClose(int i) {
+		return close.get(i);
+	}
+	
+	public long getVolume(int i) {
+		return volume.get(i);
+	}
+	
+	/**
+	 * @return Read only view of the mapped bar datetimes in epoch milliseconds, ex. for bulk reads.
+	 */
+	public LongBuffer timestamps() {
+		return timestamps.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @return Read only view of the mapped open prices.
+	 */
+	public FloatBuffer open() {
+		return open.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @return Read only view of the mapped high prices.
+	 */
+	public FloatBuffer high() {
+		return high.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @return Read only view of the mapped low prices.
+	 */
+	public FloatBuffer low() {
+		return low.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @return Read only view of the mapped close prices.
+	 */
+	public FloatBuffer close() {
+		return close.asReadOnlyBuffer();
+	}
+	
+	/**
+	 * @return Read only view of the mapped volumes.
+	 */
+	public LongBuffer volume() {
+		return volume.asReadOnlyBuffer();
+	}
+	
+	public String getSymbol() {
+		return symbol;
+	}
+	
+	public String getInterval() {
+		return interval;
+	}
+	
+	public String getExchangeTimezone() {
+		return exchangeTimezone;
+	}
+	
+	public String getExchange() {
+		return exchange;
+	}
+	
+	public String getType() {
+		return type;
+	}
+	
+	/**
+	 * @return Exchange timezone, or UTC if unknown.
+	 */
+	public ZoneId getZoneId() {
+		return TimestampParser.zone(exchangeTimezone);
+	}
+	
+	@Override
+	public String toString() {
+		return "BarArchive("
+			+ symbol + ","
+			+ interval + ","
+			+ exchangeTimezone + ","
+			+ size
+			+ ")";
+	}
+}
@@ -0,0 +1,537 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.Meta;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.TradeBar;
+
+/**
+ * Persistent local cache of trade bars, keyed by symbol and interval, that remembers which datetime ranges
+ * have already been fetched.
+ * 
+ * A request for a range is answered by {@link #missingRanges(String, String, LocalDateTime, LocalDateTime)
+ * fetching only the missing sub-ranges}, {@link #put(String, String, LocalDateTime, LocalDateTime, TimeSeries)
+ * merging} them into the stored series, and {@link #get(String, String, LocalDateTime, LocalDateTime) slicing}
+ * the requested range from it. Ranges are half open, {@code [start, end)}, over bar datetimes, and are only
+ * marked as fetched up to the last closed bar, since bars that are still open can change.
+ * 
+ * Each symbol and interval is stored as a directory in the cache directory, with an index file of its meta and
+ * fetched ranges, and its bars sharded by month, or by year for daily and longer bars. A merge only rewrites the
+ * index and the shards of the merged bars, so filling a gap costs the same however long the stored history is.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class BarCache {
+	private static final Gson gson = new Gson();
+	
+	/**
+	 * Conservative timezone for deciding whether bars are closed before the exchange timezone is known.
+	 */
+	private static final ZoneId EARLIEST_ZONE = ZoneOffset.ofHours(-12);
+	
+	private static final String INDEX_FILE = "index.json";
+	private static final String SHARD_PREFIX = "bars-";
+	private static final String JSON_SUFFIX = ".json";
+	/**
+	 * Length of a local bar datetime with a time of day, ex. {@code 2021-08-27 15:30:00}.
+	 */
+	private static final int DATETIME_LENGTH = 19;
+	private static final long DAY_MILLIS = 86400000L;
+	
+	private final File directory;
+	private final ConcurrentHashMap<String,CachedSeries> entries = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param directory Cache directory, created if it does not exist.
+	 */
+	public BarCache(File directory) {
+		this.directory = directory;
+		
+		if (!directory.exists() && !directory.mkdirs()) {
+			System.out.println("ERROR: failed to create bar cache directory " + directory.getAbsolutePath());
+		}
+	}
+	
+	/**
+	 * Lock for a symbol and interval. Holding it while fetching missing ranges prevents concurrent requests
+	 * from fetching the same bars.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * 
+	 * @return Lock object.
+	 */
+	public Object lock(String symbol, String interval) {
+		return entry(symbol, interval);
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param start Range start, inclusive.
+	 * @param end Range end, exclusive.
+	 * 
+	 * @return Sub-ranges of {@code [start, end)} that are not cached yet, in chronological order, each as
+	 * {@code [start, end]}.
+	 */
+	public List<LocalDateTime[]> missingRanges(String symbol, String interval, LocalDateTime start, LocalDateTime end) {
+		CachedSeries entry = entry(symbol, interval);
+		ArrayList<LocalDateTime[]> missing = new ArrayList<>();
+		
+		synchronized (entry) {
+			LocalDateTime cursor = start;
+			
+			for (Range range : entry.ranges) {
+				LocalDateTime rangeStart = range.start(), rangeEnd = range.end();
+				
+				if (!rangeEnd.isAfter(cursor)) {
+					continue;
+				}
+				if (!rangeStart.isBefore(end)) {
+					break;
+				}
+				
+				if (rangeStart.isAfter(cursor)) {
+					missing.add(new LocalDateTime[] {cursor, rangeStart});
+				}
+				cursor = rangeEnd;
+			}
+			
+			if (cursor.isBefore(end)) {
+				missing.add(new LocalDateTime[] {cursor, end});
+			}
+		}
+		
+		return missing;
+	}
+	
+	/**
+	 * Merge fetched bars into the cache and mark their range as fetched, up to the last closed bar.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param start Fetched range start, inclusive.
+	 * @param end Fetched range end, exclusive.
+	 * @param timeSeries Fetched bars, or {@code null} if the range has no bars.
+	 */
+	public void put(String symbol, String interval, LocalDateTime start, LocalDateTime end, TimeSeries timeSeries) {
+		CachedSeries entry = entry(symbol, interval);
+		
+		synchronized (entry) {
+			if (timeSeries != null) {
+				if (timeSeries.meta != null) {
+					entry.meta = timeSeries.meta;
+				}
+				
+				timeSeries.ensureTimestamps();
+				for (TradeBar bar : timeSeries.values) {
+					// newer fetches replace bars that were still open
+					entry.bars.put(bar.timestamp, bar);
+					entry.dirtyShards.add(shard(bar));
+				}
+			}
+			
+			// mark fetched range
+			LocalDateTime now = LocalDateTime.now(zone(entry.meta));
+			LocalDateTime closedEnd = BarInterval.offsetBars(now, interval, -1);
+			if (closedEnd != null && closedEnd.isBefore(end)) {
+				end = closedEnd;
+			}
+			if (start.isBefore(end)) {
+				entry.addRange(new Range(start, end));
+			}
+			
+			save(entry);
+		}
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param start Range start, inclusive.
+	 * @param end Range end, exclusive.
+	 * 
+	 * @return Cached bars within {@code [start, end)}, in descending chronological order like the api. Bars are
+	 * shared with the cache and should not be modified.
+	 */
+	public TimeSeries get(String symbol, String interval, LocalDateTime start, LocalDateTime end) {
+		CachedSeries entry = entry(symbol, interval);
+		TimeSeries timeSeries = new TimeSeries();
+		
+		synchronized (entry) {
+			TimestampParser parser = new TimestampParser((entry.meta != null) ? entry.meta.exchange_timezone : null);
+			long startMilli = parser.toEpochMilli(localMilli(start));
+			long endMilli = parser.toEpochMilli(localMilli(end));
+			
+			timeSeries.meta = entry.meta;
+			timeSeries.values = new ArrayList<>(entry.bars.subMap(endMilli, false, startMilli, true).values());
+			timeSeries.timestampsParsed = true;
+		}
+		
+		return timeSeries;
+	}
+	
+	/**
+	 * Remove a symbol and interval from the cache, in memory and on disk.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 */
+	public void invalidate(String symbol, String interval) {
+		CachedSeries entry = entry(symbol, interval);
+		
+		synchronized (entry) {
+			entry.bars.clear();
+			entry.ranges.clear();
+			entry.dirtyShards.clear();
+			entry.meta = null;
+			
+			File seriesDirectory = seriesDirectory(symbol, interval);
+			File[] files = seriesDirectory.listFiles();
+			for (File file : (files != null) ? Arrays.asList(files) : List.<File>of()) {
+				delete(file);
+			}
+			delete(seriesDirectory);
+			delete(legacyFile(symbol, interval));
+		}
+	}
+	
+	public File getDirectory() {
+		return directory;
+	}
+	
+	@Override
+	public String toString() {
+		return "BarCache(" + directory + ")";
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * 
+	 * @return In memory cache entry, loaded from disk on first access.
+	 */
+	private CachedSeries entry(String symbol, String interval) {
+		return entries.computeIfAbsent(symbol + "|" + interval, (key) -> load(symbol, interval));
+	}
+	
+	private static String name(String symbol, String interval) {
+		return (symbol + "_" + interval).replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+	
+	private File seriesDirectory(String symbol, String interval) {
+		return new File(directory, name(symbol, interval));
+	}
+	
+	/**
+	 * @return File of a series stored before sharding, with its meta, ranges and all bars.
+	 */
+	private File legacyFile(String symbol, String interval) {
+		return new File(directory, name(symbol, interval) + JSON_SUFFIX);
+	}
+	
+	/**
+	 * @param bar Trade bar.
+	 * 
+	 * @return Shard of the bar, which is its month, ex. {@code 2021-08}, or its year for bars without a time of 
+	 * day, ex. {@code 2021}.
+	 */
+	private static String shard(TradeBar bar) {
+		return (bar.datetime.length() >= DATETIME_LENGTH) ? bar.datetime.substring(0, 7) : bar.datetime.substring(0, 4);
+	}
+	
+	private CachedSeries load(String symbol, String interval) {
+		CachedSeries entry = new CachedSeries(symbol, interval);
+		File seriesDirectory = seriesDirectory(symbol, interval);
+		File index = new File(seriesDirectory, INDEX_FILE);
+		File file = index;
+		
+		try {
+			if (index.exists()) {
+				StoredSeries stored = read(index, StoredSeries.class);
+				if (stored != null) {
+					entry.meta = stored.meta;
+					if (stored.ranges != null) {
+						entry.ranges.addAll(stored.ranges);
+					}
+				}
+				
+				TimestampParser parser = new TimestampParser((entry.meta != null) ? entry.meta.exchange_timezone : null);
+				File[] shards = seriesDirectory.listFiles(
+					(dir, name) -> name.startsWith(SHARD_PREFIX) && name.endsWith(JSON_SUFFIX)
+				);
+				for (File shard : (shards != null) ? Arrays.asList(shards) : List.<File>of()) {
+					file = shard;
+					TradeBar[] bars = read(shard, TradeBar[].class);
+					if (bars != null) {
+						addBars(entry, parser, Arrays.asList(bars));
+					}
+				}
+			}
+			else if (legacyFile(symbol, interval).exists()) {
+				file = legacyFile(symbol, interval);
+				StoredSeries stored = read(file, StoredSeries.class);
+				
+				if (stored != null) {
+					entry.meta = stored.meta;
+					if (stored.ranges != null) {
+						entry.ranges.addAll(stored.ranges);
+					}
+					if (stored.values != null) {
+						addBars(entry, new TimestampParser((stored.meta != null) ? stored.meta.exchange_timezone : null), stored.values);
+						// rewritten as shards on the next merge
+						for (TradeBar bar : stored.values) {
+							entry.dirtyShards.add(shard(bar));
+						}
+					}
+				}
+			}
+		}
+		catch (IOException | JsonParseException | DateTimeException e) {
+			System.out.println("ERROR: ignoring unreadable bar cache file " + file.getAbsolutePath() + ": " + e.getMessage());
+			entry = new CachedSeries(symbol, interval);
+		}
+		
+		return entry;
+	}
+	
+	private static void addBars(CachedSeries entry, TimestampParser parser, List<TradeBar> bars) {
+		for (TradeBar bar : bars) {
+			bar.timestamp = parser.parse(bar.datetime);
+			entry.bars.put(bar.timestamp, bar);
+		}
+	}
+	
+	/**
+	 * Write the shards changed since the last save, then the index.
+	 * 
+	 * @param entry Cache entry.
+	 */
+	private void save(CachedSeries entry) {
+		File seriesDirectory = seriesDirectory(entry.symbol, entry.interval);
+		if (!seriesDirectory.exists() && !seriesDirectory.mkdirs()) {
+			System.out.println("ERROR: failed to create bar cache directory " + seriesDirectory.getAbsolutePath());
+			return;
+		}
+		
+		TimestampParser parser = new TimestampParser((entry.meta != null) ? entry.meta.exchange_timezone : null);
+		for (String shard : entry.dirtyShards) {
+			// shard bounds in local time, widened by a day for any timezone offset, then filtered exactly
+			LocalDateTime start = (shard.length() == 4)
+				? LocalDateTime.of(Integer.parseInt(shard), 1, 1, 0, 0)
+				: LocalDateTime.of(Integer.parseInt(shard.substring(0, 4)), Integer.parseInt(shard.substring(5, 7)), 1, 0, 0);
+			LocalDateTime end = (shard.length() == 4) ? start.plusYears(1) : start.plusMonths(1);
+			long startMilli = parser.toEpochMilli(localMilli(start)) - DAY_MILLIS;
+			long endMilli = parser.toEpochMilli(localMilli(end)) + DAY_MILLIS;
+			
+			ArrayList<TradeBar> bars = new ArrayList<>();
+			for (TradeBar bar : entry.bars.subMap(endMilli, false, startMilli, true).values()) {
+				if (shard.equals(shard(bar))) {
+					bars.add(bar);
+				}
+			}
+			
+			if (!write(new File(seriesDirectory, SHARD_PREFIX + shard + JSON_SUFFIX), bars)) {
+				// ranges are not saved, so the bars are fetched again after a restart
+				return;
+			}
+		}
+		entry.dirtyShards.clear();
+		
+		// after the shards, so the index never covers bars that are not saved
+		StoredSeries stored = new StoredSeries();
+		stored.meta = entry.meta;
+		stored.ranges = entry.ranges;
+		if (write(new File(seriesDirectory, INDEX_FILE), stored)) {
+			delete(legacyFile(entry.symbol, entry.interval));
+		}
+	}
+	
+	private static <T> T read(File file, Class<T> type) throws IOException {
+		try (Reader reader = new FileReader(file)) {
+			return gson.fromJson(reader, type);
+		}
+	}
+	
+	/**
+	 * Write a value to a temporary file, then move it over the previous version.
+	 * 
+	 * @return Whether the file was written.
+	 */
+	private static boolean write(File file, Object value) {
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		
+		try {
+			try (Writer writer = new FileWriter(tmp)) {
+				gson.toJson(value, writer);
+			}
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		}
+		catch (IOException e) {
+			System.out.println("ERROR: failed to write bar cache file " + file.getAbsolutePath() + ": " + e.getMessage());
+			return false;
+		}
+	}
+	
+	private static void delete(File file) {
+		if (file.exists() && !file.delete()) {
+			System.out.println("ERROR: failed to delete bar cache file " + file.getAbsolutePath());
+		}
+	}
+	
+	private static ZoneId zone(Meta meta) {
+		if (meta != null && meta.exchange_timezone != null) {
+			try {
+				return ZoneId.of(meta.exchange_timezone);
+			}
+			catch (DateTimeException e) {
+				System.out.println("WARNING: unknown exchange timezone " + meta.exchange_timezone);
+			}
+		}
+		
+		return EARLIEST_ZONE;
+	}
+	
+	/**
+	 * @param datetime Local datetime.
+	 * 
+	 * @return Local datetime in epoch milliseconds as if it were utc.
+	 */
+	private static long localMilli(LocalDateTime datetime) {
+		return datetime.toEpochSecond(ZoneOffset.UTC) * 1000 + datetime.getNano() / 1000000;
+	}
+	
+	/**
+	 * Fetched datetime range, stored as iso strings.
+	 */
+	private static class Range {
+		String start;
+		String end;
+		transient LocalDateTime startDatetime = null;
+		transient LocalDateTime endDatetime = null;
+		
+		Range(LocalDateTime start, LocalDateTime end) {
+			this.start = start.toString();
+			this.end = end.toString();
+			this.startDatetime = start;
+			this.endDatetime = end;
+		}
+		
+		LocalDateTime start() {
+			if (startDatetime == null) {
+				startDatetime = LocalDateTime.parse(start);
+			}
+			return startDatetime;
+		}
+		
+		LocalDateTime end() {
+			if (endDatetime == null) {
+				endDatetime = LocalDateTime.parse(end);
+			}
+			return endDatetime;
+		}
+	}
+	
+	/**
+	 * Index file contents, or legacy cache file contents with {@link #values}.
+	 */
+	private static class StoredSeries {
+		Meta meta;
+		List<Range> ranges;
+		List<TradeBar> values;
+	}
+	
+	/**
+	 * In memory cache entry.
+	 */
+	private static class CachedSeries {
+		final String symbol;
+		final String interval;
+		Meta meta = null;
+		/**
+		 * Fetched ranges, in chronological order, with no overlaps.
+		 */
+		final ArrayList<Range> ranges = new ArrayList<>();
+		/**
+		 * Bars by epoch millisecond timestamp, in descending chronological order.
+		 */
+		final NavigableMap<Long,TradeBar> bars = new TreeMap<>(Collections.reverseOrder());
+		/**
+		 * Shards with bars changed since the last save.
+		 */
+		final TreeSet<String> dirtyShards = new TreeSet<>();
+		
+		CachedSeries(String symbol, String interval) {
+			this.symbol = symbol;
+			this.interval = interval;
+		}
+		
+		/**
+		 * Add a range, coalescing it with existing ranges that it overlaps or touches.
+		 * 
+		 * @param range New range.
+		 */
+		void addRange(Range range) {
+			LocalDateTime start = range.start(), end = range.end();
+			ArrayList<Range> merged = new ArrayList<>(ranges.size() + 1);
+			boolean added = false;
+			
+			for (Range existing : ranges) {
+				LocalDateTime existingStart = existing.start(), existingEnd = existing.end();
+				
+				if (existingEnd.isBefore(start)) {
+					merged.add(existing);
+				}
+				else if (existingStart.isAfter(end)) {
+					if (!added) {
+						merged.add(new Range(start, end));
+						added = true;
+					}
+					merged.add(existing);
+				}
+				else {
+					// overlap; extend new range
+					if (existingStart.isBefore(start)) {
+						start = existingStart;
+					}
+					if (existingEnd.isAfter(end)) {
+						end = existingEnd;
+					}
+				}
+			}
+			
+			if (!added) {
+				merged.add(new Range(start, end));
+			}
+			
+			ranges.clear();
+			ranges.addAll(merged);
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Bollinger bands: a {@link SimpleMovingAverage} middle band, and upper and lower bands a multiple of the
+ * population standard deviation of the same window away from it.
+ * 
+ * The window mean and sum of squared deviations are updated in place as values enter and leave the window, so each
+ * update takes constant time regardless of the period, without the cancellation of a running sum of squares.
+ * 
+ * {@link #getValue()} is the middle band.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class BollingerBands implements Indicator {
+	public static final int DEFAULT_PERIOD = 20;
+	public static final double DEFAULT_DEVIATIONS = 2;
+	
+	private final int period;
+	private final double deviations;
+	private final double[] window;
+	
+	private int count = 0;
+	private int next = 0;
+	private double mean = 0;
+	/**
+	 * Sum of squared deviations from {@link #mean}.
+	 */
+	private double m2 = 0;
+	
+	private double middle = Double.NaN;
+	private double upper = Double.NaN;
+	private double lower = Double.NaN;
+	
+	public BollingerBands() {
+		this(DEFAULT_PERIOD, DEFAULT_DEVIATIONS);
+	}
+	
+	/**
+	 * @param period Number of values in the window.
+	 * @param deviations Number of standard deviations between the middle band and the upper and lower bands.
+	 */
+	public BollingerBands(int period, double deviations) {
+		if (period < 1) {
+			throw new IllegalArgumentException("bollinger bands period " + period + " must be positive");
+		}
+		
+		this.period = period;
+		this.deviations = deviations;
+		this.window = new double[period];
+	}
+	
+	@Override
+	public double update(double value) {
+		if (count < period) {
+			// welford's online mean and variance
+			count++;
+			double delta = value - mean;
+			mean += delta / count;
+			m2 += delta * (value - mean);
+		}
+		else {
+			// replace the oldest value
+			double old = window[next];
+			double oldMean = mean;
+			mean += (value - old) / period;
+			m2 += (value - old) * (value - mean + old - oldMean);
+			if (m2 < 0) {
+				m2 = 0;
+			}
+		}
+		
+		window[next] = value;
+		next = (next + 1 == period) ? 0 : next + 1;
+		
+		if (count == period) {
+			double width = deviations * Math.sqrt(m2 / period);
+			middle = mean;
+			upper = mean + width;
+			lower = mean - width;
+		}
+		
+		return middle;
+	}
+	
+	/**
+	 * Reset the indicator and compute all of its bands over a history.
+	 * 
+	 * @param values Values in ascending chronological order.
+	 * @param size Number of values.
+	 * @param middle Array for the middle band, at least {@code size} long.
+	 * @param upper Array for the upper band, or {@code null} to skip it.
+	 * @param lower Array for the lower band, or {@code null} to skip it.
+	 */
+	public void apply(float[] values, int size, double[] middle, double[] upper, double[] lower) {
+		reset();
+		for (int i=0; i<size; i++) {
+			middle[i] = update(values[i]);
+			
+			if (upper != null) {
+				upper[i] = this.upper;
+			}
+			if (lower != null) {
+				lower[i] = this.lower;
+			}
+		}
+	}
+	
+	/**
+	 * @return Middle band.
+	 */
+	@Override
+	public double getValue() {
+		return middle;
+	}
+	
+	public double getUpper() {
+		return upper;
+	}
+	
+	public double getLower() {
+		return lower;
+	}
+	
+	/**
+	 * @return Population standard deviation of the window, or {@link Double#NaN} if not yet ready.
+	 */
+	public double getStandardDeviation() {
+		return (count == period) ? Math.sqrt(m2 / period) : Double.NaN;
+	}
+	
+	@Override
+	public boolean isReady() {
+		return count == period;
+	}
+	
+	@Override
+	public void reset() {
+		count = 0;
+		next = 0;
+		mean = 0;
+		m2 = 0;
+		middle = upper = lower = Double.NaN;
+	}
+	
+	public int getPeriod() {
+		return period;
+	}
+	
+	@Override
+	public String toString() {
+		return "BollingerBands(" + period + "," + deviations + ")=" + lower + "," + middle + "," + upper;
+	}
+}
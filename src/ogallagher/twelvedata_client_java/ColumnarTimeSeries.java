@@ -0,0 +1,403 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.Meta;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.TradeBar;
+
+/**
+ * A chronological series of trade bars stored as parallel primitive columns, instead of one object per bar.
+ * 
+ * Unlike {@link TimeSeries}, bars are in ascending chronological order, and datetimes are stored as epoch
+ * milliseconds. Prices are {@code float} like {@link TradeBar}, so conversion in either direction is lossless.
+ * 
+ * Column arrays returned by {@link #timestamps()}, {@link #open()}, etc. are the backing arrays, which may be
+ * longer than {@link #size()}, and are replaced when the series grows.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class ColumnarTimeSeries extends Failure {
+	public static final int DEFAULT_CAPACITY = 64;
+	
+	private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+	
+	public String symbol = null;
+	public String interval = null;
+	public String exchangeTimezone = null;
+	public String exchange = null;
+	public String type = null;
+	
+	private int size = 0;
+	private long[] timestamps;
+	private float[] open;
+	private float[] high;
+	private float[] low;
+	private float[] close;
+	private long[] volume;
+	
+	/**
+	 * Failure constructor; calls {@link Failure#Failure(int, String)}.
+	 * 
+	 * @param errorCode Error code.
+	 * @param message Error message.
+	 */
+	public ColumnarTimeSeries(int errorCode, String message) {
+		super(errorCode, message);
+		allocate(0);
+	}
+	
+	public ColumnarTimeSeries() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacity Initial number of bars that can be stored without growing the columns.
+	 */
+	public ColumnarTimeSeries(int capacity) {
+		super();
+		allocate(capacity);
+	}
+	
+	private void allocate(int capacity) {
+		timestamps = new long[capacity];
+		open = new float[capacity];
+		high = new float[capacity];
+		low = new float[capacity];
+		close = new float[capacity];
+		volume = new long[capacity];
+	}
+	
+	/**
+	 * Convert an api time series to columns.
+	 * 
+	 * @param timeSeries Time series, in any chronological order.
+	 * 
+	 * @return Columnar time series in ascending chronological order. A failure is converted to a failure.
+	 */
+	public static ColumnarTimeSeries of(TimeSeries timeSeries) {
+		if (timeSeries.isFailure()) {
+			return new ColumnarTimeSeries(timeSeries.code, timeSeries.message);
+		}
+		
+		int n = (timeSeries.values != null) ? timeSeries.values.size() : 0;
+		ColumnarTimeSeries columns = new ColumnarTimeSeries(n);
+		
+		if (timeSeries.meta != null) {
+			columns.symbol = timeSeries.meta.symbol;
+			columns.interval = timeSeries.meta.interval;
+			columns.exchangeTimezone = timeSeries.meta.exchange_timezone;
+			columns.exchange = timeSeries.meta.exchange;
+			columns.type = timeSeries.meta.type;
+		}
+		
+		timeSeries.ensureTimestamps();
+		for (int i=0; i<n; i++) {
+			TradeBar bar = timeSeries.values.get(i);
+			columns.append(bar.timestamp, bar.open, bar.high, bar.low, bar.close, bar.volume);
+		}
+		
+		columns.sort();
+		return columns;
+	}
+	
+	/**
+	 * Convert columns to an api time series.
+	 * 
+	 * @return Time series in descending chronological order, like the api.
+	 */
+	public TimeSeries toTimeSeries() {
+		if (isFailure()) {
+			return new TimeSeries(code, message);
+		}
+		
+		TimeSeries timeSeries = new TimeSeries();
+		
+		Meta meta = timeSeries.new Meta();
+		meta.symbol = symbol;
+		meta.interval = interval;
+		meta.exchange_timezone = exchangeTimezone;
+		meta.exchange = exchange;
+		meta.type = type;
+		timeSeries.meta = meta;
+		
+		ZoneId zone = getZoneId();
+		boolean dateOnly = isDateOnly(interval);
+		
+		timeSeries.values = new ArrayList<>(size);
+		for (int i=size-1; i>=0; i--) {
+			LocalDateTime datetime = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[i]), zone);
+			
+			TradeBar bar = timeSeries.new TradeBar();
+			bar.datetime = dateOnly ? datetime.toLocalDate().toString() : datetime.format(DATETIME_FORMAT);
+			bar.open = open[i];
+			bar.high = high[i];
+			bar.low = low[i];
+			bar.close = close[i];
+			bar.volume = volume[i];
+			bar.timestamp = timestamps[i];
+			timeSeries.values.add(bar);
+		}
+		timeSeries.timestampsParsed = true;
+		
+		return timeSeries;
+	}
+	
+	/**
+	 * Add a bar to the end of the series, growing the columns if needed.
+	 * 
+	 * @param timestamp Bar datetime in epoch milliseconds.
+	 * @param open Open price.
+	 * @param high High price.
+	 * @param low Low price.
+	 * @param close Close price.
+	 * @param volume Volume.
+	 */
+	public void append(long timestamp, float open, float high, float low, float close, long volume) {
+		if (size == timestamps.length) {
+			grow(size + 1);
+		}
+		
+		this.timestamps[size] = timestamp;
+		this.open[size] = open;
+		this.high[size] = high;
+		this.low[size] = low;
+		this.close[size] = close;
+		this.volume[size] = volume;
+		size++;
+	}
+	
+	/**
+	 * @param minCapacity Min number of bars the columns must hold.
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > timestamps.length) {
+			grow(minCapacity);
+		}
+	}
+	
+	private void grow(int minCapacity) {
+		int capacity = Math.max(minCapacity, timestamps.length + (timestamps.length >> 1) + 1);
+		
+		timestamps = Arrays.copyOf(timestamps, capacity);
+		open = Arrays.copyOf(open, capacity);
+		high = Arrays.copyOf(high, capacity);
+		low = Arrays.copyOf(low, capacity);
+		close = Arrays.copyOf(close, capacity);
+		volume = Arrays.copyOf(volume, capacity);
+	}
+	
+	/**
+	 * Shrink the columns to {@link #size()}.
+	 */
+	public void trimToSize() {
+		if (size < timestamps.length) {
+			timestamps = Arrays.copyOf(timestamps, size);
+			open = Arrays.copyOf(open, size);
+			high = Arrays.copyOf(high, size);
+			low = Arrays.copyOf(low, size);
+			close = Arrays.copyOf(close, size);
+			volume = Arrays.copyOf(volume, size);
+		}
+	}
+	
+	/**
+	 * Put bars in ascending chronological order. Descending order, as returned by the api, is reversed in place.
+	 */
+	void sort() {
+		if (isAscending()) {
+			return;
+		}
+		
+		if (isDescending()) {
+			reverse();
+		}
+		else {
+			// general case; sort an index by timestamp
+			Integer[] index = new Integer[size];
+			for (int i=0; i<size; i++) {
+				index[i] = i;
+			}
+			Arrays.sort(index, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+			
+			long[] t = new long[size], v = new long[size];
+			float[] o = new float[size], h = new float[size], l = new float[size], c = new float[size];
+			for (int i=0; i<size; i++) {
+				int j = index[i];
+				t[i] = timestamps[j];
+				o[i] = open[j];
+				h[i] = high[j];
+				l[i] = low[j];
+				c[i] = close[j];
+				v[i] = volume[j];
+			}
+			
+			timestamps = t;
+			open = o;
+			high = h;
+			low = l;
+			close = c;
+			volume = v;
+		}
+	}
+	
+	private boolean isAscending() {
+		for (int i=1; i<size; i++) {
+			if (timestamps[i] < timestamps[i-1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private boolean isDescending() {
+		for (int i=1; i<size; i++) {
+			if (timestamps[i] > timestamps[i-1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private void reverse() {
+		for (int i=0, j=size-1; i<j; i++, j--) {
+			long t = timestamps[i]; timestamps[i] = timestamps[j]; timestamps[j] = t;
+			float o = open[i]; open[i] = open[j]; open[j] = o;
+			float h = high[i]; high[i] = high[j]; high[j] = h;
+			float l = low[i]; low[i] = low[j]; low[j] = l;
+			float c = close[i]; close[i] = close[j]; close[j] = c;
+			long v = volume[i]; volume[i] = volume[j]; volume[j] = v;
+		}
+	}
+	
+	/**
+	 * @param timestamp Epoch milliseconds.
+	 * 
+	 * @return Index of the first bar at or after {@code timestamp}, or {@link #size()} if there is none.
+	 */
+	public int indexOf(long timestamp) {
+		int lo = 0, hi = size;
+		
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			
+			if (timestamps[mid] < timestamp) {
+				lo = mid + 1;
+			}
+			else {
+				hi = mid;
+			}
+		}
+		
+		return lo;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public long getTimestamp(int i) {
+		return timestamps[i];
+	}
+	
+	public float getOpen(int i) {
+		return open[i];
+	}
+	
+	public float getHigh(int i) {
+		return high[i];
+	}
+	
+	public float getLow(int i) {
+		return low[i];
+	}
+	
+	public float getClose(int i) {
+		return close[i];
+	}
+	
+	public long getVolume(int i) {
+		return volume[i];
+	}
+	
+	/**
+	 * @return Backing array of bar datetimes in epoch milliseconds, valid up to {@link #size()}.
+	 */
+	public long[] timestamps() {
+		return timestamps;
+	}
+	
+	/**
+	 * @return Backing array of open prices, valid up to {@link #size()}.
+	 */
+	public float[] open() {
+		return open;
+	}
+	
+	/**
+	 * @return Backing array of high prices, valid up to {@link #size()}.
+	 */
+	public float[] high() {
+		return high;
+	}
+	
+	/**
+	 * @return Backing array of low prices, valid up to {@link #size()}.
+	 */
+	public float[] low() {
+		return low;
+	}
+	
+	/**
+	 * @return Backing array of close prices, valid up to {@link #size()}.
+	 */
+	public float[] close() {
+		return close;
+	}
+	
+	/**
+	 * @return Backing array of volumes, valid up to {@link #size()}.
+	 */
+	public long[] volume() {
+		return volume;
+	}
+	
+	/**
+	 * @return Exchange timezone, or UTC if unknown.
+	 */
+	public ZoneId getZoneId() {
+		return TimestampParser.zone(exchangeTimezone);
+	}
+	
+	/**
+	 * @param interval Trade bar width.
+	 * 
+	 * @return {@code true} if bar datetimes of this width have no time of day.
+	 */
+	static boolean isDateOnly(String interval) {
+		return BarInterval.DY_1.equals(interval) || BarInterval.WK_1.equals(interval) || BarInterval.MO_1.equals(interval);
+	}
+	
+	@Override
+	public String toString() {
+		if (isFailure()) {
+			return super.toString();
+		}
+		else {
+			return "ColumnarTimeSeries("
+				+ symbol + ","
+				+ interval + ","
+				+ exchangeTimezone + ","
+				+ size
+				+ ")";
+		}
+	}
+}
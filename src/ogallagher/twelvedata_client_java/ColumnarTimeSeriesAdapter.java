@@ -0,0 +1,222 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Streaming json adapter that reads a {@code time_series} response directly into a {@link ColumnarTimeSeries},
+ * without creating an object per trade bar.
+ * 
+ * Each bar's fields are parsed from the token stream into the series columns. Datetimes are parsed from their
+ * fixed format into local epoch milliseconds, then converted to utc in one pass once the exchange timezone
+ * is known, since {@code meta} is not guaranteed to precede {@code values}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class ColumnarTimeSeriesAdapter extends TypeAdapter<ColumnarTimeSeries> {
+	private static final DateTimeFormatter DATETIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+	
+	/**
+	 * Initial column capacity of each parsed series.
+	 */
+	private final int capacityHint;
+	
+	public ColumnarTimeSeriesAdapter() {
+		this(ColumnarTimeSeries.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacityHint Initial column capacity of each parsed series, ex. the expected number of bars.
+	 */
+	public ColumnarTimeSeriesAdapter(int capacityHint) {
+		this.capacityHint = capacityHint;
+	}
+	
+	@Override
+	public ColumnarTimeSeries read(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		
+		ColumnarTimeSeries series = new ColumnarTimeSeries(capacityHint);
+		Integer code = null;
+		String message = null;
+		
+		in.beginObject();
+		while (in.hasNext()) {
+			switch (in.nextName()) {
+				case "meta":
+					readMeta(in, series);
+					break;
+				
+				case "values":
+					readValues(in, series);
+					break;
+				
+				case "code":
+					code = in.nextInt();
+					break;
+				
+				case "message":
+					message = in.nextString();
+					break;
+				
+				default:
+					in.skipValue();
+					break;
+			}
+		}
+		in.endObject();
+		
+		if (code != null) {
+			return new ColumnarTimeSeries(code, message);
+		}
+		
+		new TimestampParser(series.exchangeTimezone).toEpochMilli(series.timestamps(), series.size());
+		series.sort();
+		return series;
+	}
+	
+	private static void readMeta(JsonReader in, ColumnarTimeSeries series) throws IOException {
+		in.beginObject();
+		while (in.hasNext()) {
+			String name = in.nextName();
+			
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				continue;
+			}
+			
+			switch (name) {
+				case "symbol":
+					series.symbol = in.nextString();
+					break;
+				
+				case "interval":
+					series.interval = in.nextString();
+					break;
+				
+				case "exchange_timezone":
+					series.exchangeTimezone = in.nextString();
+					break;
+				
+				case "exchange":
+					series.exchange = in.nextString();
+					break;
+				
+				case "type":
+					series.type = in.nextString();
+					break;
+				
+				default:
+					in.skipValue();
+					break;
+			}
+		}
+		in.endObject();
+	}
+	
+	private static void readValues(JsonReader in, ColumnarTimeSeries series) throws IOException {
+		in.beginArray();
+		while (in.hasNext()) {
+			long timestamp = 0, volume = 0;
+			float open = 0, high = 0, low = 0, close = 0;
+			
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+					case "datetime":
+						timestamp = TimestampParser.parseLocalEpochMilli(in.nextString());
+						break;
+					
+					case "open":
+						open = (float) in.nextDouble();
+						break;
+					
+					case "high":
+						high = (float) in.nextDouble();
+						break;
+					
+					case "low":
+						low = (float) in.nextDouble();
+						break;
+					
+					case "close":
+						close = (float) in.nextDouble();
+						break;
+					
+					case "volume":
+						volume = (long) in.nextDouble();
+						break;
+					
+					default:
+						in.skipValue();
+						break;
+				}
+			}
+			in.endObject();
+			
+			series.append(timestamp, open, high, low, close, volume);
+		}
+		in.endArray();
+	}
+	
+	@Override
+	public void write(JsonWriter out, ColumnarTimeSeries series) throws IOException {
+		if (series == null) {
+			out.nullValue();
+			return;
+		}
+		
+		out.beginObject();
+		
+		if (series.isFailure()) {
+			out.name("code").value(series.code);
+			out.name("message").value(series.message);
+			out.name("status").value("error");
+		}
+		else {
+			out.name("meta").beginObject();
+			out.name("symbol").value(series.symbol);
+			out.name("interval").value(series.interval);
+			out.name("exchange_timezone").value(series.exchangeTimezone);
+			out.name("exchange").value(series.exchange);
+			out.name("type").value(series.type);
+			out.endObject();
+			
+			boolean dateOnly = ColumnarTimeSeries.isDateOnly(series.interval);
+			
+			// descending, like the api
+			out.name("values").beginArray();
+			for (int i=series.size()-1; i>=0; i--) {
+				LocalDateTime datetime = LocalDateTime.ofInstant(
+					Instant.ofEpochMilli(series.getTimestamp(i)),
+					series.getZoneId()
+				);
+				
+				out.beginObject();
+				out.name("datetime").value(dateOnly ? datetime.toLocalDate().toString() : datetime.format(DATETIME_FORMAT));
+				out.name("open").value(Float.toString(series.getOpen(i)));
+				out.name("high").value(Float.toString(series.getHigh(i)));
+				out.name("low").value(Float.toString(series.getLow(i)));
+				out.name("close").value(Float.toString(series.getClose(i)));
+				out.name("volume").value(Long.toString(series.getVolume(i)));
+				out.endObject();
+			}
+			out.endArray();
+			
+			out.name("status").value("ok");
+		}
+		
+		out.endObject();
+	}
+}
@@ -0,0 +1,361 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.stream.JsonReader;
+
+import okio.BufferedSource;
+
+/**
+ * Streaming decoder of a {@code time_series} response in csv format, which reads trade bars from the response
+ * source directly into a {@link ColumnarTimeSeries}, one line at a time, without decoding the body to a string or
+ * creating objects per bar.
+ * 
+ * A csv response is a header line of column names, ex. {@code datetime;open;high;low;close;volume}, followed by one
+ * line per bar, in descending chronological order. Columns are matched by name, so a missing column, ex. volume of
+ * a forex pair, is zero. Unlike json, a csv response has no meta, so datetimes are in the timezone the request
+ * asked for, which the caller passes to {@link #read(BufferedSource, String)}.
+ * 
+ * A failed request is answered in json even when csv is requested, so a body that starts with <code>{</code> is
+ * decoded as a failure by {@link ColumnarTimeSeriesAdapter}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class CsvTimeSeriesDecoder {
+	/**
+	 * Default field delimiter of the api.
+	 */
+	public static final char DEFAULT_DELIMITER = ';';
+	
+	private static final int COLUMN_OTHER = -1;
+	private static final int COLUMN_DATETIME = 0;
+	private static final int COLUMN_OPEN = 1;
+	private static final int COLUMN_HIGH = 2;
+	private static final int COLUMN_LOW = 3;
+	private static final int COLUMN_CLOSE = 4;
+	private static final int COLUMN_VOLUME = 5;
+	
+	private static final double[] POWERS_OF_10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	/**
+	 * Initial column capacity of each decoded series.
+	 */
+	private final int capacityHint;
+	
+	public CsvTimeSeriesDecoder() {
+		this(ColumnarTimeSeries.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacityHint Initial column capacity of each decoded series, ex. the expected number of bars.
+	 */
+	public CsvTimeSeriesDecoder(int capacityHint) {
+		this.capacityHint = capacityHint;
+	}
+	
+	/**
+	 * Decode a response body. The source is read to its end, but not closed.
+	 * 
+	 * @param source Response body source, ex. {@link okhttp3.ResponseBody#source()}.
+	 * @param timezone Timezone of the bar datetimes, which is that of the request, ex. {@code UTC} or
+	 * {@code America/New_York}. Stored as the series' {@link ColumnarTimeSeries#exchangeTimezone}.
+	 * 
+	 * @return Series in ascending chronological order, or a failure if the body is a json failure. Symbol and
+	 * interval are not in the response, so they are {@code null}.
+	 * 
+	 * @throws IOException Failed to read the source, or the body is not a valid csv time series.
+	 */
+	public ColumnarTimeSeries read(BufferedSource source, String timezone) throws IOException {
+		if (!source.request(1)) {
+			throw new IOException("empty csv time series");
+		}
+		if (source.getBuffer().getByte(0) == '{') {
+			ColumnarTimeSeries failure = new ColumnarTimeSeriesAdapter().read(
+				new JsonReader(new InputStreamReader(source.inputStream(), StandardCharsets.UTF_8))
+			);
+			if (failure == null || !failure.isFailure()) {
+				throw new IOException("expected csv time series but got json");
+			}
+			return failure;
+		}
+		
+		byte[] line = new byte[128];
+		int length = readLine(source, line);
+		if (length > line.length) {
+			line = new byte[length];
+			length = readLine(source, line);
+		}
+		char delimiter = delimiter(line, length);
+		int[] columns = columns(line, length, delimiter);
+		
+		ColumnarTimeSeries series = new ColumnarTimeSeries(capacityHint);
+		series.exchangeTimezone = timezone;
+		
+		while (true) {
+			length = readLine(source, line);
+			if (length < 0) {
+				break;
+			}
+			if (length > line.length) {
+				line = new byte[length * 2];
+				length = readLine(source, line);
+			}
+			if (length == 0) {
+				continue;
+			}
+			
+			long timestamp = 0, volume = 0;
+			float open = 0, high = 0, low = 0, close = 0;
+			
+			int column = 0;
+			for (int start=0; start<=length && column<columns.length; column++) {
+				int end = start;
+				while (end < length && line[end] != delimiter) {
+					end++;
+				}
+				
+				switch (columns[column]) {
+					case COLUMN_DATETIME:
+						timestamp = parseLocalEpochMilli(line, start, end);
+						break;
+					
+					case COLUMN_OPEN:
+						open = (float) parseDouble(line, start, end);
+						break;
+					
+					case COLUMN_HIGH:
+						high = (float) parseDouble(line, start, end);
+						break;
+					
+					case COLUMN_LOW:
+						low = (float) parseDouble(line, start, end);
+						break;
+					
+					case COLUMN_CLOSE:
+						close = (float) parseDouble(line, start, end);
+						break;
+					
+					case COLUMN_VOLUME:
+						volume = (long) parseDouble(line, start, end);
+						break;
+					
+					default:
+						break;
+				}
+				
+				start = end + 1;
+			}
+			
+			series.append(timestamp, open, high, low, close, volume);
+		}
+		
+		new TimestampParser(timezone).toEpochMilli(series.timestamps(), series.size());
+		series.sort();
+		return series;
+	}
+	
+	/**
+	 * Read the next line into {@code line}, unless it is longer, in which case it stays in the source.
+	 * 
+	 * @param source Source.
+	 * @param line Line buffer.
+	 * 
+	 * @return Line length without the line terminator, or {@code -1} at the end of the source. If greater than
+	 * {@code line.length}, nothing was read.
+	 */
+	private static int readLine(BufferedSource source, byte[] line) throws IOException {
+		if (source.exhausted()) {
+			return -1;
+		}
+		
+		long newline = source.indexOf((byte) '\n');
+		long length = (newline >= 0) ? newline : source.getBuffer().size();
+		if (length > line.length) {
+			// ex. a line longer than any before; caller grows the buffer
+			return (int) Math.min(length, Integer.MAX_VALUE - 8);
+		}
+		
+		// indexOf buffered the whole line
+		int n = (int) length;
+		for (int read=0; read<n; ) {
+			read += source.read(line, read, n - read);
+		}
+		if (newline >= 0) {
+			source.skip(1);
+		}
+		
+		return (n > 0 && line[n-1] == '\r') ? n - 1 : n;
+	}
+	
+	private static char delimiter(byte[] header, int length) {
+		for (int i=0; i<length; i++) {
+			if (header[i] == ';' || header[i] == ',' || header[i] == '\t') {
+				return (char) header[i];
+			}
+		}
+		return DEFAULT_DELIMITER;
+	}
+	
+	/**
+	 * @return Column of each field of the header.
+	 */
+	private static int[] columns(byte[] header, int length, char delimiter) throws IOException {
+		int fields = 1;
+		for (int i=0; i<length; i++) {
+			if (header[i] == delimiter) {
+				fields++;
+			}
+		}
+		
+		int[] columns = new int[fields];
+		boolean datetime = false;
+		for (int start=0, f=0; f<fields; f++) {
+			int end = start;
+			while (end < length && header[end] != delimiter) {
+				end++;
+			}
+			
+			String name = new String(header, start, end - start, StandardCharsets.UTF_8).trim();
+			switch (name) {
+				case "datetime":
+					columns[f] = COLUMN_DATETIME;
+					datetime = true;
+					break;
+				
+				case "open":
+					columns[f] = COLUMN_OPEN;
+					break;
+				
+				case "high":
+					columns[f] = COLUMN_HIGH;
+					break;
+				
+				case "low":
+					columns[f] = COLUMN_LOW;
+					break;
+				
+				case "close":
+					columns[f] = COLUMN_CLOSE;
+					break;
+				
+				case "volume":
+					columns[f] = COLUMN_VOLUME;
+					break;
+				
+				default:
+					columns[f] = COLUMN_OTHER;
+					break;
+			}
+			
+			start = end + 1;
+		}
+		
+		if (!datetime) {
+			throw new IOException(
+				"csv time series header has no datetime: " + new String(header, 0, length, StandardCharsets.UTF_8)
+			);
+		}
+		return columns;
+	}
+	
+	/**
+	 * Parse a trade bar datetime as if it were utc, like {@link TimestampParser#parseLocalEpochMilli(String)}.
+	 * 
+	 * @return Local datetime in epoch milliseconds.
+	 */
+	static long parseLocalEpochMilli(byte[] bytes, int start, int end) throws IOException {
+		int n = end - start;
+		if (
+			(n != 10 && n != 19)
+			|| bytes[start+4] != '-' || bytes[start+7] != '-'
+			|| (n == 19 && (bytes[start+13] != ':' || bytes[start+16] != ':'))
+		) {
+			throw new IOException("unexpected trade bar datetime " + new String(bytes, start, n, StandardCharsets.UTF_8));
+		}
+		
+		int year = digits(bytes, start, 4);
+		int month = digits(bytes, start + 5, 2);
+		int day = digits(bytes, start + 8, 2);
+		long seconds = TimestampParser.epochDay(year, month, day) * 86400L;
+		
+		if (n == 19) {
+			seconds += digits(bytes, start + 11, 2) * 3600 + digits(bytes, start + 14, 2) * 60 + digits(bytes, start + 17, 2);
+		}
+		
+		return seconds * 1000;
+	}
+	
+	private static int digits(byte[] bytes, int start, int count) throws IOException {
+		int value = 0;
+		
+		for (int i=start; i<start+count; i++) {
+			int digit = bytes[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new IOException("unexpected digit " + (char) bytes[i] + " in trade bar datetime");
+			}
+			value = value * 10 + digit;
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Parse a decimal number, exactly for up to 15 significant digits, and otherwise with
+	 * {@link Double#parseDouble(String)}.
+	 * 
+	 * @return Value, or {@code 0} if the field is empty.
+	 */
+	static double parseDouble(byte[] bytes, int start, int end) throws IOException {
+		if (start >= end) {
+			return 0;
+		}
+		
+		int i = start;
+		boolean negative = bytes[i] == '-';
+		if (negative) {
+			i++;
+		}
+		
+		long mantissa = 0;
+		int digits = 0;
+		int scale = -1;
+		for (; i<end; i++) {
+			byte b = bytes[i];
+			if (b >= '0' && b <= '9') {
+				mantissa = mantissa * 10 + (b - '0');
+				digits++;
+				if (scale >= 0) {
+					scale++;
+				}
+			}
+			else if (b == '.' && scale < 0) {
+				scale = 0;
+			}
+			else {
+				break;
+			}
+		}
+		scale = Math.max(scale, 0);
+		
+		if (i == end && digits > 0 && digits <= 15) {
+			// mantissa and power of 10 are exact, so the division is correctly rounded
+			double value = mantissa / POWERS_OF_10[scale];
+			return negative ? -value : value;
+		}
+		
+		// ex. exponent or many digits
+		String field = new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+		try {
+			return Double.parseDouble(field);
+		}
+		catch (NumberFormatException e) {
+			throw new IOException("unexpected number " + field + " in csv time series");
+		}
+	}
+}
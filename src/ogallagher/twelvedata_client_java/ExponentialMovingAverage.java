@@ -0,0 +1,77 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Exponential moving average (EMA), with smoothing factor {@code 2 / (period + 1)}.
+ * 
+ * The first value is the simple average of the first {@code period} values, after which each value moves the
+ * average by the smoothing factor.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class ExponentialMovingAverage implements Indicator {
+	private final int period;
+	private final double alpha;
+	
+	private int count = 0;
+	private double value = Double.NaN;
+	/**
+	 * Sum of the first values, until ready.
+	 */
+	private double seed = 0;
+	
+	/**
+	 * @param period Number of values whose simple average seeds the average, and which sets the smoothing factor.
+	 */
+	public ExponentialMovingAverage(int period) {
+		if (period < 1) {
+			throw new IllegalArgumentException("moving average period " + period + " must be positive");
+		}
+		
+		this.period = period;
+		this.alpha = 2.0 / (period + 1);
+	}
+	
+	@Override
+	public double update(double value) {
+		if (count < period) {
+			seed += value;
+			count++;
+			
+			if (count == period) {
+				this.value = seed / period;
+			}
+		}
+		else {
+			this.value += alpha * (value - this.value);
+		}
+		
+		return this.value;
+	}
+	
+	@Override
+	public double getValue() {
+		return value;
+	}
+	
+	@Override
+	public boolean isReady() {
+		return count == period;
+	}
+	
+	@Override
+	public void reset() {
+		count = 0;
+		seed = 0;
+		value = Double.NaN;
+	}
+	
+	public int getPeriod() {
+		return period;
+	}
+	
+	@Override
+	public String toString() {
+		return "EMA(" + period + ")=" + value;
+	}
+}
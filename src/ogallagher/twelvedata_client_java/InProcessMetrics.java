@@ -0,0 +1,178 @@
+package ogallagher.twelvedata_client_java;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link MetricsListener}, which aggregates measurements in memory without locks, for polling by a
+ * monitoring system.
+ * 
+ * Keeps a {@link LatencyHistogram} of response latency and parse time per endpoint, failure counts per error
+ * code, bytes received, and rate limiter wait time and utilization.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class InProcessMetrics implements MetricsListener {
+	private final ConcurrentHashMap<String,LatencyHistogram> latency = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String,LatencyHistogram> parseTime = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String,LongAdder> bytesReceived = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<Integer,LongAdder> failures = new ConcurrentHashMap<>();
+	private final LatencyHistogram limiterWait = new LatencyHistogram();
+	
+	/**
+	 * Api credits used per second of the last minute, indexed by epoch second modulo 60.
+	 */
+	private final AtomicLongArray creditsPerSecond = new AtomicLongArray(60);
+	/**
+	 * Epoch second that each slot of {@link #creditsPerSecond} counts.
+	 */
+	private final AtomicLongArray slotSeconds = new AtomicLongArray(60);
+	private volatile int permitsPerMinute = 0;
+	
+	@Override
+	public void onResponse(String endpoint, int httpStatus, long latencyNanos) {
+		latency.computeIfAbsent(endpoint, (e) -> new LatencyHistogram()).record(latencyNanos);
+	}
+	
+	@Override
+	public void onBytesReceived(String endpoint, long bytes) {
+		bytesReceived.computeIfAbsent(endpoint, (e) -> new LongAdder()).add(bytes);
+	}
+	
+	@Override
+	public void onParse(String endpoint, long parseNanos) {
+		parseTime.computeIfAbsent(endpoint, (e) -> new LatencyHistogram()).record(parseNanos);
+	}
+	
+	@Override
+	public void onFailure(String endpoint, int errorCode) {
+		failures.computeIfAbsent(errorCode, (c) -> new LongAdder()).increment();
+	}
+	
+	@Override
+	public void onLimiterWait(long waitNanos, int credits, int permitsPerMinute) {
+		limiterWait.record(waitNanos);
+		this.permitsPerMinute = permitsPerMinute;
+		
+		// credits count in the second the call is sent
+		long second = (System.currentTimeMillis() + waitNanos / 1000000) / 1000;
+		int slot = (int) (second % 60);
+		long slotSecond = slotSeconds.get(slot);
+		if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+			// slot is from a previous minute; losing a concurrent increment here is acceptable
+			creditsPerSecond.set(slot, 0);
+		}
+		creditsPerSecond.addAndGet(slot, credits);
+	}
+	
+	/**
+	 * @param endpoint Api endpoint, ex. {@value MetricsListener#ENDPOINT_TIME_SERIES}.
+	 * 
+	 * @return Response latency in nanoseconds, or {@code null} if the endpoint has no responses.
+	 */
+	public LatencyHistogram getLatency(String endpoint) {
+		return latency.get(endpoint);
+	}
+	
+	/**
+	 * @param endpoint Api endpoint.
+	 * 
+	 * @return Body decoding time in nanoseconds, or {@code null} if the endpoint has no decoded bodies.
+	 */
+	public LatencyHistogram getParseTime(String endpoint) {
+		return parseTime.get(endpoint);
+	}
+	
+	/**
+	 * @param endpoint Api endpoint.
+	 * 
+	 * @return Bytes received from the endpoint.
+	 */
+	public long getBytesReceived(String endpoint) {
+		LongAdder bytes = bytesReceived.get(endpoint);
+		return (bytes != null) ? bytes.sum() : 0;
+	}
+	
+	/**
+	 * @return Bytes received from all endpoints.
+	 */
+	public long getBytesReceived() {
+		return bytesReceived.values().stream().mapToLong(LongAdder::sum).sum();
+	}
+	
+	/**
+	 * @param errorCode Error code.
+	 * 
+	 * @return Number of failures with the error code, ex. {@link TwelvedataInterface.Failure.ErrorCode#CALL_LIMIT}
+	 * rejections.
+	 */
+	public long getFailures(int errorCode) {
+		LongAdder count = failures.get(errorCode);
+		return (count != null) ? count.sum() : 0;
+	}
+	
+	/**
+	 * @return Failure counts by error code.
+	 */
+	public Map<Integer,Long> getFailures() {
+		TreeMap<Integer,Long> out = new TreeMap<>();
+		failures.forEach((code, count) -> out.put(code, count.sum()));
+		return out;
+	}
+	
+	/**
+	 * @return Time api calls waited for the rate limiter, in nanoseconds.
+	 */
+	public LatencyHistogram getLimiterWait() {
+		return limiterWait;
+	}
+	
+	/**
+	 * @return Api credits used in the last 60 seconds.
+	 */
+	public long getCreditsLastMinute() {
+		long now = System.currentTimeMillis() / 1000;
+		long total = 0;
+		
+		for (int slot=0; slot<60; slot++) {
+			long second = slotSeconds.get(slot);
+			if (second > now - 60 && second <= now) {
+				total += creditsPerSecond.get(slot);
+			}
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * @return Fraction of the rate limit used in the last 60 seconds, or 0 if no call was made.
+	 */
+	public double getLimiterUtilization() {
+		int limit = permitsPerMinute;
+		return (limit == 0) ? 0 : (double) getCreditsLastMinute() / limit;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder("InProcessMetrics(");
+		
+		new TreeMap<>(latency).forEach((endpoint, histogram) -> {
+			out.append(endpoint).append(".latency=").append(histogram).append(",");
+		});
+		new TreeMap<>(parseTime).forEach((endpoint, histogram) -> {
+			out.append(endpoint).append(".parse=").append(histogram).append(",");
+		});
+		
+		return out
+			.append("bytes=").append(getBytesReceived()).append(",")
+			.append("failures=").append(getFailures()).append(",")
+			.append("limiterWait=").append(limiterWait).append(",")
+			.append("limiterUtilization=").append(getLimiterUtilization())
+			.append(")")
+			.toString();
+	}
+}
@@ -0,0 +1,97 @@
+package ogallagher.twelvedata_client_java;
+
+import java.util.List;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.TradeBar;
+
+/**
+ * Technical indicator over a stream of prices, updated incrementally one bar at a time.
+ * 
+ * Each {@link #update(double) update} takes constant time and does not allocate, so an indicator can follow a live
+ * series at any window length. The batch {@link #apply(float[], int, double[]) apply} methods run the same updates
+ * over a whole history in one tight loop over a primitive column.
+ * 
+ * Values are {@link Double#NaN} until the indicator has seen enough bars to be {@link #isReady() ready}.
+ * Implementations are not thread safe.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public interface Indicator {
+	/**
+	 * @param value Next value, usually a bar close price.
+	 * 
+	 * @return Indicator value after {@code value}, or {@link Double#NaN} if not yet ready.
+	 */
+	double update(double value);
+	
+	/**
+	 * @return Indicator value after the last update, or {@link Double#NaN} if not yet ready.
+	 */
+	double getValue();
+	
+	/**
+	 * @return Whether enough values have been seen for {@link #getValue()} to be defined.
+	 */
+	boolean isReady();
+	
+	/**
+	 * Forget all values.
+	 */
+	void reset();
+	
+	/**
+	 * Reset the indicator and compute it over a history.
+	 * 
+	 * @param values Values in ascending chronological order.
+	 * @param size Number of values.
+	 * @param out Array to write indicator values to, or {@code null} to allocate one.
+	 * 
+	 * @return Indicator value after each of {@code values}, in {@code out} if it's long enough.
+	 */
+	default double[] apply(float[] values, int size, double[] out) {
+		if (out == null || out.length < size) {
+			out = new double[size];
+		}
+		
+		reset();
+		for (int i=0; i<size; i++) {
+			out[i] = update(values[i]);
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * Reset the indicator and compute it over the close prices of a series.
+	 * 
+	 * @param series Bars.
+	 * @param out Array to write indicator values to, or {@code null} to allocate one.
+	 * 
+	 * @return Indicator value after each bar, in ascending chronological order like the series.
+	 */
+	default double[] apply(ColumnarTimeSeries series, double[] out) {
+		return apply(series.close(), series.size(), out);
+	}
+	
+	/**
+	 * Reset the indicator and compute it over the close prices of a series.
+	 * 
+	 * @param series Bars, in descending chronological order like the api returns them.
+	 * 
+	 * @return Indicator value after each bar, in the order of {@link TimeSeries#values}.
+	 */
+	default double[] apply(TimeSeries series) {
+		List<TradeBar> values = series.values;
+		int size = (values != null) ? values.size() : 0;
+		double[] out = new double[size];
+		
+		reset();
+		for (int i=size-1; i>=0; i--) {
+			out[i] = update(values.get(i).close);
+		}
+		
+		return out;
+	}
+}
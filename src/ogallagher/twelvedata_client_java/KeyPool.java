@@ -0,0 +1,406 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Pool of api keys, each with its own rate limiter and plan limit, so that the aggregate call rate of a
+ * {@link TwelvedataClient} grows with the number of keys.
+ * 
+ * A client built with a {@link TwelvedataClient.Builder#keyPool(KeyPool) key pool} admits calls through the pool's
+ * aggregate {@link #getLimiter() limiter}, whose rate is the sum of the rates of the healthy keys. The pool's
+ * {@link #interceptor() interceptor} then sends each call with the healthy key that can grant its credits soonest,
+ * waiting for that key's limiter if needed.
+ * 
+ * A key whose call fails with {@link Failure.ErrorCode#API_KEY} or http 429, whether as the http status or as the
+ * {@code code} of the response body, is marked unhealthy for a cooldown, and the call is retried once with each other
+ * healthy key. When every key is unhealthy, calls go to the key whose cooldown ends first.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class KeyPool {
+	/**
+	 * Time a key is unhealthy after the api reports that its credits of the current minute ran out.
+	 */
+	public static final Duration DEFAULT_RATE_LIMIT_COOLDOWN = Duration.ofMinutes(1);
+	/**
+	 * Time a key is unhealthy after the api rejects it, ex. because it was revoked.
+	 */
+	public static final Duration DEFAULT_API_KEY_COOLDOWN = Duration.ofHours(1);
+	
+	private static final int RATE_LIMITED = 429;
+	private static final String QUERY_API_KEY = "apikey";
+	private static final String QUERY_SYMBOL = "symbol";
+	/**
+	 * Bytes of a response body to read for a failure code, which is the first field of a failure.
+	 */
+	private static final long PEEK_BYTES = 32;
+	private static final String FAILURE_PREFIX = "{\"code\":";
+	
+	private final List<Key> keys = new ArrayList<>();
+	private final RateLimiter limiter;
+	private volatile long rateLimitCooldownNanos = DEFAULT_RATE_LIMIT_COOLDOWN.toNanos();
+	private volatile long apiKeyCooldownNanos = DEFAULT_API_KEY_COOLDOWN.toNanos();
+	/**
+	 * Whether {@link #limiter} was last set with every key healthy, to skip updates in the common case.
+	 */
+	private volatile boolean allHealthy = true;
+	
+	private final Interceptor interceptor = this::intercept;
+	
+	/**
+	 * @param keys Api keys, which share the same plan.
+	 * @param callsPerMinute Max api credits per minute of each key.
+	 */
+	public KeyPool(Collection<String> keys, int callsPerMinute) {
+		if (keys.isEmpty()) {
+			throw new IllegalArgumentException("key pool needs at least one key");
+		}
+		
+		for (String key : keys) {
+			this.keys.add(new Key(key, RateLimiter.perMinute(callsPerMinute)));
+		}
+		limiter = RateLimiter.perMinute(healthyCallsPerMinute(System.nanoTime()));
+	}
+	
+	/**
+	 * @param keys Api keys.
+	 * @param limiters Rate limiter of each key, by index, ex. for keys of different plans.
+	 */
+	public KeyPool(List<String> keys, List<RateLimiter> limiters) {
+		if (keys.isEmpty() || keys.size() != limiters.size()) {
+			throw new IllegalArgumentException("key pool needs one rate limiter for each of at least one key");
+		}
+		
+		for (int k=0; k<keys.size(); k++) {
+			this.keys.add(new Key(keys.get(k), limiters.get(k)));
+		}
+		limiter = RateLimiter.perMinute(healthyCallsPerMinute(System.nanoTime()));
+	}
+	
+	/**
+	 * @param rateLimit Time a key is unhealthy after http 429.
+	 * @param apiKey Time a key is unhealthy after {@link Failure.ErrorCode#API_KEY}.
+	 * 
+	 * @return This pool.
+	 */
+	public KeyPool cooldowns(Duration rateLimit, Duration apiKey) {
+		rateLimitCooldownNanos = rateLimit.toNanos();
+		apiKeyCooldownNanos = apiKey.toNanos();
+		return this;
+	}
+	
+	/**
+	 * @return Rate limiter that admits calls at the sum of the rates of the healthy keys.
+	 */
+	public RateLimiter getLimiter() {
+		updateLimiter(System.nanoTime());
+		return limiter;
+	}
+	
+	/**
+	 * @return Interceptor that sends each call with the best key, to add to the http client of the api.
+	 */
+	public Interceptor interceptor() {
+		return interceptor;
+	}
+	
+	/**
+	 * @return First key, which the client sends before the interceptor replaces it.
+	 */
+	public String getFirstKey() {
+		return keys.get(0).key;
+	}
+	
+	/**
+	 * @return Number of keys.
+	 */
+	public int size() {
+		return keys.size();
+	}
+	
+	/**
+	 * @return Number of keys that are not cooling down.
+	 */
+	public int getHealthyCount() {
+		long now = System.nanoTime();
+		int healthy = 0;
+		for (Key key : keys) {
+			if (key.isHealthy(now)) {
+				healthy++;
+			}
+		}
+		return healthy;
+	}
+	
+	/**
+	 * @return State of each key, with keys masked.
+	 */
+	public List<String> getKeyStates() {
+		long now = System.nanoTime();
+		List<String> states = new ArrayList<>();
+		for (Key key : keys) {
+			states.add(key.toString(now));
+		}
+		return Collections.unmodifiableList(states);
+	}
+	
+	private Response intercept(Interceptor.Chain chain) throws IOException {
+		Request request = chain.request();
+		HttpUrl url = request.url();
+		if (url.queryParameter(QUERY_API_KEY) == null) {
+			// ex. symbol search, which is free
+			return chain.proceed(request);
+		}
+		
+		int credits = credits(url);
+		List<Key> tried = new ArrayList<>(1);
+		
+		while (true) {
+			Key key = choose(credits, tried);
+			awaitKey(key, credits);
+			key.calls.incrementAndGet();
+			
+			Response response = chain.proceed(
+				request.newBuilder()
+					.url(url.newBuilder().setQueryParameter(QUERY_API_KEY, key.key).build())
+					.build()
+			);
+			
+			int code = failureCode(response);
+			if (code != Failure.ErrorCode.API_KEY && code != RATE_LIMITED) {
+				return response;
+			}
+			
+			markUnhealthy(key, code);
+			tried.add(key);
+			if (tried.size() >= keys.size() || getHealthyCount() == 0) {
+				return response;
+			}
+			
+			response.close();
+		}
+	}
+	
+	/**
+	 * @param key Api key.
+	 * 
+	 * @return Key with all but the last 4 characters masked, for logs.
+	 */
+	static String mask(String key) {
+		if (key == null) {
+			return null;
+		}
+		return (key.length() > 4) ? "..." + key.substring(key.length() - 4) : "...";
+	}
+	
+	/**
+	 * @param url Api request url.
+	 * 
+	 * @return Api credits of the request, which is one per symbol.
+	 */
+	static int credits(HttpUrl url) {
+		String symbols = url.queryParameter(QUERY_SYMBOL);
+		if (symbols == null) {
+			return 1;
+		}
+		
+		int credits = 1;
+		for (int c=0; c<symbols.length(); c++) {
+			if (symbols.charAt(c) == ',') {
+				credits++;
+			}
+		}
+		return credits;
+	}
+	
+	/**
+	 * @param credits Api credits of a call.
+	 * @param exclude Keys already tried for the call.
+	 * 
+	 * @return Healthy key that can grant {@code credits} soonest, or the key that becomes healthy soonest.
+	 */
+	Key choose(int credits, List<Key> exclude) {
+		long now = System.nanoTime();
+		updateLimiter(now);
+		
+		Key best = null;
+		long bestWait = Long.MAX_VALUE;
+		Key leastUnhealthy = null;
+		
+		for (Key key : keys) {
+			if (exclude.contains(key)) {
+				continue;
+			}
+			
+			if (key.isHealthy(now)) {
+				long wait = key.limiter.nanosUntilAvailable(credits);
+				if (wait < bestWait) {
+					best = key;
+					bestWait = wait;
+				}
+			}
+			else if (leastUnhealthy == null || key.unhealthyUntil < leastUnhealthy.unhealthyUntil) {
+				leastUnhealthy = key;
+			}
+		}
+		
+		if (best != null) {
+			return best;
+		}
+		return (leastUnhealthy != null) ? leastUnhealthy : keys.get(0);
+	}
+	
+	/**
+	 * Wait for a key's limiter to grant credits.
+	 * 
+	 * @throws InterruptedIOException Interrupted while waiting.
+	 */
+	private static void awaitKey(Key key, int credits) throws InterruptedIOException {
+		long wait = key.limiter.reserve(credits, Long.MAX_VALUE);
+		long deadline = System.nanoTime() + wait;
+		
+		while (wait > 0) {
+			LockSupport.parkNanos(wait);
+			if (Thread.interrupted()) {
+				key.limiter.release(credits);
+				throw new InterruptedIOException("interrupted while waiting for api key rate limit");
+			}
+			wait = deadline - System.nanoTime();
+		}
+	}
+	
+	/**
+	 * @param response Api response.
+	 * 
+	 * @return Http status if unsuccessful, else the failure code of the body if it is a failure, else {@code 0}.
+	 * 
+	 * @throws IOException Failed to read the body.
+	 */
+	static int failureCode(Response response) throws IOException {
+		if (!response.isSuccessful()) {
+			return response.code();
+		}
+		
+		String head = response.peekBody(PEEK_BYTES).string().trim();
+		if (!head.startsWith(FAILURE_PREFIX)) {
+			return 0;
+		}
+		
+		int code = 0;
+		for (int c=FAILURE_PREFIX.length(); c<head.length() && Character.isDigit(head.charAt(c)); c++) {
+			code = code * 10 + (head.charAt(c) - '0');
+		}
+		return code;
+	}
+	
+	/**
+	 * @param key Key whose call failed.
+	 * @param code Failure code, {@link Failure.ErrorCode#API_KEY} or http 429.
+	 */
+	private void markUnhealthy(Key key, int code) {
+		long cooldown = (code == RATE_LIMITED) ? rateLimitCooldownNanos : apiKeyCooldownNanos;
+		key.unhealthyUntil = System.nanoTime() + cooldown;
+		key.failures.incrementAndGet();
+		updateLimiter(System.nanoTime());
+	}
+	
+	/**
+	 * Set the aggregate limiter's rate to that of the healthy keys, if their health changed.
+	 * 
+	 * @param now Current {@link System#nanoTime()}.
+	 */
+	private void updateLimiter(long now) {
+		boolean healthy = getHealthyCount() == keys.size();
+		if (healthy && allHealthy) {
+			return;
+		}
+		
+		synchronized (this) {
+			allHealthy = healthy;
+			limiter.setRate(healthyCallsPerMinute(now), Duration.ofMinutes(1));
+		}
+	}
+	
+	/**
+	 * @param now Current {@link System#nanoTime()}.
+	 * 
+	 * @return Sum of the calls per minute of healthy keys, or of the key that becomes healthy soonest if none are.
+	 */
+	private int healthyCallsPerMinute(long now) {
+		long sum = 0;
+		Key next = null;
+		for (Key key : keys) {
+			if (key.isHealthy(now)) {
+				sum += key.limiter.getPermitsPerMinute();
+			}
+			else if (next == null || key.unhealthyUntil < next.unhealthyUntil) {
+				next = key;
+			}
+		}
+		
+		if (sum == 0 && next != null) {
+			sum = next.limiter.getPermitsPerMinute();
+		}
+		return (int) Math.min(Math.max(sum, 1), Integer.MAX_VALUE);
+	}
+	
+	@Override
+	public String toString() {
+		return "KeyPool(keys=" + size() + ",healthy=" + getHealthyCount() + "," + limiter + ")";
+	}
+	
+	/**
+	 * An api key and its limiter and health.
+	 */
+	static class Key {
+		final String key;
+		final RateLimiter limiter;
+		/**
+		 * {@link System#nanoTime()} until which the key is unhealthy.
+		 */
+		volatile long unhealthyUntil;
+		final AtomicLong calls = new AtomicLong();
+		final AtomicLong failures = new AtomicLong();
+		
+		Key(String key, RateLimiter limiter) {
+			this.key = key;
+			this.limiter = limiter;
+			this.unhealthyUntil = System.nanoTime();
+		}
+		
+		boolean isHealthy(long now) {
+			return now - unhealthyUntil >= 0;
+		}
+		
+		/**
+		 * @param now Current {@link System#nanoTime()}.
+		 * 
+		 * @return Key state, with all but the last 4 characters of the key masked.
+		 */
+		String toString(long now) {
+			return "Key(" + mask(key) + ","
+				+ (isHealthy(now) ? "healthy" : "unhealthy for " + TimeUnit.NANOSECONDS.toSeconds(unhealthyUntil - now) + "s") + ","
+				+ "calls=" + calls.get() + ","
+				+ "failures=" + failures.get() + ","
+				+ limiter
+				+ ")";
+		}
+	}
+}
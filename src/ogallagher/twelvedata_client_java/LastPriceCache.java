@@ -0,0 +1,124 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent cache of the latest price of each symbol, shared by any number of readers and publishers, ex. a
+ * {@link QuotePoller} and a {@link PriceStream}.
+ * 
+ * Each price is an immutable {@link LastPrice}, so reads never block and never see a partially updated price.
+ * An update older than the cached price of its symbol is ignored, so publishers can race.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class LastPriceCache implements PriceListener {
+	private final ConcurrentHashMap<String,LastPrice> prices = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Latest price of {@code symbol}, or {@code null} if none was published.
+	 */
+	public LastPrice get(String symbol) {
+		return prices.get(symbol);
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param maxAge Max time since the price was published.
+	 * 
+	 * @return Latest price of {@code symbol}, or {@code null} if none was published within {@code maxAge}.
+	 */
+	public LastPrice get(String symbol, Duration maxAge) {
+		LastPrice last = prices.get(symbol);
+		return (last != null && System.currentTimeMillis() - last.updated <= maxAge.toMillis()) ? last : null;
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Latest price of {@code symbol}, or {@link Double#NaN} if none was published.
+	 */
+	public double getPrice(String symbol) {
+		LastPrice last = prices.get(symbol);
+		return (last != null) ? last.price : Double.NaN;
+	}
+	
+	/**
+	 * Publish a price.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param price Price.
+	 * @param timestamp Epoch milliseconds of the price.
+	 * 
+	 * @return {@code true} if the price was cached, or {@code false} if a newer price was already cached.
+	 */
+	public boolean update(String symbol, double price, long timestamp) {
+		LastPrice next = new LastPrice(symbol, price, timestamp, System.currentTimeMillis());
+		return prices.merge(symbol, next, (current, update) -> (update.timestamp >= current.timestamp) ? update : current) == next;
+	}
+	
+	@Override
+	public void onPrice(int symbolId, String symbol, long timestamp, double price, long dayVolume) {
+		update(symbol, price, timestamp);
+	}
+	
+	/**
+	 * @param symbol Security symbol whose price to forget.
+	 */
+	public void remove(String symbol) {
+		prices.remove(symbol);
+	}
+	
+	public void clear() {
+		prices.clear();
+	}
+	
+	public int size() {
+		return prices.size();
+	}
+	
+	/**
+	 * @return Copy of all cached prices, by symbol.
+	 */
+	public Map<String,LastPrice> snapshot() {
+		return new HashMap<>(prices);
+	}
+	
+	@Override
+	public String toString() {
+		return "LastPriceCache(size=" + size() + ")";
+	}
+	
+	/**
+	 * Immutable latest price of a symbol.
+	 */
+	public static class LastPrice {
+		public final String symbol;
+		public final double price;
+		/**
+		 * Epoch milliseconds of the price.
+		 */
+		public final long timestamp;
+		/**
+		 * Epoch milliseconds when the price was published to the cache.
+		 */
+		public final long updated;
+		
+		public LastPrice(String symbol, double price, long timestamp, long updated) {
+			this.symbol = symbol;
+			this.price = price;
+			this.timestamp = timestamp;
+			this.updated = updated;
+		}
+		
+		@Override
+		public String toString() {
+			return "LastPrice(" + symbol + "," + price + "," + timestamp + ")";
+		}
+	}
+}
@@ -0,0 +1,146 @@
+package ogallagher.twelvedata_client_java;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of non negative values, ex. latencies in nanoseconds, with log linear buckets like an
+ * HDR histogram.
+ * 
+ * Values below {@value #SUB_BUCKETS} have their own bucket. Above that, each power of 2 is split into
+ * {@value #SUB_BUCKETS} buckets, so a recorded value is reported within about 3% of its true value. Recording
+ * is a single atomic increment and never allocates.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Enough buckets for any {@code long} value.
+	 */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+	
+	/**
+	 * @param value Value to record. Negative values are recorded as 0.
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		
+		counts.incrementAndGet(bucket(value));
+		count.increment();
+		sum.add(value);
+		max.accumulate(value);
+	}
+	
+	/**
+	 * @param value Value.
+	 * 
+	 * @return Bucket index of {@code value}.
+	 */
+	static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int mantissa = (int) (value >>> shift) - SUB_BUCKETS;
+		return (shift + 1) * SUB_BUCKETS + mantissa;
+	}
+	
+	/**
+	 * @param bucket Bucket index.
+	 * 
+	 * @return Largest value in the bucket.
+	 */
+	static long bucketMax(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		
+		int shift = bucket / SUB_BUCKETS - 1;
+		long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+		long upper = (mantissa + 1) << shift;
+		// top bucket of the top power of 2 overflows
+		return (upper > 0) ? upper - 1 : Long.MAX_VALUE;
+	}
+	
+	/**
+	 * @param percentile Percentile, from 0 to 100.
+	 * 
+	 * @return Approximate value at or below which {@code percentile} percent of recorded values fall, or 0 if none
+	 * were recorded. Concurrent recording may be partially included.
+	 */
+	public long getPercentile(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKETS];
+		for (int b=0; b<BUCKETS; b++) {
+			snapshot[b] = counts.get(b);
+			total += snapshot[b];
+		}
+		
+		if (total == 0) {
+			return 0;
+		}
+		
+		long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int b=0; b<BUCKETS; b++) {
+			seen += snapshot[b];
+			if (seen >= rank) {
+				return Math.min(bucketMax(b), getMax());
+			}
+		}
+		
+		return getMax();
+	}
+	
+	public long getCount() {
+		return count.sum();
+	}
+	
+	public long getSum() {
+		return sum.sum();
+	}
+	
+	public long getMax() {
+		return max.get();
+	}
+	
+	public double getMean() {
+		long n = getCount();
+		return (n == 0) ? 0 : (double) getSum() / n;
+	}
+	
+	/**
+	 * Remove all recorded values. Values recorded concurrently may be partially removed.
+	 */
+	public void reset() {
+		for (int b=0; b<BUCKETS; b++) {
+			counts.set(b, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+	
+	@Override
+	public String toString() {
+		return "LatencyHistogram("
+			+ "count=" + getCount() + ","
+			+ "mean=" + (long) getMean() + ","
+			+ "p50=" + getPercentile(50) + ","
+			+ "p99=" + getPercentile(99) + ","
+			+ "max=" + getMax()
+			+ ")";
+	}
+}
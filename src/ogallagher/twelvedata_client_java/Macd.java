@@ -0,0 +1,119 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Moving average convergence divergence (MACD): the difference between a fast and a slow
+ * {@link ExponentialMovingAverage}, with a signal line that is an exponential moving average of the difference.
+ * 
+ * {@link #getValue()} is the MACD line, defined once the slow average is ready. The signal line and histogram
+ * are defined once the signal average is ready, which is what {@link #isReady()} reports.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class Macd implements Indicator {
+	public static final int DEFAULT_FAST_PERIOD = 12;
+	public static final int DEFAULT_SLOW_PERIOD = 26;
+	public static final int DEFAULT_SIGNAL_PERIOD = 9;
+	
+	private final ExponentialMovingAverage fast;
+	private final ExponentialMovingAverage slow;
+	private final ExponentialMovingAverage signal;
+	
+	private double value = Double.NaN;
+	
+	public Macd() {
+		this(DEFAULT_FAST_PERIOD, DEFAULT_SLOW_PERIOD, DEFAULT_SIGNAL_PERIOD);
+	}
+	
+	/**
+	 * @param fastPeriod Period of the fast average.
+	 * @param slowPeriod Period of the slow average.
+	 * @param signalPeriod Period of the signal line average.
+	 */
+	public Macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+		if (fastPeriod >= slowPeriod) {
+			throw new IllegalArgumentException("macd fast period " + fastPeriod + " must be less than slow period " + slowPeriod);
+		}
+		
+		fast = new ExponentialMovingAverage(fastPeriod);
+		slow = new ExponentialMovingAverage(slowPeriod);
+		signal = new ExponentialMovingAverage(signalPeriod);
+	}
+	
+	@Override
+	public double update(double value) {
+		fast.update(value);
+		slow.update(value);
+		
+		if (slow.isReady()) {
+			this.value = fast.getValue() - slow.getValue();
+			signal.update(this.value);
+		}
+		
+		return this.value;
+	}
+	
+	/**
+	 * Reset the indicator and compute all of its lines over a history.
+	 * 
+	 * @param values Values in ascending chronological order.
+	 * @param size Number of values.
+	 * @param macd Array for the MACD line, at least {@code size} long.
+	 * @param signal Array for the signal line, or {@code null} to skip it.
+	 * @param histogram Array for the histogram, or {@code null} to skip it.
+	 */
+	public void apply(float[] values, int size, double[] macd, double[] signal, double[] histogram) {
+		reset();
+		for (int i=0; i<size; i++) {
+			macd[i] = update(values[i]);
+			
+			if (signal != null) {
+				signal[i] = getSignal();
+			}
+			if (histogram != null) {
+				histogram[i] = getHistogram();
+			}
+		}
+	}
+	
+	/**
+	 * @return MACD line.
+	 */
+	@Override
+	public double getValue() {
+		return value;
+	}
+	
+	/**
+	 * @return Signal line, or {@link Double#NaN} if not yet ready.
+	 */
+	public double getSignal() {
+		return signal.getValue();
+	}
+	
+	/**
+	 * @return MACD line minus signal line, or {@link Double#NaN} if not yet ready.
+	 */
+	public double getHistogram() {
+		return value - signal.getValue();
+	}
+	
+	@Override
+	public boolean isReady() {
+		return signal.isReady();
+	}
+	
+	@Override
+	public void reset() {
+		fast.reset();
+		slow.reset();
+		signal.reset();
+		value = Double.NaN;
+	}
+	
+	@Override
+	public String toString() {
+		return "MACD(" + fast.getPeriod() + "," + slow.getPeriod() + "," + signal.getPeriod() + ")="
+			+ value + "," + getSignal() + "," + getHistogram();
+	}
+}
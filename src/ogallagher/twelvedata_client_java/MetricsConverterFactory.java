@@ -0,0 +1,71 @@
+package ogallagher.twelvedata_client_java;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * Reports decoding time and api error codes of response bodies to a {@link MetricsListener}, delegating
+ * the decoding itself to the next converter.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+class MetricsConverterFactory extends Converter.Factory {
+	private final MetricsListener metrics;
+	
+	MetricsConverterFactory(MetricsListener metrics) {
+		this.metrics = metrics;
+	}
+	
+	@Override
+	public Converter<ResponseBody,?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+		Converter<ResponseBody,?> delegate = retrofit.nextResponseBodyConverter(this, type, annotations);
+		String endpoint = endpoint(annotations);
+		
+		return (body) -> {
+			long start = System.nanoTime();
+			Object value = delegate.convert(body);
+			metrics.onParse(endpoint, System.nanoTime() - start);
+			
+			// the api reports most errors with http 200 and an error code in the body
+			if (value instanceof Failure && ((Failure) value).isFailure()) {
+				metrics.onFailure(endpoint, ((Failure) value).code);
+			}
+			else if (value instanceof JsonObject) {
+				JsonElement code = ((JsonObject) value).get("code");
+				if (code != null && code.isJsonPrimitive()) {
+					metrics.onFailure(endpoint, code.getAsInt());
+				}
+			}
+			
+			return value;
+		};
+	}
+	
+	/**
+	 * @param annotations Api method annotations.
+	 * 
+	 * @return Endpoint path of the method, ex. {@value MetricsListener#ENDPOINT_TIME_SERIES}.
+	 */
+	private static String endpoint(Annotation[] annotations) {
+		for (Annotation annotation : annotations) {
+			if (annotation instanceof GET) {
+				String path = ((GET) annotation).value();
+				int query = path.indexOf('?');
+				return (query >= 0) ? path.substring(0, query) : path;
+			}
+		}
+		
+		return "unknown";
+	}
+}
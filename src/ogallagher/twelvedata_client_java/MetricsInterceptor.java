@@ -0,0 +1,101 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.util.List;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Reports http latency, status and bytes received of each api call to a {@link MetricsListener}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+class MetricsInterceptor implements Interceptor {
+	private final MetricsListener metrics;
+	
+	MetricsInterceptor(MetricsListener metrics) {
+		this.metrics = metrics;
+	}
+	
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		String endpoint = endpoint(request);
+		long start = System.nanoTime();
+		
+		Response response;
+		try {
+			response = chain.proceed(request);
+		}
+		catch (IOException e) {
+			if (!chain.call().isCanceled()) {
+				metrics.onFailure(endpoint, Failure.ErrorCode.NO_COMMS);
+			}
+			throw e;
+		}
+		
+		metrics.onResponse(endpoint, response.code(), System.nanoTime() - start);
+		if (!response.isSuccessful()) {
+			metrics.onFailure(endpoint, response.code());
+		}
+		
+		ResponseBody body = response.body();
+		if (body == null) {
+			return response;
+		}
+		
+		Source counting = new ForwardingSource(body.source()) {
+			private long bytes = 0;
+			private boolean reported = false;
+			
+			@Override
+			public long read(Buffer sink, long byteCount) throws IOException {
+				long read = super.read(sink, byteCount);
+				if (read == -1) {
+					report();
+				}
+				else {
+					bytes += read;
+				}
+				return read;
+			}
+			
+			@Override
+			public void close() throws IOException {
+				report();
+				super.close();
+			}
+			
+			private void report() {
+				if (!reported) {
+					reported = true;
+					metrics.onBytesReceived(endpoint, bytes);
+				}
+			}
+		};
+		
+		return response.newBuilder()
+			.body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(counting)))
+			.build();
+	}
+	
+	/**
+	 * @param request Api request.
+	 * 
+	 * @return Last path segment of the request url, ex. {@value MetricsListener#ENDPOINT_TIME_SERIES}.
+	 */
+	static String endpoint(Request request) {
+		List<String> segments = request.url().pathSegments();
+		return segments.get(segments.size() - 1);
+	}
+}
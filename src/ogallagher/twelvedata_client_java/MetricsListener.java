@@ -0,0 +1,67 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Receives measurements of {@link TwelvedataClient} activity, ex. to export them to a monitoring system.
+ * 
+ * Methods are called on http client and caller threads, often concurrently, so implementations must be
+ * thread safe and should return quickly. Every method has an empty default implementation.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ * 
+ * @see InProcessMetrics
+ */
+public interface MetricsListener {
+	/**
+	 * Ignores all measurements.
+	 */
+	public static final MetricsListener NONE = new MetricsListener() {};
+	
+	public static final String ENDPOINT_TIME_SERIES = "time_series";
+	public static final String ENDPOINT_SYMBOL_SEARCH = "symbol_search";
+	public static final String ENDPOINT_QUOTE = "quote";
+	public static final String ENDPOINT_PRICE = "price";
+	
+	/**
+	 * An http response was received.
+	 * 
+	 * @param endpoint Api endpoint, ex. {@value #ENDPOINT_TIME_SERIES}.
+	 * @param httpStatus Http status code.
+	 * @param latencyNanos Nanoseconds from sending the request to receiving the response headers.
+	 */
+	default void onResponse(String endpoint, int httpStatus, long latencyNanos) {}
+	
+	/**
+	 * A response body was read.
+	 * 
+	 * @param endpoint Api endpoint.
+	 * @param bytes Number of bytes read, after decompression.
+	 */
+	default void onBytesReceived(String endpoint, long bytes) {}
+	
+	/**
+	 * A response body was decoded.
+	 * 
+	 * @param endpoint Api endpoint.
+	 * @param parseNanos Nanoseconds spent decoding the body, including reading it from the connection.
+	 */
+	default void onParse(String endpoint, long parseNanos) {}
+	
+	/**
+	 * A request failed.
+	 * 
+	 * @param endpoint Api endpoint.
+	 * @param errorCode {@link TwelvedataInterface.Failure.ErrorCode Error code}, api error code, or http
+	 * status code.
+	 */
+	default void onFailure(String endpoint, int errorCode) {}
+	
+	/**
+	 * The rate limiter allowed an api call.
+	 * 
+	 * @param waitNanos Nanoseconds the call waited for the rate limiter.
+	 * @param credits Number of api credits the call costs.
+	 * @param permitsPerMinute Rate limit.
+	 */
+	default void onLimiterWait(long waitNanos, int credits, int permitsPerMinute) {}
+}
@@ -0,0 +1,44 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Receives events of a {@link PriceStream}.
+ * 
+ * Methods are called on the stream's socket reader thread, one at a time, so they should return quickly. Prices
+ * are delivered as primitives and the stream's own symbol strings, so delivery does not allocate.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ * 
+ * @see PriceRingBuffer
+ */
+public interface PriceListener {
+	/**
+	 * A price was received.
+	 * 
+	 * @param symbolId Id of the symbol in its stream, stable for the life of the stream.
+	 * @param symbol Symbol.
+	 * @param timestamp Epoch milliseconds of the price.
+	 * @param price Price.
+	 * @param dayVolume Volume of the day so far, or {@code 0} if the stream does not report it for the symbol.
+	 */
+	void onPrice(int symbolId, String symbol, long timestamp, double price, long dayVolume);
+	
+	/**
+	 * The stream answered a subscribe or unsubscribe request.
+	 * 
+	 * @param message Raw status event, which lists the symbols that succeeded and failed.
+	 */
+	default void onSubscribeStatus(String message) {}
+	
+	/**
+	 * The stream connected, or reconnected and resubscribed.
+	 */
+	default void onConnect() {}
+	
+	/**
+	 * The stream disconnected. Unless it was closed, it will reconnect.
+	 * 
+	 * @param reason Reason for the disconnect.
+	 */
+	default void onDisconnect(String reason) {}
+}
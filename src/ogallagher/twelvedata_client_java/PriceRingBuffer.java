@@ -0,0 +1,139 @@
+package ogallagher.twelvedata_client_java;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Preallocated ring buffer of stream prices, which decouples the {@link PriceStream} reader thread from slower
+ * consumers.
+ * 
+ * Prices are written by a single producer, the stream, into parallel primitive columns, and numbered by a sequence.
+ * Any number of consumers {@link #poll(long, PriceListener) poll} from the last sequence they read. When a consumer
+ * falls more than the capacity behind, the oldest prices are overwritten, and skipped by the consumer.
+ * 
+ * Each slot is guarded by its sequence number, written before and after the slot, so a consumer never sees a
+ * partially overwritten price.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class PriceRingBuffer implements PriceListener {
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+	
+	private final int capacity;
+	private final int mask;
+	
+	private final AtomicLongArray sequences;
+	private final int[] symbolIds;
+	private final String[] symbols;
+	private final long[] timestamps;
+	private final double[] prices;
+	private final long[] dayVolumes;
+	
+	/**
+	 * Sequence of the next price to write, which is the number of prices written.
+	 */
+	private final AtomicLong next = new AtomicLong(0);
+	
+	public PriceRingBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * @param capacity Min number of prices kept, rounded up to a power of 2.
+	 */
+	public PriceRingBuffer(int capacity) {
+		if (capacity < 1 || capacity > (1 << 30)) {
+			throw new IllegalArgumentException("ring buffer capacity " + capacity + " must be from 1 to 2^30");
+		}
+		
+		this.capacity = (capacity == 1) ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		
+		sequences = new AtomicLongArray(this.capacity);
+		for (int i=0; i<this.capacity; i++) {
+			sequences.set(i, -1);
+		}
+		symbolIds = new int[this.capacity];
+		symbols = new String[this.capacity];
+		timestamps = new long[this.capacity];
+		prices = new double[this.capacity];
+		dayVolumes = new long[this.capacity];
+	}
+	
+	/**
+	 * Write a price. Must only be called by a single producer thread.
+	 */
+	@Override
+	public void onPrice(int symbolId, String symbol, long timestamp, double price, long dayVolume) {
+		long sequence = next.get();
+		int slot = (int) (sequence & mask);
+		
+		// mark the slot as being written
+		sequences.set(slot, -1);
+		// a volatile store does not order the plain stores after it
+		VarHandle.storeStoreFence();
+		symbolIds[slot] = symbolId;
+		symbols[slot] = symbol;
+		timestamps[slot] = timestamp;
+		prices[slot] = price;
+		dayVolumes[slot] = dayVolume;
+		sequences.set(slot, sequence);
+		
+		next.lazySet(sequence + 1);
+	}
+	
+	/**
+	 * Deliver prices written since a sequence to a consumer, on the calling thread.
+	 * 
+	 * @param from Sequence of the first price to deliver, ex. the value returned by the previous poll, or {@code 0}.
+	 * @param consumer Receives each price, in sequence order.
+	 * 
+	 * @return Sequence to poll from next time.
+	 */
+	public long poll(long from, PriceListener consumer) {
+		long end = next.get();
+		if (end - from > capacity) {
+			// overwritten before this consumer read them
+			from = end - capacity;
+		}
+		
+		for (long sequence=from; sequence<end; sequence++) {
+			int slot = (int) (sequence & mask);
+			if (sequences.get(slot) != sequence) {
+				// overwritten while reading
+				continue;
+			}
+			
+			int symbolId = symbolIds[slot];
+			String symbol = symbols[slot];
+			long timestamp = timestamps[slot];
+			double price = prices[slot];
+			long dayVolume = dayVolumes[slot];
+			
+			VarHandle.loadLoadFence();
+			if (sequences.get(slot) == sequence) {
+				consumer.onPrice(symbolId, symbol, timestamp, price, dayVolume);
+			}
+		}
+		
+		return end;
+	}
+	
+	/**
+	 * @return Sequence of the next price to be written, which is the number of prices written.
+	 */
+	public long getSequence() {
+		return next.get();
+	}
+	
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	@Override
+	public String toString() {
+		return "PriceRingBuffer(capacity=" + capacity + ",sequence=" + getSequence() + ")";
+	}
+}
@@ -0,0 +1,680 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Real time prices from the twelvedata websocket stream, for a changing set of symbols.
+ * 
+ * The stream sends a heartbeat every {@link #DEFAULT_HEARTBEAT_INTERVAL heartbeat interval}, and treats the
+ * connection as dead if nothing is received for {@value #MISSED_HEARTBEATS} intervals. After a disconnect it
+ * reconnects with exponential backoff and resubscribes to every symbol, until {@link #close() closed}.
+ * 
+ * Price events are decoded in place from the received text, without a json tree or intermediate strings, and
+ * delivered as primitives to a {@link PriceListener}, such as a {@link PriceRingBuffer}. Each subscribed symbol is
+ * given a stable integer id, so consumers can index per symbol state by id instead of hashing symbol strings.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class PriceStream implements AutoCloseable {
+	public static final String STREAM_URL = "wss://ws.twelvedata.com/v1/quotes/price";
+	public static final Duration DEFAULT_HEARTBEAT_INTERVAL = Duration.ofSeconds(10);
+	public static final Duration MIN_RECONNECT_DELAY = Duration.ofSeconds(1);
+	public static final Duration MAX_RECONNECT_DELAY = Duration.ofSeconds(30);
+	/**
+	 * Number of heartbeat intervals without any message after which the connection is considered dead.
+	 */
+	public static final int MISSED_HEARTBEATS = 3;
+	
+	private static final String HEARTBEAT = "{\"action\":\"heartbeat\"}";
+	private static final String KEY_EVENT = "\"event\"";
+	private static final String KEY_SYMBOL = "\"symbol\"";
+	private static final String KEY_TIMESTAMP = "\"timestamp\"";
+	private static final String KEY_PRICE = "\"price\"";
+	private static final String KEY_DAY_VOLUME = "\"day_volume\"";
+	private static final String EVENT_PRICE = "\"price\"";
+	private static final String EVENT_SUBSCRIBE_STATUS = "\"subscribe-status\"";
+	
+	/**
+	 * Powers of 10 that are exact doubles.
+	 */
+	private static final double[] POWERS_OF_10 = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	
+	private final String url;
+	private final OkHttpClient httpClient;
+	private final PriceListener listener;
+	private final long heartbeatNanos;
+	private final ScheduledExecutorService scheduler;
+	
+	/**
+	 * Subscribed symbols, in subscription order. Guarded by {@code this}.
+	 */
+	private final LinkedHashSet<String> subscribed = new LinkedHashSet<>();
+	/**
+	 * Current socket, or {@code null} if disconnected. Guarded by {@code this}.
+	 */
+	private WebSocket socket = null;
+	/**
+	 * Number of sockets opened, to ignore events of previous sockets.
+	 */
+	private volatile int generation = 0;
+	private volatile boolean connected = false;
+	private volatile boolean closed = false;
+	private boolean reconnectScheduled = false;
+	/**
+	 * Consecutive failed connections, which set the reconnect delay. Guarded by {@code this}.
+	 */
+	private int failures = 0;
+	private volatile long lastMessageNanos = 0;
+	
+	private volatile SymbolTable symbols = new SymbolTable(new String[0]);
+	
+	private final AtomicLong pricesReceived = new AtomicLong();
+	private final AtomicLong reconnects = new AtomicLong();
+	
+	/**
+	 * @param key Api key.
+	 * @param listener Receives prices and stream events.
+	 */
+	public PriceStream(String key, PriceListener listener) {
+		this(STREAM_URL, key, TwelvedataClient.getSharedHttpClient(), listener, DEFAULT_HEARTBEAT_INTERVAL);
+	}
+	
+	/**
+	 * @param url Stream url, ex. of a local stand in server. Default is {@link #STREAM_URL}.
+	 * @param key Api key.
+	 * @param httpClient Http client, whose connection pool and dispatcher are shared. Its read timeout is not used,
+	 * since heartbeats detect dead connections.
+	 * @param listener Receives prices and stream events.
+	 * @param heartbeatInterval Time between heartbeats.
+	 */
+	public PriceStream(String url, String key, OkHttpClient httpClient, PriceListener listener, Duration heartbeatInterval) {
+		this.url = url + ((url.indexOf('?') < 0) ? "?" : "&") + "apikey=" + key;
+		this.httpClient = httpClient.newBuilder()
+			.readTimeout(0, TimeUnit.MILLISECONDS)
+			.build();
+		this.listener = listener;
+		this.heartbeatNanos = heartbeatInterval.toNanos();
+		
+		this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "twelvedata-price-stream");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * Open the stream, and keep it open until {@link #close()}. Does nothing if already connecting or connected.
+	 * 
+	 * @throws IllegalStateException The stream was closed.
+	 */
+	public synchronized void connect() throws IllegalStateException {
+		if (closed) {
+			throw new IllegalStateException("price stream is closed");
+		}
+		
+		if (socket == null && !reconnectScheduled) {
+			if (generation == 0) {
+				scheduler.scheduleAtFixedRate(this::heartbeat, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+			}
+			open();
+		}
+	}
+	
+	/**
+	 * Open a socket. Caller must hold the lock.
+	 */
+	private void open() {
+		int socketGeneration = ++generation;
+		Request request = new Request.Builder().url(url).build();
+		socket = httpClient.newWebSocket(request, new SocketListener(socketGeneration));
+	}
+	
+	/**
+	 * Subscribe to prices of symbols, now if connected, or when connected.
+	 * 
+	 * @param symbols Symbols, ex. {@code AAPL} or {@code EUR/USD}.
+	 */
+	public void subscribe(String... symbols) {
+		subscribe(Arrays.asList(symbols));
+	}
+	
+	/**
+	 * @param symbols Symbols to subscribe to.
+	 */
+	public synchronized void subscribe(Collection<String> symbols) {
+		LinkedHashSet<String> added = new LinkedHashSet<>();
+		for (String symbol : symbols) {
+			symbol = symbol.trim();
+			if (subscribed.add(symbol)) {
+				register(symbol);
+				added.add(symbol);
+			}
+		}
+		
+		if (connected && !added.isEmpty()) {
+			socket.send(action("subscribe", added));
+		}
+	}
+	
+	/**
+	 * @param symbols Symbols to stop receiving prices of. Their ids remain valid.
+	 */
+	public void unsubscribe(String... symbols) {
+		unsubscribe(Arrays.asList(symbols));
+	}
+	
+	/**
+	 * @param symbols Symbols to stop receiving prices of.
+	 */
+	public synchronized void unsubscribe(Collection<String> symbols) {
+		LinkedHashSet<String> removed = new LinkedHashSet<>();
+		for (String symbol : symbols) {
+			symbol = symbol.trim();
+			if (subscribed.remove(symbol)) {
+				removed.add(symbol);
+			}
+		}
+		
+		if (connected && !removed.isEmpty()) {
+			socket.send(action("unsubscribe", removed));
+		}
+	}
+	
+	/**
+	 * @param action Stream action.
+	 * @param symbols Symbols.
+	 * 
+	 * @return Action message.
+	 */
+	private static String action(String action, Collection<String> symbols) {
+		StringBuilder message = new StringBuilder("{\"action\":\"").append(action).append("\",\"params\":{\"symbols\":\"");
+		boolean first = true;
+		for (String symbol : symbols) {
+			if (!first) {
+				message.append(',');
+			}
+			first = false;
+			
+			for (int c=0; c<symbol.length(); c++) {
+				char ch = symbol.charAt(c);
+				if (ch == '"' || ch == '\\') {
+					message.append('\\');
+				}
+				message.append(ch);
+			}
+		}
+		
+		return message.append("\"}}").toString();
+	}
+	
+	/**
+	 * Send a heartbeat, or drop the connection if it has been silent too long.
+	 */
+	private void heartbeat() {
+		WebSocket current;
+		synchronized (this) {
+			current = connected ? socket : null;
+		}
+		
+		if (current != null) {
+			if (System.nanoTime() - lastMessageNanos > MISSED_HEARTBEATS * heartbeatNanos) {
+				// fails the socket, which reconnects
+				current.cancel();
+			}
+			else {
+				current.send(HEARTBEAT);
+			}
+		}
+	}
+	
+	/**
+	 * Handle the end of a socket, and reconnect unless closed.
+	 * 
+	 * @param socketGeneration Generation of the socket.
+	 * @param reason Reason for the disconnect.
+	 */
+	private void disconnected(int socketGeneration, String reason) {
+		synchronized (this) {
+			if (socketGeneration != generation || socket == null) {
+				return;
+			}
+			
+			socket = null;
+			connected = false;
+			
+			if (!closed) {
+				long delay = Math.min(
+					MIN_RECONNECT_DELAY.toNanos() << Math.min(failures, 16),
+					MAX_RECONNECT_DELAY.toNanos()
+				);
+				// jitter spreads reconnects of many clients after an outage
+				delay += ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+				failures++;
+				
+				reconnectScheduled = true;
+				scheduler.schedule(this::reconnect, delay, TimeUnit.NANOSECONDS);
+			}
+		}
+		
+		listener.onDisconnect(reason);
+	}
+	
+	private synchronized void reconnect() {
+		reconnectScheduled = false;
+		
+		if (!closed && socket == null) {
+			reconnects.incrementAndGet();
+			open();
+		}
+	}
+	
+	/**
+	 * Receives events of one socket.
+	 */
+	private class SocketListener extends WebSocketListener {
+		private final int socketGeneration;
+		
+		SocketListener(int socketGeneration) {
+			this.socketGeneration = socketGeneration;
+		}
+		
+		@Override
+		public void onOpen(WebSocket webSocket, Response response) {
+			synchronized (PriceStream.this) {
+				if (socketGeneration != generation) {
+					return;
+				}
+				
+				connected = true;
+				failures = 0;
+				lastMessageNanos = System.nanoTime();
+				
+				if (!subscribed.isEmpty()) {
+					webSocket.send(action("subscribe", subscribed));
+				}
+			}
+			
+			listener.onConnect();
+		}
+		
+		@Override
+		public void onMessage(WebSocket webSocket, String text) {
+			if (socketGeneration == generation) {
+				lastMessageNanos = System.nanoTime();
+				decode(text);
+			}
+		}
+		
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason) {
+			webSocket.close(code, null);
+		}
+		
+		@Override
+		public void onClosed(WebSocket webSocket, int code, String reason) {
+			disconnected(socketGeneration, "closed by server: " + code + " " + reason);
+		}
+		
+		@Override
+		public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+			disconnected(socketGeneration, "failed: " + t);
+		}
+	}
+	
+	/**
+	 * Decode a stream event and deliver it to the listener.
+	 * 
+	 * @param message Event.
+	 */
+	void decode(String message) {
+		int event = valueStart(message, KEY_EVENT, 0);
+		if (event < 0) {
+			return;
+		}
+		
+		if (message.startsWith(EVENT_PRICE, event)) {
+			// fields are usually in this order, so each search starts after the previous field
+			int symbolStart = valueAfter(message, KEY_SYMBOL, event);
+			int timestampStart = valueAfter(message, KEY_TIMESTAMP, symbolStart);
+			int priceStart = valueAfter(message, KEY_PRICE, timestampStart);
+			if (symbolStart < 0 || priceStart < 0 || message.charAt(symbolStart) != '"') {
+				return;
+			}
+			
+			int symbolEnd = message.indexOf('"', symbolStart + 1);
+			if (symbolEnd < 0) {
+				return;
+			}
+			int symbolId = symbolId(message, symbolStart + 1, symbolEnd);
+			
+			long timestamp = (timestampStart >= 0) ? parseLong(message, timestampStart) * 1000 : System.currentTimeMillis();
+			double price = parseDouble(message, priceStart);
+			int dayVolumeStart = valueAfter(message, KEY_DAY_VOLUME, priceStart);
+			long dayVolume = (dayVolumeStart >= 0) ? parseLong(message, dayVolumeStart) : 0;
+			
+			pricesReceived.incrementAndGet();
+			listener.onPrice(symbolId, symbols.symbols[symbolId], timestamp, price, dayVolume);
+		}
+		else if (message.startsWith(EVENT_SUBSCRIBE_STATUS, event)) {
+			listener.onSubscribeStatus(message);
+		}
+	}
+	
+	/**
+	 * @param json Json object.
+	 * @param key Quoted key.
+	 * @param from Index to search from.
+	 * 
+	 * @return Index of the value of {@code key}, or {@code -1} if absent.
+	 */
+	static int valueStart(String json, String key, int from) {
+		for (int k = json.indexOf(key, from); k >= 0; k = json.indexOf(key, k + 1)) {
+			int i = k + key.length();
+			while (i < json.length() && json.charAt(i) == ' ') {
+				i++;
+			}
+			
+			// otherwise the key is a value, ex. the price event name
+			if (i < json.length() && json.charAt(i) == ':') {
+				i++;
+				while (i < json.length() && json.charAt(i) == ' ') {
+					i++;
+				}
+				return (i < json.length()) ? i : -1;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * @param json Json object.
+	 * @param key Quoted key.
+	 * @param previous Index of the value expected before {@code key}, or {@code -1}.
+	 * 
+	 * @return Index of the value of {@code key}, searching after {@code previous} first, or {@code -1} if absent.
+	 */
+	private static int valueAfter(String json, String key, int previous) {
+		int i = (previous >= 0) ? valueStart(json, key, previous) : -1;
+		return (i >= 0) ? i : valueStart(json, key, 0);
+	}
+	
+	/**
+	 * @param json Json text.
+	 * @param i Index of an integer, which may be quoted.
+	 * 
+	 * @return Integer, truncated at any fraction.
+	 */
+	static long parseLong(String json, int i) {
+		if (json.charAt(i) == '"') {
+			i++;
+		}
+		
+		boolean negative = i < json.length() && json.charAt(i) == '-';
+		if (negative) {
+			i++;
+		}
+		
+		long value = 0;
+		for (; i < json.length(); i++) {
+			char c = json.charAt(i);
+			if (c < '0' || c > '9') {
+				break;
+			}
+			value = value * 10 + (c - '0');
+		}
+		
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * Parse a decimal number without allocating, exactly when it has at most 15 significant digits, as prices do.
+	 * 
+	 * @param json Json text.
+	 * @param i Index of a number, which may be quoted.
+	 * 
+	 * @return Number, or {@link Double#NaN} if there is none.
+	 */
+	static double parseDouble(String json, int i) {
+		if (json.charAt(i) == '"') {
+			i++;
+		}
+		int start = i;
+		
+		boolean negative = i < json.length() && json.charAt(i) == '-';
+		if (negative) {
+			i++;
+		}
+		
+		long mantissa = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean fraction = false;
+		for (; i < json.length(); i++) {
+			char c = json.charAt(i);
+			if (c >= '0' && c <= '9') {
+				if (mantissa != 0 || c != '0') {
+					digits++;
+				}
+				if (digits <= 18) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (fraction) {
+						scale++;
+					}
+				}
+				else if (!fraction) {
+					scale--;
+				}
+			}
+			else if (c == '.' && !fraction) {
+				fraction = true;
+			}
+			else {
+				break;
+			}
+		}
+		
+		if (i == start || (i < json.length() && (json.charAt(i) == 'e' || json.charAt(i) == 'E'))) {
+			// exponent or no digits; rare, so parse the slow way
+			int end = i;
+			while (end < json.length() && "0123456789.eE+-".indexOf(json.charAt(end)) >= 0) {
+				end++;
+			}
+			try {
+				return Double.parseDouble(json.substring(start, end));
+			}
+			catch (NumberFormatException e) {
+				return Double.NaN;
+			}
+		}
+		
+		double value;
+		if (digits <= 15 && scale >= 0 && scale < POWERS_OF_10.length) {
+			// mantissa and power of 10 are exact, so the division is correctly rounded
+			value = mantissa / POWERS_OF_10[scale];
+		}
+		else {
+			value = Double.parseDouble(json.substring(start, i));
+			return value;
+		}
+		
+		return negative ? -value : value;
+	}
+	
+	/**
+	 * @param json Json text.
+	 * @param start Start of a symbol.
+	 * @param end End of the symbol, exclusive.
+	 * 
+	 * @return Id of the symbol, registering it if it's new.
+	 */
+	private int symbolId(String json, int start, int end) {
+		int id = symbols.find(json, start, end);
+		return (id >= 0) ? id : register(json.substring(start, end));
+	}
+	
+	/**
+	 * @param symbol Symbol.
+	 * 
+	 * @return Id of the symbol, registering it if it's new.
+	 */
+	private synchronized int register(String symbol) {
+		int id = symbols.find(symbol, 0, symbol.length());
+		if (id < 0) {
+			String[] next = Arrays.copyOf(symbols.symbols, symbols.symbols.length + 1);
+			id = next.length - 1;
+			next[id] = symbol;
+			symbols = new SymbolTable(next);
+		}
+		return id;
+	}
+	
+	/**
+	 * @param symbol Symbol.
+	 * 
+	 * @return Id of the symbol, or {@code -1} if it was never subscribed or received.
+	 */
+	public int getSymbolId(String symbol) {
+		return symbols.find(symbol, 0, symbol.length());
+	}
+	
+	/**
+	 * @param symbolId Symbol id.
+	 * 
+	 * @return Symbol.
+	 */
+	public String getSymbol(int symbolId) {
+		return symbols.symbols[symbolId];
+	}
+	
+	/**
+	 * @return Subscribed symbols.
+	 */
+	public synchronized List<String> getSubscribed() {
+		return List.copyOf(subscribed);
+	}
+	
+	public boolean isConnected() {
+		return connected;
+	}
+	
+	public long getPricesReceived() {
+		return pricesReceived.get();
+	}
+	
+	public long getReconnects() {
+		return reconnects.get();
+	}
+	
+	/**
+	 * Close the stream and stop reconnecting.
+	 */
+	@Override
+	public void close() {
+		WebSocket current;
+		synchronized (this) {
+			if (closed) {
+				return;
+			}
+			
+			closed = true;
+			connected = false;
+			current = socket;
+			socket = null;
+			generation++;
+		}
+		
+		if (current != null) {
+			current.close(1000, "closed by client");
+		}
+		scheduler.shutdownNow();
+		listener.onDisconnect("closed by client");
+	}
+	
+	@Override
+	public String toString() {
+		return "PriceStream("
+			+ "connected=" + connected + ","
+			+ "symbols=" + getSubscribed().size() + ","
+			+ "prices=" + getPricesReceived() + ","
+			+ "reconnects=" + getReconnects()
+			+ ")";
+	}
+	
+	/**
+	 * Immutable open addressing table of symbols by id, which finds a symbol in a region of text without
+	 * allocating.
+	 */
+	private static class SymbolTable {
+		final String[] symbols;
+		/**
+		 * Symbol id plus 1 by hash slot, or {@code 0} if empty.
+		 */
+		final int[] slots;
+		final int mask;
+		
+		SymbolTable(String[] symbols) {
+			this.symbols = symbols;
+			
+			int capacity = Integer.highestOneBit(Math.max(symbols.length, 1) * 2 + 1) << 1;
+			slots = new int[capacity];
+			mask = capacity - 1;
+			
+			for (int id=0; id<symbols.length; id++) {
+				int slot = hash(symbols[id], 0, symbols[id].length()) & mask;
+				while (slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = id + 1;
+			}
+		}
+		
+		/**
+		 * @return Id of the symbol in {@code text[start, end)}, or {@code -1} if absent.
+		 */
+		int find(String text, int start, int end) {
+			int length = end - start;
+			int slot = hash(text, start, end) & mask;
+			
+			while (slots[slot] != 0) {
+				String symbol = symbols[slots[slot] - 1];
+				if (symbol.length() == length && symbol.regionMatches(0, text, start, length)) {
+					return slots[slot] - 1;
+				}
+				slot = (slot + 1) & mask;
+			}
+			
+			return -1;
+		}
+		
+		/**
+		 * @return {@link String#hashCode()} of {@code text[start, end)}, spread.
+		 */
+		static int hash(String text, int start, int end) {
+			int h = 0;
+			for (int i=start; i<end; i++) {
+				h = 31 * h + text.charAt(i);
+			}
+			return h ^ (h >>> 16);
+		}
+	}
+}
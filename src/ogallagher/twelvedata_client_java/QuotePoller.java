@@ -0,0 +1,283 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Quote;
+
+/**
+ * Polls the latest prices of a registered set of symbols in batches, within a budget of api credits per minute,
+ * and publishes them to a {@link LastPriceCache}, so that many components share one coordinated poller.
+ * 
+ * Every cycle, the poller earns the credits of the time since the last cycle, up to one minute's worth, and spends
+ * them on the symbols polled least recently, one credit per symbol, in as few batch requests as the api allows.
+ * Symbols of an exchange with a {@link TradingCalendar} are skipped while the exchange is out of session, so no
+ * credits are spent on prices that cannot change. Symbols of other exchanges, ex. forex and crypto, are always
+ * polled.
+ * 
+ * Prices are polled as {@link Quote quotes}, whose trade timestamp is published with the price, so the cache can
+ * also be fed by a {@link PriceStream} without polled prices masking newer streamed ones.
+ * 
+ * Components register the symbols they need and unregister them when done. A symbol registered by several
+ * components is polled once, until all of them unregister it.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class QuotePoller implements AutoCloseable {
+	public static final Duration DEFAULT_CYCLE = Duration.ofSeconds(10);
+	
+	private final TwelvedataClient client;
+	private final LastPriceCache cache;
+	private final long cycleMillis;
+	private volatile int creditsPerMinute;
+	
+	private final ConcurrentHashMap<String,Registration> symbols = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> task = null;
+	
+	/**
+	 * Credits earned and not yet spent. Guarded by {@code this}.
+	 */
+	private double credits = 0;
+	/**
+	 * Epoch milliseconds of the last cycle, or {@code -1} before the first. Guarded by {@code this}.
+	 */
+	private long lastCycle = -1;
+	
+	private final AtomicLong pricesPolled = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong closedSkips = new AtomicLong();
+	
+	/**
+	 * @param client Client whose rate limiter and api key the poller shares.
+	 * @param cache Cache to publish prices to.
+	 * @param creditsPerMinute Api credits the poller may spend per minute, ex. a share of the plan's limit.
+	 */
+	public QuotePoller(TwelvedataClient client, LastPriceCache cache, int creditsPerMinute) {
+		this(client, cache, creditsPerMinute, DEFAULT_CYCLE);
+	}
+	
+	/**
+	 * @param client Client whose rate limiter and api key the poller shares.
+	 * @param cache Cache to publish prices to.
+	 * @param creditsPerMinute Api credits the poller may spend per minute.
+	 * @param cycle Time between polls. A symbol is polled at most once per cycle.
+	 */
+	public QuotePoller(TwelvedataClient client, LastPriceCache cache, int creditsPerMinute, Duration cycle) {
+		this.client = client;
+		this.cache = cache;
+		this.creditsPerMinute = creditsPerMinute;
+		this.cycleMillis = Math.max(cycle.toMillis(), 1);
+		
+		this.scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+			Thread thread = new Thread(runnable, "twelvedata-quote-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+	
+	/**
+	 * Register a symbol that is polled regardless of market hours.
+	 * 
+	 * @param symbol Security symbol.
+	 */
+	public void register(String symbol) {
+		register(symbol, null);
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param exchange Exchange of the symbol, ex. {@code NASDAQ}, whose trading hours the symbol is polled in, or
+	 * {@code null} to poll it always.
+	 */
+	public void register(String symbol, String exchange) {
+		TradingCalendar calendar = (exchange != null) ? TradingCalendar.forExchange(exchange) : null;
+		
+		symbols.compute(symbol, (s, registration) -> {
+			if (registration == null) {
+				return new Registration(s, calendar);
+			}
+			
+			registration.references++;
+			return registration;
+		});
+	}
+	
+	/**
+	 * Unregister a symbol once for each time it was registered. Its cached price remains.
+	 * 
+	 * @param symbol Security symbol.
+	 */
+	public void unregister(String symbol) {
+		symbols.computeIfPresent(symbol, (s, registration) -> (--registration.references > 0) ? registration : null);
+	}
+	
+	/**
+	 * Start polling every cycle, on a daemon thread. Does nothing if already started.
+	 */
+	public synchronized void start() {
+		if (task == null) {
+			task = scheduler.scheduleWithFixedDelay(this::pollSafely, 0, cycleMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	private void pollSafely() {
+		try {
+			poll();
+		}
+		catch (RuntimeException e) {
+			// a scheduled task that throws is never run again
+			failures.incrementAndGet();
+		}
+	}
+	
+	/**
+	 * Run one cycle on the calling thread, ex. for a poller that is not {@link #start() started}.
+	 * 
+	 * @return Number of symbols polled.
+	 */
+	public synchronized int poll() {
+		long now = System.currentTimeMillis();
+		int budget = creditsPerMinute;
+		
+		long earnedMillis = (lastCycle < 0) ? cycleMillis : now - lastCycle;
+		credits = Math.min(budget, credits + budget * (double) earnedMillis / TimeUnit.MINUTES.toMillis(1));
+		lastCycle = now;
+		
+		// open state per calendar, checked once per cycle
+		Map<TradingCalendar,Boolean> open = new IdentityHashMap<>();
+		List<Registration> due = new ArrayList<>();
+		for (Registration registration : symbols.values()) {
+			TradingCalendar calendar = registration.calendar;
+			if (calendar != null && !open.computeIfAbsent(calendar, (c) -> c.isOpen(now))) {
+				closedSkips.incrementAndGet();
+			}
+			else if (now - registration.lastPolled >= cycleMillis) {
+				due.add(registration);
+			}
+		}
+		
+		int count = Math.min(due.size(), (int) credits);
+		if (count == 0) {
+			return 0;
+		}
+		
+		due.sort(Comparator.comparingLong((registration) -> registration.lastPolled));
+		List<String> batch = new ArrayList<>(count);
+		for (int i=0; i<count; i++) {
+			due.get(i).lastPolled = now;
+			batch.add(due.get(i).symbol);
+		}
+		credits -= count;
+		
+		for (Map.Entry<String,Quote> entry : client.fetchQuoteBatch(batch).entrySet()) {
+			Quote quote = entry.getValue();
+			
+			if (quote != null && !quote.isFailure()) {
+				// seconds, like stream prices; the bar timestamp is earlier than any trade in the bar
+				long timestamp = (quote.last_quote_at > 0) ? quote.last_quote_at : quote.timestamp;
+				cache.update(entry.getKey(), quote.close, timestamp * 1000);
+				pricesPolled.incrementAndGet();
+			}
+			else {
+				failures.incrementAndGet();
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * @param creditsPerMinute Api credits the poller may spend per minute.
+	 */
+	public void setCreditsPerMinute(int creditsPerMinute) {
+		this.creditsPerMinute = creditsPerMinute;
+	}
+	
+	public int getCreditsPerMinute() {
+		return creditsPerMinute;
+	}
+	
+	/**
+	 * @return Number of distinct registered symbols.
+	 */
+	public int size() {
+		return symbols.size();
+	}
+	
+	public LastPriceCache getCache() {
+		return cache;
+	}
+	
+	/**
+	 * @return Number of prices polled and published.
+	 */
+	public long getPricesPolled() {
+		return pricesPolled.get();
+	}
+	
+	/**
+	 * @return Number of symbols whose poll failed.
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+	
+	/**
+	 * @return Number of times a symbol was skipped because its exchange was out of session.
+	 */
+	public long getClosedSkips() {
+		return closedSkips.get();
+	}
+	
+	/**
+	 * Stop polling.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+	
+	@Override
+	public String toString() {
+		return "QuotePoller("
+			+ "symbols=" + size() + ","
+			+ "creditsPerMinute=" + creditsPerMinute + ","
+			+ "polled=" + getPricesPolled() + ","
+			+ "failures=" + getFailures() + ","
+			+ "closedSkips=" + getClosedSkips()
+			+ ")";
+	}
+	
+	/**
+	 * Polling state of a registered symbol.
+	 */
+	private static class Registration {
+		final String symbol;
+		final TradingCalendar calendar;
+		/**
+		 * Number of times registered. Guarded by the map entry.
+		 */
+		int references = 1;
+		/**
+		 * Epoch milliseconds of the last poll. Guarded by the poller.
+		 */
+		long lastPolled = 0;
+		
+		Registration(String symbol, TradingCalendar calendar) {
+			this.symbol = symbol;
+			this.calendar = calendar;
+		}
+	}
+}
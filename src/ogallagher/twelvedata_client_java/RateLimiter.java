@@ -0,0 +1,295 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread safe token bucket rate limiter for api calls, shared by all threads that use the same
+ * {@link TwelvedataClient}.
+ * 
+ * The bucket is implemented lock free as a generic cell rate algorithm, where the only state is the theoretical
+ * arrival time of the next permit, updated with compare-and-set. A request for {@code n} permits pushes that
+ * arrival time {@code n} emission intervals into the future, and is granted once it is no more than
+ * {@code burst} intervals ahead of now. Callers either wait for the grant ({@link #acquire(int)}), wait up to
+ * a timeout ({@link #acquire(int, long, TimeUnit)}), or give up immediately ({@link #tryAcquire(int)}).
+ * 
+ * With the default burst of 1, the permits granted within any period never exceed the configured permits
+ * per period, which matches how twelvedata counts api credits per minute.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class RateLimiter {
+	/**
+	 * Default number of permits that can be granted at once after the limiter has been idle.
+	 */
+	public static final int DEFAULT_BURST = 1;
+	
+	/**
+	 * Reference for the relative nanosecond clock.
+	 */
+	private final long origin = System.nanoTime();
+	/**
+	 * Theoretical arrival time of the next permit, in nanoseconds since {@link #origin}.
+	 */
+	private final AtomicLong arrival = new AtomicLong(0);
+	/**
+	 * Nanoseconds between permits.
+	 */
+	private volatile long interval;
+	/**
+	 * Max number of stored permits.
+	 */
+	private volatile int burst;
+	
+	/**
+	 * @param permits Max number of permits per {@code period}.
+	 * @param period Rate period.
+	 */
+	public RateLimiter(int permits, Duration period) {
+		this(permits, period, DEFAULT_BURST);
+	}
+	
+	/**
+	 * @param permits Max number of permits per {@code period}.
+	 * @param period Rate period.
+	 * @param burst Max number of permits that can be granted at once after the limiter has been idle.
+	 */
+	public RateLimiter(int permits, Duration period, int burst) {
+		setRate(permits, period);
+		setBurst(burst);
+	}
+	
+	/**
+	 * @param permits Max number of permits per minute.
+	 * 
+	 * @return New rate limiter with the default burst.
+	 */
+	public static RateLimiter perMinute(int permits) {
+		return new RateLimiter(permits, Duration.ofMinutes(1));
+	}
+	
+	/**
+	 * Change the rate. Permits already reserved are not affected.
+	 * 
+	 * @param permits Max number of permits per {@code period}.
+	 * @param period Rate period.
+	 */
+	public void setRate(int permits, Duration period) {
+		if (permits < 1) {
+			throw new IllegalArgumentException("rate limiter permits " + permits + " must be positive");
+		}
+		
+		interval = Math.max(period.toNanos() / permits, 1);
+	}
+	
+	/**
+	 * Grant no more permits for a time, ex. after the api rejected calls for exceeding its limit. Permits 
+	 * already reserved are not affected.
+	 * 
+	 * @param nanos Nanoseconds from now until the next permit can be granted.
+	 */
+	public void pause(long nanos) {
+		long until = now() + nanos + (burst - 1) * interval;
+		arrival.accumulateAndGet(until, Math::max);
+	}
+	
+	/**
+	 * @param burst Max number of permits that can be granted at once after the limiter has been idle.
+	 */
+	public void setBurst(int burst) {
+		if (burst < 1) {
+			throw new IllegalArgumentException("rate limiter burst " + burst + " must be positive");
+		}
+		
+		this.burst = burst;
+	}
+	
+	/**
+	 * @return Max number of permits per minute, rounded down.
+	 */
+	public int getPermitsPerMinute() {
+		// very high rates round down to an interval too short to count in an int
+		return (int) Math.min(TimeUnit.MINUTES.toNanos(1) / interval, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * @return Nanoseconds between permits.
+	 */
+	public long getInterval() {
+		return interval;
+	}
+	
+	public int getBurst() {
+		return burst;
+	}
+	
+	/**
+	 * @return Number of permits that could be granted right now without waiting.
+	 */
+	public int availablePermits() {
+		long debt = Math.max(arrival.get() - now(), 0);
+		long stored = burst * interval - debt;
+		
+		return (stored > 0) ? (int) (stored / interval) : 0;
+	}
+	
+	/**
+	 * @param permits Number of permits.
+	 * 
+	 * @return Nanoseconds until {@code permits} could be granted without waiting, if no other permits are 
+	 * reserved before then. Nothing is reserved.
+	 */
+	public long nanosUntilAvailable(int permits) {
+		long now = now();
+		long wait = Math.max(arrival.get(), now) + permits * interval - now - burst * interval;
+		
+		return Math.max(wait, 0);
+	}
+	
+	/**
+	 * Reserve permits if they will be granted within {@code maxWaitNanos}, without blocking.
+	 * 
+	 * @param permits Number of permits.
+	 * @param maxWaitNanos Max nanoseconds the caller is willing to wait for the grant.
+	 * 
+	 * @return Nanoseconds until the reserved permits are granted, or {@code -1} if they could not be granted
+	 * in time, in which case nothing is reserved.
+	 */
+	public long reserve(int permits, long maxWaitNanos) {
+		if (permits < 1) {
+			throw new IllegalArgumentException("cannot reserve " + permits + " permits");
+		}
+		
+		while (true) {
+			long now = now();
+			long prev = arrival.get();
+			long next = Math.max(prev, now) + permits * interval;
+			long wait = next - now - burst * interval;
+			
+			if (wait > maxWaitNanos) {
+				return -1;
+			}
+			else if (arrival.compareAndSet(prev, next)) {
+				return Math.max(wait, 0);
+			}
+		}
+	}
+	
+	/**
+	 * Return reserved permits that will not be used.
+	 * 
+	 * @param permits Number of permits.
+	 */
+	protected void release(int permits) {
+		arrival.addAndGet(-permits * interval);
+	}
+	
+	/**
+	 * @return {@code true} if a permit was granted without waiting.
+	 */
+	public boolean tryAcquire() {
+		return tryAcquire(1);
+	}
+	
+	/**
+	 * @param permits Number of permits.
+	 * 
+	 * @return {@code true} if the permits were granted without waiting.
+	 */
+	public boolean tryAcquire(int permits) {
+		return reserve(permits, 0) == 0;
+	}
+	
+	/**
+	 * Wait for a permit.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; the permit is released.
+	 */
+	public void acquire() throws InterruptedException {
+		acquire(1);
+	}
+	
+	/**
+	 * Wait for permits.
+	 * 
+	 * @param permits Number of permits.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; the permits are released.
+	 */
+	public void acquire(int permits) throws InterruptedException {
+		await(permits, reserve(permits, Long.MAX_VALUE));
+	}
+	
+	/**
+	 * Wait for a permit, up to a timeout.
+	 * 
+	 * @param timeout Max time to wait.
+	 * @param unit Unit of {@code timeout}.
+	 * 
+	 * @return {@code true} if the permit was granted, {@code false} if it could not be granted before the timeout.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; the permit is released.
+	 */
+	public boolean acquire(long timeout, TimeUnit unit) throws InterruptedException {
+		return acquire(1, timeout, unit);
+	}
+	
+	/**
+	 * Wait for permits, up to a timeout. Returns immediately if the permits would not be granted before the
+	 * timeout.
+	 * 
+	 * @param permits Number of permits.
+	 * @param timeout Max time to wait.
+	 * @param unit Unit of {@code timeout}.
+	 * 
+	 * @return {@code true} if the permits were granted, {@code false} if they could not be granted before the timeout.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; the permits are released.
+	 */
+	public boolean acquire(int permits, long timeout, TimeUnit unit) throws InterruptedException {
+		long wait = reserve(permits, unit.toNanos(timeout));
+		
+		if (wait < 0) {
+			return false;
+		}
+		else {
+			await(permits, wait);
+			return true;
+		}
+	}
+	
+	/**
+	 * Block until a reservation is granted.
+	 * 
+	 * @param permits Number of reserved permits.
+	 * @param wait Nanoseconds until the reservation is granted.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; the permits are released.
+	 */
+	private void await(int permits, long wait) throws InterruptedException {
+		long deadline = now() + wait;
+		
+		while (wait > 0) {
+			LockSupport.parkNanos(this, wait);
+			
+			if (Thread.interrupted()) {
+				release(permits);
+				throw new InterruptedException("interrupted while waiting for " + permits + " rate limiter permits");
+			}
+			
+			wait = deadline - now();
+		}
+	}
+	
+	private long now() {
+		return System.nanoTime() - origin;
+	}
+	
+	@Override
+	public String toString() {
+		return "RateLimiter(" + getPermitsPerMinute() + "/min, burst=" + burst + ")";
+	}
+}
@@ -0,0 +1,102 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Relative strength index (RSI) with Wilder's smoothing, from 0 to 100.
+ * 
+ * Average gain and loss are seeded with the simple average of the first {@code period} changes, so the first
+ * value is after {@code period + 1} values.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class RelativeStrengthIndex implements Indicator {
+	public static final int DEFAULT_PERIOD = 14;
+	
+	private final int period;
+	
+	private int count = 0;
+	private double previous = Double.NaN;
+	private double averageGain = 0;
+	private double averageLoss = 0;
+	private double value = Double.NaN;
+	
+	public RelativeStrengthIndex() {
+		this(DEFAULT_PERIOD);
+	}
+	
+	/**
+	 * @param period Number of changes averaged.
+	 */
+	public RelativeStrengthIndex(int period) {
+		if (period < 1) {
+			throw new IllegalArgumentException("rsi period " + period + " must be positive");
+		}
+		
+		this.period = period;
+	}
+	
+	@Override
+	public double update(double value) {
+		if (count == 0) {
+			previous = value;
+			count++;
+			return this.value;
+		}
+		
+		double change = value - previous;
+		double gain = (change > 0) ? change : 0;
+		double loss = (change < 0) ? -change : 0;
+		previous = value;
+		
+		if (count <= period) {
+			averageGain += gain / period;
+			averageLoss += loss / period;
+			count++;
+			
+			if (count <= period) {
+				return this.value;
+			}
+		}
+		else {
+			averageGain = (averageGain * (period - 1) + gain) / period;
+			averageLoss = (averageLoss * (period - 1) + loss) / period;
+		}
+		
+		if (averageLoss == 0) {
+			this.value = (averageGain == 0) ? 50 : 100;
+		}
+		else {
+			this.value = 100 - 100 / (1 + averageGain / averageLoss);
+		}
+		
+		return this.value;
+	}
+	
+	@Override
+	public double getValue() {
+		return value;
+	}
+	
+	@Override
+	public boolean isReady() {
+		return count > period;
+	}
+	
+	@Override
+	public void reset() {
+		count = 0;
+		previous = Double.NaN;
+		averageGain = 0;
+		averageLoss = 0;
+		value = Double.NaN;
+	}
+	
+	public int getPeriod() {
+		return period;
+	}
+	
+	@Override
+	public String toString() {
+		return "RSI(" + period + ")=" + value;
+	}
+}
@@ -0,0 +1,439 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Grants api credits from a {@link RateLimiter} to waiting requests by priority {@link Lane lane}, and fairly
+ * between callers within a lane, so that a bulk backfill cannot starve interactive requests.
+ * 
+ * A single dispatcher thread takes credits from the limiter one grant at a time, as they become available, and pays
+ * them toward the highest priority waiting request. A request is granted once all of its credits are paid, so a
+ * batch request of many symbols waits longer than a single symbol request, but credits already paid toward it are
+ * kept when a higher priority request arrives and is paid first. An interactive request therefore waits for at most
+ * its own credits, plus those of other interactive requests ahead of it.
+ * 
+ * Within a lane, requests are ordered by start time fair queueing on credits: each request is tagged with its
+ * caller's virtual finish time, the sum of the credits of the caller's requests in the lane, so callers share the
+ * lane's credits equally regardless of how many requests each one queues, and small requests go before large ones.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class RequestScheduler implements AutoCloseable {
+	/**
+	 * Request priorities, from highest to lowest.
+	 */
+	public static enum Lane {
+		/**
+		 * Requests a user is waiting for.
+		 */
+		INTERACTIVE,
+		/**
+		 * Periodic refreshes of recent data.
+		 */
+		REFRESH,
+		/**
+		 * Bulk downloads of history, which only use credits the other lanes leave.
+		 */
+		BACKFILL
+	}
+	
+	/**
+	 * Caller of requests that do not name one.
+	 */
+	public static final String DEFAULT_CALLER = "default";
+	
+	private final RateLimiter limiter;
+	
+	private final ReentrantLock lock = new ReentrantLock();
+	/**
+	 * Signalled when a request is added or the scheduler is closed.
+	 */
+	private final Condition changed = lock.newCondition();
+	private final LaneQueue[] lanes = new LaneQueue[Lane.values().length];
+	private final LatencyHistogram[] waits = new LatencyHistogram[Lane.values().length];
+	private final Thread dispatcher;
+	private volatile boolean closed = false;
+	/**
+	 * Order of arrival, to break ties. Guarded by {@link #lock}.
+	 */
+	private long sequence = 0;
+	
+	/**
+	 * @param limiter Rate limiter whose credits are scheduled. Calls that acquire from it directly still take
+	 * credits, before any waiting request.
+	 */
+	public RequestScheduler(RateLimiter limiter) {
+		this.limiter = limiter;
+		
+		for (int l=0; l<lanes.length; l++) {
+			lanes[l] = new LaneQueue();
+			waits[l] = new LatencyHistogram();
+		}
+		
+		dispatcher = new Thread(this::dispatch, "twelvedata-request-scheduler");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+	
+	/**
+	 * @param permitsPerMinute Max api credits per minute.
+	 * 
+	 * @return Scheduler of a new rate limiter.
+	 */
+	public static RequestScheduler perMinute(int permitsPerMinute) {
+		return new RequestScheduler(RateLimiter.perMinute(permitsPerMinute));
+	}
+	
+	/**
+	 * Wait for credits to be granted, up to a timeout.
+	 * 
+	 * @param lane Request priority.
+	 * @param caller Caller of the request, which shares its lane fairly with other callers.
+	 * @param credits Api credits the request costs.
+	 * @param timeout Max time to wait, or {@code null} to wait indefinitely.
+	 * 
+	 * @return {@code true} if the credits were granted, or {@code false} on timeout or if the scheduler was closed.
+	 * 
+	 * @throws InterruptedException Interrupted while waiting; credits paid so far are returned to the limiter.
+	 */
+	public boolean acquire(Lane lane, String caller, int credits, Duration timeout) throws InterruptedException {
+		CompletableFuture<Boolean> grant = acquireAsync(lane, caller, credits, timeout);
+		
+		try {
+			return grant.get();
+		}
+		catch (InterruptedException e) {
+			grant.complete(false);
+			throw e;
+		}
+		catch (ExecutionException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Request credits without blocking.
+	 * 
+	 * @param lane Request priority.
+	 * @param caller Caller of the request.
+	 * @param credits Api credits the request costs.
+	 * @param timeout Max time to wait, or {@code null} to wait indefinitely.
+	 * 
+	 * @return Future that completes with {@code true} on the dispatcher thread when the credits are granted, or
+	 * {@code false} on timeout. Completing or cancelling the future early withdraws the request.
+	 */
+	public CompletableFuture<Boolean> acquireAsync(Lane lane, String caller, int credits, Duration timeout) {
+		if (credits < 1) {
+			throw new IllegalArgumentException("cannot schedule " + credits + " credits");
+		}
+		
+		Ticket ticket = new Ticket(lane, (caller != null) ? caller : DEFAULT_CALLER, credits);
+		
+		lock.lock();
+		try {
+			if (closed) {
+				return CompletableFuture.completedFuture(false);
+			}
+			
+			ticket.sequence = sequence++;
+			lanes[lane.ordinal()].add(ticket);
+			changed.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+		
+		ticket.grant.whenComplete((granted, error) -> {
+			if (!Boolean.TRUE.equals(granted)) {
+				withdraw(ticket);
+			}
+		});
+		
+		if (timeout != null) {
+			ticket.grant.completeOnTimeout(false, timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		
+		return ticket.grant;
+	}
+	
+	/**
+	 * Remove a request that will not be granted, and return the credits paid toward it.
+	 * 
+	 * @param ticket Request.
+	 */
+	private void withdraw(Ticket ticket) {
+		lock.lock();
+		try {
+			if (!ticket.done) {
+				ticket.done = true;
+				lanes[ticket.lane.ordinal()].remove(ticket);
+			}
+			refund(ticket);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Return the credits paid toward a request to the limiter. Caller must hold the lock.
+	 * 
+	 * @param ticket Request, which is no longer queued.
+	 */
+	private void refund(Ticket ticket) {
+		if (ticket.paid > 0) {
+			limiter.release(ticket.paid);
+			ticket.paid = 0;
+		}
+	}
+	
+	/**
+	 * Pay credits to waiting requests, in priority order, until closed.
+	 */
+	private void dispatch() {
+		List<Ticket> granted = new ArrayList<>();
+		
+		lock.lock();
+		try {
+			while (!closed) {
+				Ticket ticket = next();
+				
+				if (ticket == null) {
+					changed.awaitUninterruptibly();
+					continue;
+				}
+				
+				long wait = limiter.nanosUntilAvailable(1);
+				if (wait > 0) {
+					// a higher priority request may arrive meanwhile
+					changed.awaitNanos(wait);
+					continue;
+				}
+				
+				int pay = Math.max(1, Math.min(ticket.credits - ticket.paid, limiter.availablePermits()));
+				if (limiter.tryAcquire(pay)) {
+					ticket.paid += pay;
+					
+					if (ticket.paid == ticket.credits) {
+						lanes[ticket.lane.ordinal()].grant(ticket);
+						ticket.done = true;
+						granted.add(ticket);
+					}
+				}
+				
+				if (!granted.isEmpty()) {
+					// complete outside the lock, since completion runs the requester's continuations
+					lock.unlock();
+					try {
+						for (Ticket done : granted) {
+							complete(done);
+						}
+					}
+					finally {
+						lock.lock();
+						granted.clear();
+					}
+				}
+			}
+			
+			// fail requests still waiting
+			for (LaneQueue lane : lanes) {
+				for (Ticket ticket = lane.peek(); ticket != null; ticket = lane.peek()) {
+					lane.remove(ticket);
+					ticket.done = true;
+					refund(ticket);
+					granted.add(ticket);
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			// closed
+		}
+		finally {
+			lock.unlock();
+		}
+		
+		for (Ticket ticket : granted) {
+			ticket.grant.complete(false);
+		}
+	}
+	
+	/**
+	 * @param ticket Request whose credits were all paid.
+	 */
+	private void complete(Ticket ticket) {
+		waits[ticket.lane.ordinal()].record(System.nanoTime() - ticket.created);
+		
+		if (!ticket.grant.complete(true)) {
+			// withdrawn after it was paid
+			lock.lock();
+			try {
+				refund(ticket);
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * @return Highest priority waiting request, or {@code null}. Caller must hold the lock.
+	 */
+	private Ticket next() {
+		for (LaneQueue lane : lanes) {
+			Ticket ticket = lane.peek();
+			if (ticket != null) {
+				return ticket;
+			}
+		}
+		return null;
+	}
+	
+	public RateLimiter getLimiter() {
+		return limiter;
+	}
+	
+	/**
+	 * @param lane Request priority.
+	 * 
+	 * @return Nanoseconds from request to grant of granted requests in {@code lane}.
+	 */
+	public LatencyHistogram getWaits(Lane lane) {
+		return waits[lane.ordinal()];
+	}
+	
+	/**
+	 * @param lane Request priority.
+	 * 
+	 * @return Number of requests waiting in {@code lane}.
+	 */
+	public int getWaiting(Lane lane) {
+		lock.lock();
+		try {
+			return lanes[lane.ordinal()].size();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Stop granting credits. Waiting requests complete with {@code false}.
+	 */
+	@Override
+	public void close() {
+		lock.lock();
+		try {
+			closed = true;
+			changed.signal();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder out = new StringBuilder("RequestScheduler(").append(limiter);
+		for (Lane lane : Lane.values()) {
+			LatencyHistogram wait = getWaits(lane);
+			out.append(",").append(lane.name().toLowerCase())
+				.append("=[granted=").append(wait.getCount())
+				.append(",waiting=").append(getWaiting(lane))
+				.append(",p99=").append(TimeUnit.NANOSECONDS.toMillis(wait.getPercentile(99))).append("ms]");
+		}
+		return out.append(")").toString();
+	}
+	
+	/**
+	 * A request for credits.
+	 */
+	private static class Ticket {
+		final Lane lane;
+		final String caller;
+		final int credits;
+		final long created = System.nanoTime();
+		final CompletableFuture<Boolean> grant = new CompletableFuture<>();
+		
+		long sequence;
+		/**
+		 * Virtual start and finish times of the request in its lane.
+		 */
+		long start, finish;
+		/**
+		 * Credits taken from the limiter for this request so far.
+		 */
+		int paid = 0;
+		/**
+		 * Whether the request left its lane, granted or withdrawn.
+		 */
+		boolean done = false;
+		
+		Ticket(Lane lane, String caller, int credits) {
+			this.lane = lane;
+			this.caller = caller;
+			this.credits = credits;
+		}
+	}
+	
+	/**
+	 * Waiting requests of a lane, in start time fair queueing order. Guarded by the scheduler lock.
+	 */
+	private static class LaneQueue {
+		private final PriorityQueue<Ticket> tickets = new PriorityQueue<>(
+			Comparator.comparingLong((Ticket ticket) -> ticket.finish).thenComparingLong((ticket) -> ticket.sequence)
+		);
+		/**
+		 * Virtual finish time of the last request of each caller with requests in the lane.
+		 */
+		private final HashMap<String,Long> lastFinish = new HashMap<>();
+		/**
+		 * Virtual start time of the last granted request.
+		 */
+		private long virtualTime = 0;
+		
+		void add(Ticket ticket) {
+			ticket.start = Math.max(virtualTime, lastFinish.getOrDefault(ticket.caller, 0L));
+			ticket.finish = ticket.start + ticket.credits;
+			lastFinish.put(ticket.caller, ticket.finish);
+			tickets.add(ticket);
+		}
+		
+		Ticket peek() {
+			return tickets.peek();
+		}
+		
+		void grant(Ticket ticket) {
+			virtualTime = Math.max(virtualTime, ticket.start);
+			remove(ticket);
+		}
+		
+		void remove(Ticket ticket) {
+			tickets.remove(ticket);
+			
+			if (tickets.isEmpty()) {
+				// all callers are idle, so none has used more than its share
+				lastFinish.clear();
+			}
+			else if (lastFinish.size() > 2 * tickets.size() + 64) {
+				// callers whose requests were all granted are equivalent to new callers
+				lastFinish.values().removeIf((finish) -> finish <= virtualTime);
+			}
+		}
+		
+		int size() {
+			return tickets.size();
+		}
+	}
+}
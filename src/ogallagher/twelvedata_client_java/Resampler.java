@@ -0,0 +1,244 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.LocalTime;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+
+/**
+ * Derives coarser trade bars from finer ones, ex. 5min and 1h bars from 1min bars, so that one api call per symbol
+ * serves every interval.
+ * 
+ * Resampling is a single pass over the primitive columns of a {@link ColumnarTimeSeries}. Each fine bar is assigned
+ * to the coarse bar containing its start in the exchange timezone. Intraday bars are aligned to the session open of
+ * the exchange's {@link TradingCalendar}, like the api aligns them, or to midnight for exchanges without a calendar,
+ * and never span two days, so the last bar of a session may be partial. Daily bars are dated at midnight, weekly bars
+ * on monday, and monthly bars on the first of the month.
+ * 
+ * A coarse bar opens at the open of its first fine bar, closes at the close of its last, spans their highs and lows,
+ * and sums their volumes. Coarse bars without any fine bars, like holidays, are omitted.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class Resampler {
+	private static final long MILLIS_PER_MINUTE = 60 * 1000;
+	private static final long MILLIS_PER_DAY = 24 * 60 * MILLIS_PER_MINUTE;
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	
+	/**
+	 * Bar minutes of weekly bars.
+	 */
+	private static final int WEEKLY = -1;
+	/**
+	 * Bar minutes of monthly bars.
+	 */
+	private static final int MONTHLY = -2;
+	
+	/**
+	 * Resample bars, aligning intraday bars to the session open of the series' exchange.
+	 * 
+	 * @param series Fine bars.
+	 * @param interval Coarse bar width.
+	 * 
+	 * @return Coarse bars, or a failure if {@code series} is a failure.
+	 * 
+	 * @throws IllegalArgumentException {@code interval} is not a whole multiple of the series interval.
+	 */
+	public static ColumnarTimeSeries resample(ColumnarTimeSeries series, String interval) throws IllegalArgumentException {
+		return resample(series, interval, TradingCalendar.forExchange(series.exchange));
+	}
+	
+	/**
+	 * @param series Fine bars.
+	 * @param interval Coarse bar width.
+	 * 
+	 * @return Coarse bars in descending chronological order, like the api, or a failure if {@code series} is a failure.
+	 * 
+	 * @throws IllegalArgumentException {@code interval} is not a whole multiple of the series interval.
+	 */
+	public static TimeSeries resample(TimeSeries series, String interval) throws IllegalArgumentException {
+		if (series.isFailure()) {
+			return new TimeSeries(series.code, series.message);
+		}
+		
+		return resample(ColumnarTimeSeries.of(series), interval).toTimeSeries();
+	}
+	
+	/**
+	 * @param series Fine bars.
+	 * @param interval Coarse bar width.
+	 * @param calendar Trading calendar whose session open intraday bars are aligned to, or {@code null} to align
+	 * them to midnight.
+	 * 
+	 * @return Coarse bars, or a failure if {@code series} is a failure.
+	 * 
+	 * @throws IllegalArgumentException {@code interval} is not a whole multiple of the series interval.
+	 */
+	public static ColumnarTimeSeries resample(ColumnarTimeSeries series, String interval, TradingCalendar calendar)
+			throws IllegalArgumentException {
+		if (series.isFailure()) {
+			return new ColumnarTimeSeries(series.code, series.message);
+		}
+		
+		int barMinutes = barMinutes(interval);
+		checkResample(series.interval, interval);
+		
+		int n = series.size();
+		long[] timestamps = series.timestamps();
+		float[] open = series.open();
+		float[] high = series.high();
+		float[] low = series.low();
+		float[] close = series.close();
+		long[] volume = series.volume();
+		
+		// intraday to intraday sizes are known; otherwise grow as needed
+		int fineMinutes = (series.interval != null) ? barMinutes(series.interval) : 0;
+		int ratio = (fineMinutes > 0 && barMinutes > 0) ? barMinutes / fineMinutes : 1;
+		ColumnarTimeSeries out = new ColumnarTimeSeries(n / ratio + 1);
+		out.symbol = series.symbol;
+		out.interval = interval;
+		out.exchangeTimezone = series.exchangeTimezone;
+		out.exchange = series.exchange;
+		out.type = series.type;
+		
+		LocalTime sessionOpen = (calendar != null) ? calendar.getOpen() : LocalTime.MIDNIGHT;
+		int openMinute = sessionOpen.getHour() * 60 + sessionOpen.getMinute();
+		TimestampParser parser = new TimestampParser(series.exchangeTimezone);
+		
+		// local start of the current coarse bar, and its aggregates
+		long bucket = Long.MIN_VALUE;
+		float o = 0, h = 0, l = 0, c = 0;
+		long v = 0;
+		
+		for (int i=0; i<n; i++) {
+			long start = bucketStart(parser.toLocalMilli(timestamps[i]), barMinutes, openMinute);
+			
+			if (start != bucket) {
+				if (bucket != Long.MIN_VALUE) {
+					out.append(parser.toEpochMilli(bucket), o, h, l, c, v);
+				}
+				
+				bucket = start;
+				o = open[i];
+				h = high[i];
+				l = low[i];
+				v = 0;
+			}
+			else {
+				h = Math.max(h, high[i]);
+				l = Math.min(l, low[i]);
+			}
+			
+			c = close[i];
+			v += volume[i];
+		}
+		
+		if (bucket != Long.MIN_VALUE) {
+			out.append(parser.toEpochMilli(bucket), o, h, l, c, v);
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * @param local Local datetime of a fine bar, in epoch milliseconds as if it were utc.
+	 * @param barMinutes Coarse bar minutes, or {@link TradingCalendar#DAILY}, {@link #WEEKLY} or {@link #MONTHLY}.
+	 * @param openMinute Minute of the day intraday bars are aligned to.
+	 * 
+	 * @return Local start of the coarse bar containing {@code local}, in epoch milliseconds as if it were utc.
+	 */
+	static long bucketStart(long local, int barMinutes, int openMinute) {
+		long day = Math.floorDiv(local, MILLIS_PER_DAY);
+		
+		switch (barMinutes) {
+			case TradingCalendar.DAILY:
+				return day * MILLIS_PER_DAY;
+			
+			case WEEKLY:
+				// epoch day 0 is a thursday
+				return (day - Math.floorMod(day + 3, 7)) * MILLIS_PER_DAY;
+			
+			case MONTHLY:
+				return (day - dayOfMonth(day) + 1) * MILLIS_PER_DAY;
+			
+			default:
+				int minute = (int) ((local - day * MILLIS_PER_DAY) / MILLIS_PER_MINUTE);
+				// bars before the open align backwards from it, but not into the previous day
+				int start = openMinute + Math.floorDiv(minute - openMinute, barMinutes) * barMinutes;
+				return day * MILLIS_PER_DAY + Math.max(start, 0) * MILLIS_PER_MINUTE;
+		}
+	}
+	
+	/**
+	 * @param epochDay Days since 1970-01-01.
+	 * 
+	 * @return Day of the month, from 1, computed without allocating a {@link java.time.LocalDate}.
+	 */
+	static int dayOfMonth(long epochDay) {
+		// civil from days, in eras of 400 years starting on march 1st
+		long z = epochDay + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		
+		return (int) (doy - (153 * mp + 2) / 5 + 1);
+	}
+	
+	/**
+	 * @param interval Bar width.
+	 * 
+	 * @return Bar minutes, or {@link TradingCalendar#DAILY}, {@link #WEEKLY} or {@link #MONTHLY}.
+	 * 
+	 * @throws IllegalArgumentException Unknown bar width.
+	 */
+	private static int barMinutes(String interval) throws IllegalArgumentException {
+		if (BarInterval.WK_1.equals(interval)) {
+			return WEEKLY;
+		}
+		else if (BarInterval.MO_1.equals(interval)) {
+			return MONTHLY;
+		}
+		
+		int minutes = (interval != null) ? TradingCalendar.barMinutes(interval) : -1;
+		if (minutes < 0) {
+			throw new IllegalArgumentException("unknown bar width " + interval);
+		}
+		return minutes;
+	}
+	
+	/**
+	 * @param from Fine bar width, or {@code null} if unknown, in which case it is assumed to be finer.
+	 * @param to Coarse bar width.
+	 * 
+	 * @throws IllegalArgumentException Bars of width {@code from} do not divide bars of width {@code to}.
+	 */
+	private static void checkResample(String from, String to) throws IllegalArgumentException {
+		int toMinutes = barMinutes(to);
+		if (from == null) {
+			return;
+		}
+		int fromMinutes = barMinutes(from);
+		
+		boolean divides;
+		if (fromMinutes > 0) {
+			// intraday bars divide days, and so weeks and months, if they divide a day
+			divides = (toMinutes > 0)
+				? toMinutes % fromMinutes == 0
+				: MINUTES_PER_DAY % fromMinutes == 0;
+		}
+		else if (fromMinutes == TradingCalendar.DAILY) {
+			divides = toMinutes == TradingCalendar.DAILY || toMinutes == WEEKLY || toMinutes == MONTHLY;
+		}
+		else {
+			// weeks do not divide months
+			divides = fromMinutes == toMinutes;
+		}
+		
+		if (!divides) {
+			throw new IllegalArgumentException("cannot resample " + from + " bars to " + to);
+		}
+	}
+}
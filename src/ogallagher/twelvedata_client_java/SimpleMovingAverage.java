@@ -0,0 +1,126 @@
+package ogallagher.twelvedata_client_java;
+
+/**
+ * Simple moving average (SMA), the mean of the last {@code period} values.
+ * 
+ * The window is a ring buffer and its sum is updated with compensated summation, so it does not drift over long
+ * streams.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class SimpleMovingAverage implements Indicator {
+	private final int period;
+	private final double[] window;
+	
+	private int count = 0;
+	private int next = 0;
+	private double sum = 0;
+	/**
+	 * Lost low order bits of {@link #sum}.
+	 */
+	private double compensation = 0;
+	private double value = Double.NaN;
+	
+	/**
+	 * @param period Number of values averaged.
+	 */
+	public SimpleMovingAverage(int period) {
+		if (period < 1) {
+			throw new IllegalArgumentException("moving average period " + period + " must be positive");
+		}
+		
+		this.period = period;
+		this.window = new double[period];
+	}
+	
+	@Override
+	public double update(double value) {
+		if (count == period) {
+			add(-window[next]);
+		}
+		else {
+			count++;
+		}
+		
+		window[next] = value;
+		next = (next + 1 == period) ? 0 : next + 1;
+		add(value);
+		
+		this.value = (count == period) ? (sum + compensation) / period : Double.NaN;
+		return this.value;
+	}
+	
+	/**
+	 * Neumaier summation.
+	 * 
+	 * @param x Value to add to the sum.
+	 */
+	private void add(double x) {
+		double t = sum + x;
+		if (Math.abs(sum) >= Math.abs(x)) {
+			compensation += (sum - t) + x;
+		}
+		else {
+			compensation += (x - t) + sum;
+		}
+		sum = t;
+	}
+	
+	/**
+	 * Sliding window sum directly over {@code values}, without the ring buffer.
+	 */
+	@Override
+	public double[] apply(float[] values, int size, double[] out) {
+		if (out == null || out.length < size) {
+			out = new double[size];
+		}
+		
+		reset();
+		for (int i=0; i<size; i++) {
+			add(values[i]);
+			if (i >= period) {
+				add(-values[i - period]);
+			}
+			out[i] = (i + 1 >= period) ? (sum + compensation) / period : Double.NaN;
+		}
+		
+		// leave the window as if each value had been updated
+		for (int i=Math.max(size - period, 0); i<size; i++) {
+			window[next] = values[i];
+			next = (next + 1 == period) ? 0 : next + 1;
+		}
+		count = Math.min(size, period);
+		value = (size > 0) ? out[size - 1] : Double.NaN;
+		
+		return out;
+	}
+	
+	@Override
+	public double getValue() {
+		return value;
+	}
+	
+	@Override
+	public boolean isReady() {
+		return count == period;
+	}
+	
+	@Override
+	public void reset() {
+		count = 0;
+		next = 0;
+		sum = 0;
+		compensation = 0;
+		value = Double.NaN;
+	}
+	
+	public int getPeriod() {
+		return period;
+	}
+	
+	@Override
+	public String toString() {
+		return "SMA(" + period + ")=" + value;
+	}
+}
@@ -0,0 +1,250 @@
+package ogallagher.twelvedata_client_java;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests, so that only the first caller for a key performs the request and
+ * callers that arrive while it is in progress share its result.
+ * 
+ * Each asynchronous caller receives its own view of the shared result, so cancelling or timing out one caller
+ * does not affect the others. The shared request is only cancelled once every caller waiting on it has given up.
+ * 
+ * @param <K> Request key type, ex. normalized query parameters.
+ * @param <V> Result type. Results are shared between callers, so should not be modified.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class SingleFlight<K,V> {
+	/**
+	 * Requests in progress by key.
+	 */
+	private final ConcurrentHashMap<K,Flight<V>> flights = new ConcurrentHashMap<>();
+	
+	private final LongAdder executed = new LongAdder();
+	private final LongAdder shared = new LongAdder();
+	
+	/**
+	 * Perform a request on the calling thread, or wait for an identical request already in progress.
+	 * 
+	 * @param key Request key.
+	 * @param loader Performs the request.
+	 * 
+	 * @return Request result.
+	 */
+	public V execute(K key, Supplier<V> loader) {
+		while (true) {
+			Flight<V> mine = new Flight<>();
+			// the caller performing the request never gives up on it
+			mine.waiters = 1;
+			
+			Flight<V> other = flights.putIfAbsent(key, mine);
+			if (other == null) {
+				executed.increment();
+				
+				V result;
+				try {
+					result = loader.get();
+				}
+				catch (RuntimeException | Error e) {
+					flights.remove(key, mine);
+					mine.source.completeExceptionally(e);
+					throw e;
+				}
+				
+				flights.remove(key, mine);
+				mine.source.complete(result);
+				return result;
+			}
+			
+			CompletableFuture<V> view = join(key, other);
+			if (view != null) {
+				shared.increment();
+				return await(view);
+			}
+			
+			// other request was abandoned; retry
+			flights.remove(key, other);
+		}
+	}
+	
+	/**
+	 * Start a request, or share an identical request already in progress.
+	 * 
+	 * @param key Request key.
+	 * @param loader Starts the request. Cancelling its future should cancel the request.
+	 * 
+	 * @return This caller's view of the future result. Cancelling or completing it early does not affect other
+	 * callers.
+	 */
+	public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> loader) {
+		while (true) {
+			Flight<V> mine = new Flight<>();
+			
+			Flight<V> other = flights.putIfAbsent(key, mine);
+			if (other == null) {
+				executed.increment();
+				
+				CompletableFuture<V> view = join(key, mine);
+				mine.source.whenComplete((result, error) -> flights.remove(key, mine));
+				
+				CompletableFuture<V> load;
+				try {
+					load = loader.get();
+				}
+				catch (RuntimeException e) {
+					load = CompletableFuture.failedFuture(e);
+				}
+				
+				final CompletableFuture<V> request = load;
+				request.whenComplete((result, error) -> {
+					if (error != null) {
+						mine.source.completeExceptionally(unwrap(error));
+					}
+					else {
+						mine.source.complete(result);
+					}
+				});
+				// abandoned by all callers
+				mine.source.whenComplete((result, error) -> {
+					if (mine.source.isCancelled()) {
+						request.cancel(true);
+					}
+				});
+				
+				return view;
+			}
+			
+			CompletableFuture<V> view = join(key, other);
+			if (view != null) {
+				shared.increment();
+				return view;
+			}
+			
+			flights.remove(key, other);
+		}
+	}
+	
+	/**
+	 * Add a caller to a request in progress.
+	 * 
+	 * @param key Request key.
+	 * @param flight Request in progress.
+	 * 
+	 * @return The caller's view of the result, or {@code null} if the request was already abandoned.
+	 */
+	private CompletableFuture<V> join(K key, Flight<V> flight) {
+		CompletableFuture<V> view = new CompletableFuture<>();
+		
+		synchronized (flight) {
+			if (flight.abandoned) {
+				return null;
+			}
+			flight.waiters++;
+		}
+		
+		flight.source.whenComplete((result, error) -> {
+			if (error != null) {
+				view.completeExceptionally(unwrap(error));
+			}
+			else {
+				view.complete(result);
+			}
+		});
+		
+		view.whenComplete((result, error) -> {
+			if (!flight.source.isDone()) {
+				// caller gave up before the result
+				boolean abandoned;
+				synchronized (flight) {
+					abandoned = --flight.waiters == 0;
+					flight.abandoned = abandoned;
+				}
+				
+				if (abandoned) {
+					flights.remove(key, flight);
+					flight.source.cancel(true);
+				}
+			}
+		});
+		
+		return view;
+	}
+	
+	/**
+	 * @return Number of requests in progress.
+	 */
+	public int size() {
+		return flights.size();
+	}
+	
+	/**
+	 * @return Number of requests performed.
+	 */
+	public long getExecuted() {
+		return executed.sum();
+	}
+	
+	/**
+	 * @return Number of callers that shared a request already in progress instead of performing their own.
+	 */
+	public long getShared() {
+		return shared.sum();
+	}
+	
+	@Override
+	public String toString() {
+		return "SingleFlight("
+			+ "inProgress=" + size() + ","
+			+ "executed=" + getExecuted() + ","
+			+ "shared=" + getShared()
+			+ ")";
+	}
+	
+	/**
+	 * Wait uninterruptibly for a shared result, rethrowing its failure.
+	 */
+	private static <V> V await(CompletableFuture<V> view) {
+		try {
+			return view.join();
+		}
+		catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			else {
+				throw e;
+			}
+		}
+	}
+	
+	private static Throwable unwrap(Throwable error) {
+		if ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+			return error.getCause();
+		}
+		else {
+			return error;
+		}
+	}
+	
+	private static class Flight<V> {
+		final CompletableFuture<V> source = new CompletableFuture<>();
+		/**
+		 * Callers waiting on the result. Guarded by {@code this}.
+		 */
+		int waiters = 0;
+		/**
+		 * Whether all callers gave up before the result. Guarded by {@code this}.
+		 */
+		boolean abandoned = false;
+	}
+}
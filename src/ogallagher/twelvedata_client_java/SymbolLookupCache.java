@@ -0,0 +1,250 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.SecuritySet;
+
+/**
+ * Bounded in memory cache of {@link TwelvedataClient#symbolLookup(String, int) symbol lookup} results, with
+ * least recently used eviction and a time to live.
+ * 
+ * A result fetched with a larger {@code maxResults} also answers lookups of the same symbol with a smaller
+ * {@code maxResults}, and a result with fewer securities than its {@code maxResults} is complete, so it answers
+ * lookups of any size.
+ * 
+ * The cache only holds completed results. Concurrent lookups of the same symbol are left to the loader to share,
+ * ex. with a {@link SingleFlight}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class SymbolLookupCache {
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+	public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+	
+	private final int maxEntries;
+	private final long ttlNanos;
+	
+	/**
+	 * Cached results by normalized symbol, in access order. Guarded by {@code this}.
+	 */
+	private final LinkedHashMap<String,CachedResult> entries;
+	
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+	
+	public SymbolLookupCache() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+	}
+	
+	/**
+	 * @param maxEntries Max number of cached symbols, beyond which the least recently used is evicted.
+	 * @param ttl How long a result remains valid after it was fetched.
+	 */
+	public SymbolLookupCache(int maxEntries, Duration ttl) {
+		this.maxEntries = maxEntries;
+		this.ttlNanos = ttl.toNanos();
+		
+		this.entries = new LinkedHashMap<String,CachedResult>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String,CachedResult> eldest) {
+				if (size() > SymbolLookupCache.this.maxEntries) {
+					evictions.increment();
+					return true;
+				}
+				else {
+					return false;
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Look up a symbol in the cache, loading it on a miss.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results.
+	 * @param loader Performs the api call for a symbol and max number of results, completing with {@code null}
+	 * on failure. Failures are not cached.
+	 * 
+	 * @return Future {@link SecuritySet} with at most {@code maxResults} securities, or {@code null}. On a miss, 
+	 * this is the future of the loader.
+	 */
+	public CompletableFuture<SecuritySet> lookup(
+			String symbol, int maxResults, BiFunction<String,Integer,CompletableFuture<SecuritySet>> loader) {
+		SecuritySet cached = get(symbol, maxResults);
+		if (cached != null) {
+			hits.increment();
+			return CompletableFuture.completedFuture(cached);
+		}
+		
+		misses.increment();
+		CompletableFuture<SecuritySet> load = loader.apply(symbol, maxResults);
+		load.thenAccept((result) -> {
+			if (result != null) {
+				put(symbol, maxResults, result);
+			}
+		});
+		
+		return load;
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results.
+	 * 
+	 * @return Cached {@link SecuritySet} that answers the lookup, or {@code null}.
+	 */
+	public SecuritySet get(String symbol, int maxResults) {
+		String key = normalize(symbol);
+		
+		synchronized (this) {
+			CachedResult entry = entries.get(key);
+			
+			if (entry == null) {
+				return null;
+			}
+			else if (System.nanoTime() - entry.fetched > ttlNanos) {
+				entries.remove(key);
+				expirations.increment();
+				return null;
+			}
+			else if (entry.maxResults >= maxResults || entry.result.data.size() < entry.maxResults) {
+				return truncate(entry.result, maxResults);
+			}
+			else {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results requested from the api.
+	 * @param result Successful lookup result.
+	 */
+	public void put(String symbol, int maxResults, SecuritySet result) {
+		String key = normalize(symbol);
+		
+		synchronized (this) {
+			CachedResult existing = entries.get(key);
+			
+			// keep a fresh larger result over a smaller one
+			if (
+				existing == null
+				|| existing.maxResults <= maxResults
+				|| System.nanoTime() - existing.fetched > ttlNanos
+			) {
+				entries.put(key, new CachedResult(maxResults, result));
+			}
+		}
+	}
+	
+	public synchronized void clear() {
+		entries.clear();
+	}
+	
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * @return Number of lookups answered from the cache.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+	
+	/**
+	 * @return Number of lookups not answered from the cache, which were passed to the loader.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+	
+	/**
+	 * @return Number of results evicted to stay within the max number of entries.
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+	
+	/**
+	 * @return Number of results removed because their time to live elapsed.
+	 */
+	public long getExpirations() {
+		return expirations.sum();
+	}
+	
+	/**
+	 * @return Fraction of lookups answered from the cache.
+	 */
+	public double getHitRate() {
+		long hits = getHits();
+		long total = hits + getMisses();
+		
+		return (total == 0) ? 0 : (double) hits / total;
+	}
+	
+	/**
+	 * Symbol search is case insensitive.
+	 * 
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Cache key.
+	 */
+	private static String normalize(String symbol) {
+		return symbol.trim().toUpperCase(Locale.ROOT);
+	}
+	
+	/**
+	 * @param result Lookup result.
+	 * @param maxResults Max number of results.
+	 * 
+	 * @return {@code result}, or a copy with only its first {@code maxResults} securities.
+	 */
+	private static SecuritySet truncate(SecuritySet result, int maxResults) {
+		if (result == null || result.data == null || result.data.size() <= maxResults) {
+			return result;
+		}
+		else {
+			SecuritySet truncated = new SecuritySet();
+			truncated.status = result.status;
+			truncated.data = new ArrayList<>(result.data.subList(0, maxResults));
+			return truncated;
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "SymbolLookupCache("
+			+ "size=" + size() + ","
+			+ "hits=" + getHits() + ","
+			+ "misses=" + getMisses() + ","
+			+ "evictions=" + getEvictions() + ","
+			+ "expirations=" + getExpirations()
+			+ ")";
+	}
+	
+	private static class CachedResult {
+		final int maxResults;
+		final SecuritySet result;
+		final long fetched = System.nanoTime();
+		
+		CachedResult(int maxResults, SecuritySet result) {
+			this.maxResults = maxResults;
+			this.result = result;
+		}
+	}
+}
@@ -0,0 +1,291 @@
+package ogallagher.twelvedata_client_java;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+
+/**
+ * Fast conversion between twelvedata trade bar datetimes and epoch milliseconds, in an exchange timezone.
+ * 
+ * Datetimes are parsed from their fixed {@code yyyy-MM-dd[ HH:mm:ss]} format by character arithmetic, and
+ * timezone rules are cached per timezone id. Each parser instance also caches the utc offset between timezone
+ * transitions, so converting a series only consults the timezone rules once per transition it crosses. Instances
+ * are therefore not thread safe; use one per thread or per series.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class TimestampParser {
+	private static final ConcurrentHashMap<String,ZoneRules> zoneRules = new ConcurrentHashMap<>();
+	
+	private final ZoneRules rules;
+	private final boolean fixed;
+	
+	/**
+	 * Cached offset in milliseconds, valid for epoch datetimes in {@code [validFrom, validUntil)}.
+	 */
+	private long offset = 0, validFrom = 1, validUntil = 0;
+	/**
+	 * Cached offset in milliseconds for {@link #toLocalMilli(long)}, valid for epoch datetimes in
+	 * {@code [localValidFrom, localValidUntil)}.
+	 */
+	private long localOffset = 0, localValidFrom = 1, localValidUntil = 0;
+	
+	/**
+	 * @param timezone Exchange timezone id, ex. {@code America/New_York}. Unknown or {@code null} is utc.
+	 */
+	public TimestampParser(String timezone) {
+		this(rules(timezone));
+	}
+	
+	public TimestampParser(ZoneRules rules) {
+		this.rules = rules;
+		this.fixed = rules.isFixedOffset();
+		
+		if (fixed) {
+			offset = localOffset = rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+		}
+	}
+	
+	/**
+	 * @param datetime Trade bar datetime, as {@code yyyy-MM-dd} or {@code yyyy-MM-dd HH:mm:ss}, in this parser's
+	 * timezone.
+	 * 
+	 * @return Epoch milliseconds.
+	 * 
+	 * @throws JsonSyntaxException The datetime is not in either format.
+	 */
+	public long parse(String datetime) throws JsonSyntaxException {
+		return toEpochMilli(parseLocalEpochMilli(datetime));
+	}
+	
+	/**
+	 * @param localMilli Local datetime in this parser's timezone, in epoch milliseconds as if it were utc.
+	 * 
+	 * @return Epoch milliseconds. Datetimes in a gap or overlap resolve like
+	 * {@link LocalDateTime#atZone(ZoneId)}.
+	 */
+	public long toEpochMilli(long localMilli) {
+		long epoch = localMilli - offset;
+		
+		if (!fixed && (epoch < validFrom || epoch >= validUntil)) {
+			// outside cached offset window; resolve offset and its window
+			LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(localMilli, 1000), 0, ZoneOffset.UTC);
+			offset = rules.getOffset(local).getTotalSeconds() * 1000L;
+			epoch = localMilli - offset;
+			
+			Instant instant = Instant.ofEpochMilli(epoch);
+			ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+			ZoneOffsetTransition next = rules.nextTransition(instant);
+			
+			validFrom = (previous != null) ? previous.toEpochSecond() * 1000 : Long.MIN_VALUE;
+			if (previous != null && previous.isOverlap()) {
+				// ambiguous local datetimes after a backward transition resolve to the earlier offset
+				validFrom += previous.getDuration().negated().toMillis();
+			}
+			validUntil = (next != null) ? next.toEpochSecond() * 1000 : Long.MAX_VALUE;
+			
+			if (rules.getOffset(instant).getTotalSeconds() * 1000L != offset) {
+				// local datetime in a gap is shifted forward by the earlier offset, which the window does not match
+				validFrom = 1;
+				validUntil = 0;
+			}
+		}
+		
+		return epoch;
+	}
+	
+	/**
+	 * @param epochMilli Epoch milliseconds.
+	 * 
+	 * @return Local datetime in this parser's timezone, in epoch milliseconds as if it were utc.
+	 */
+	public long toLocalMilli(long epochMilli) {
+		if (!fixed && (epochMilli < localValidFrom || epochMilli >= localValidUntil)) {
+			Instant instant = Instant.ofEpochMilli(epochMilli);
+			localOffset = rules.getOffset(instant).getTotalSeconds() * 1000L;
+			
+			ZoneOffsetTransition previous = rules.previousTransition(instant.plusMillis(1));
+			ZoneOffsetTransition next = rules.nextTransition(instant);
+			localValidFrom = (previous != null) ? previous.toEpochSecond() * 1000 : Long.MIN_VALUE;
+			localValidUntil = (next != null) ? next.toEpochSecond() * 1000 : Long.MAX_VALUE;
+		}
+		
+		return epochMilli + localOffset;
+	}
+	
+	/**
+	 * Convert local datetimes to epoch milliseconds in place.
+	 * 
+	 * @param timestamps Local datetimes in epoch milliseconds as if they were utc.
+	 * @param size Number of datetimes.
+	 */
+	public void toEpochMilli(long[] timestamps, int size) {
+		for (int i=0; i<size; i++) {
+			timestamps[i] = toEpochMilli(timestamps[i]);
+		}
+	}
+	
+	/**
+	 * @param timezone Timezone id. Unknown or {@code null} is utc.
+	 * 
+	 * @return Cached timezone rules.
+	 */
+	public static ZoneRules rules(String timezone) {
+		if (timezone == null) {
+			return ZoneOffset.UTC.getRules();
+		}
+		
+		return zoneRules.computeIfAbsent(timezone, (id) -> zone(id).getRules());
+	}
+	
+	/**
+	 * @param timezone Timezone id.
+	 * 
+	 * @return Timezone, or utc if {@code timezone} is unknown or {@code null}.
+	 */
+	public static ZoneId zone(String timezone) {
+		if (timezone != null) {
+			try {
+				return ZoneId.of(timezone);
+			}
+			catch (DateTimeException e) {
+				// fall back to utc
+			}
+		}
+		
+		return ZoneOffset.UTC;
+	}
+	
+	/**
+	 * Parse a trade bar datetime as if it were utc.
+	 * 
+	 * @param datetime Datetime as {@code yyyy-MM-dd} or {@code yyyy-MM-dd HH:mm:ss}.
+	 * 
+	 * @return Local datetime in epoch milliseconds.
+	 * 
+	 * @throws JsonSyntaxException The datetime is not in either format.
+	 */
+	public static long parseLocalEpochMilli(String datetime) throws JsonSyntaxException {
+		int n = datetime.length();
+		if (
+			(n != 10 && n != 19)
+			|| datetime.charAt(4) != '-' || datetime.charAt(7) != '-'
+			|| (n == 19 && (datetime.charAt(13) != ':' || datetime.charAt(16) != ':'))
+		) {
+			throw new JsonSyntaxException("unexpected trade bar datetime " + datetime);
+		}
+		
+		int year = digits(datetime, 0, 4);
+		int month = digits(datetime, 5, 2);
+		int day = digits(datetime, 8, 2);
+		long seconds = epochDay(year, month, day) * 86400L;
+		
+		if (n == 19) {
+			seconds += digits(datetime, 11, 2) * 3600 + digits(datetime, 14, 2) * 60 + digits(datetime, 17, 2);
+		}
+		
+		return seconds * 1000;
+	}
+	
+	private static int digits(String s, int start, int count) {
+		int value = 0;
+		
+		for (int i=start; i<start+count; i++) {
+			int digit = s.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw new JsonSyntaxException("unexpected trade bar datetime " + s);
+			}
+			value = value * 10 + digit;
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Days since 1970-01-01 of a proleptic gregorian date, as in {@link java.time.LocalDate#toEpochDay()}.
+	 * 
+	 * @param year Year.
+	 * @param month Month, from 1.
+	 * @param day Day of month, from 1.
+	 * 
+	 * @return Epoch day.
+	 */
+	public static long epochDay(int year, int month, int day) {
+		long y = year;
+		long m = month;
+		long total = 365 * y;
+		
+		if (y >= 0) {
+			total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+		}
+		else {
+			total -= y / -4 - y / -100 + y / -400;
+		}
+		total += (367 * m - 362) / 12;
+		total += day - 1;
+		if (m > 2) {
+			total--;
+			boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+			if (!leap) {
+				total--;
+			}
+		}
+		
+		// days from year 0 to 1970
+		return total - 719528;
+	}
+	
+	/**
+	 * @return Gson adapter factory that {@link TimeSeries#parseTimestamps() parses trade bar timestamps} of each
+	 * {@link TimeSeries} as it is decoded.
+	 */
+	public static TypeAdapterFactory timeSeriesAdapterFactory() {
+		return new TimeSeriesAdapterFactory();
+	}
+	
+	private static class TimeSeriesAdapterFactory implements TypeAdapterFactory {
+		@Override
+		public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+			if (type.getRawType() != TimeSeries.class) {
+				return null;
+			}
+			
+			final TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+			
+			return new TypeAdapter<T>() {
+				@Override
+				public void write(JsonWriter out, T value) throws IOException {
+					delegate.write(out, value);
+				}
+				
+				@Override
+				public T read(JsonReader in) throws IOException {
+					T value = delegate.read(in);
+					
+					if (value != null) {
+						((TimeSeries) value).parseTimestamps();
+					}
+					
+					return value;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,700 @@
+package ogallagher.twelvedata_client_java;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
+
+/**
+ * Trading days and session hours of an exchange over a range of years, precomputed so that counting trade bars
+ * between datetimes, or offsetting a datetime by a number of trade bars, takes logarithmic time.
+ * 
+ * Trading days and half days are stored as bitsets indexed by day since the first day of the calendar. For each
+ * intraday bar width, a prefix sum of the bars before each day is built on first use, so a bar offset is a lookup
+ * and a binary search. Weekends are never trading days, and each trading day has a single session from the open to
+ * the close, or to the half day close on half days. Intraday bars start at the open of the session.
+ * 
+ * Calendars of the US ({@code NYSE}, {@code NASDAQ}) and London ({@code LSE}) exchanges are built in, with holidays
+ * derived from the exchange rules. Other exchanges can be added with {@link #register(String, TradingCalendar)}.
+ * 
+ * @author Owen Gallagher
+ * @since 2026-10-16
+ */
+public class TradingCalendar {
+	public static final int DEFAULT_FIRST_YEAR = 1990;
+	public static final int DEFAULT_LAST_YEAR = 2040;
+	
+	/**
+	 * Calendars by upper case exchange name.
+	 */
+	private static final ConcurrentHashMap<String,TradingCalendar> calendars = new ConcurrentHashMap<>();
+	/**
+	 * Built in calendars, built on first use.
+	 */
+	private static final ConcurrentHashMap<String,Supplier<TradingCalendar>> builtIn = new ConcurrentHashMap<>();
+	static {
+		builtIn.put("NYSE", TradingCalendar::unitedStates);
+		builtIn.put("NASDAQ", TradingCalendar::unitedStates);
+		builtIn.put("LSE", TradingCalendar::london);
+	}
+	
+	/**
+	 * Bar minutes of daily bars, which are one per trading day.
+	 */
+	static final int DAILY = 0;
+	
+	private final String timezone;
+	private final LocalTime open;
+	private final LocalTime close;
+	private final LocalTime halfDayClose;
+	
+	/**
+	 * Epoch day of the first day of the calendar.
+	 */
+	private final long firstDay;
+	/**
+	 * Number of days in the calendar.
+	 */
+	private final int days;
+	private final BitSet tradingDays;
+	private final BitSet halfDays;
+	
+	private final int openMinute;
+	private final int sessionMinutes;
+	private final int halfDayMinutes;
+	
+	/**
+	 * Bars before each day, and in total at index {@link #days}, by bar minutes.
+	 */
+	private final ConcurrentHashMap<Integer,int[]> barsBefore = new ConcurrentHashMap<>();
+	
+	/**
+	 * @param timezone Exchange timezone, which session hours are in.
+	 * @param open Session open.
+	 * @param close Session close.
+	 * @param halfDayClose Session close on half days.
+	 * @param firstYear First year of the calendar.
+	 * @param lastYear Last year of the calendar, inclusive.
+	 * @param holidays Weekdays without trading. Dates outside the calendar years are ignored.
+	 * @param halfDays Trading days that close at {@code halfDayClose}.
+	 */
+	public TradingCalendar(
+			String timezone, LocalTime open, LocalTime close, LocalTime halfDayClose,
+			int firstYear, int lastYear, Collection<LocalDate> holidays, Collection<LocalDate> halfDays) {
+		if (!close.isAfter(open) || halfDayClose.isAfter(close) || !halfDayClose.isAfter(open)) {
+			throw new IllegalArgumentException(
+				"invalid session hours " + open + "-" + close + ", half day close " + halfDayClose
+			);
+		}
+		if (lastYear < firstYear) {
+			throw new IllegalArgumentException("calendar years " + firstYear + "-" + lastYear + " are empty");
+		}
+		
+		this.timezone = timezone;
+		this.open = open;
+		this.close = close;
+		this.halfDayClose = halfDayClose;
+		
+		firstDay = LocalDate.of(firstYear, 1, 1).toEpochDay();
+		days = (int) (LocalDate.of(lastYear + 1, 1, 1).toEpochDay() - firstDay);
+		
+		tradingDays = new BitSet(days);
+		LocalDate date = LocalDate.ofEpochDay(firstDay);
+		for (int d=0; d<days; d++, date=date.plusDays(1)) {
+			if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+				tradingDays.set(d);
+			}
+		}
+		for (LocalDate holiday : holidays) {
+			int d = dayIndex(holiday);
+			if (d >= 0) {
+				tradingDays.clear(d);
+			}
+		}
+		
+		this.halfDays = new BitSet(days);
+		for (LocalDate halfDay : halfDays) {
+			int d = dayIndex(halfDay);
+			if (d >= 0 && tradingDays.get(d)) {
+				this.halfDays.set(d);
+			}
+		}
+		
+		openMinute = open.getHour() * 60 + open.getMinute();
+		sessionMinutes = close.getHour() * 60 + close.getMinute() - openMinute;
+		halfDayMinutes = halfDayClose.getHour() * 60 + halfDayClose.getMinute() - openMinute;
+	}
+	
+	/**
+	 * @param exchange Exchange name, ex. {@code NASDAQ}.
+	 * 
+	 * @return Calendar of the exchange, or {@code null} if there is none.
+	 */
+	public static TradingCalendar forExchange(String exchange) {
+		if (exchange == null) {
+			return null;
+		}
+		
+		String key = exchange.trim().toUpperCase(Locale.ROOT);
+		TradingCalendar calendar = calendars.get(key);
+		if (calendar == null) {
+			Supplier<TradingCalendar> supplier = builtIn.get(key);
+			if (supplier != null) {
+				calendar = calendars.computeIfAbsent(key, (k) -> supplier.get());
+			}
+		}
+		
+		return calendar;
+	}
+	
+	/**
+	 * Add or replace the calendar of an exchange.
+	 * 
+	 * @param exchange Exchange name, as the api reports it in {@link TwelvedataInterface.TimeSeries.Meta#exchange}.
+	 * @param calendar Trading calendar of the exchange.
+	 */
+	public static void register(String exchange, TradingCalendar calendar) {
+		calendars.put(exchange.trim().toUpperCase(Locale.ROOT), calendar);
+	}
+	
+	/**
+	 * Offset a datetime by a number of trade bars of this calendar.
+	 * 
+	 * For a negative {@code offset}, the result is the start of the bar {@code -offset} bars before the last bar
+	 * starting at or before {@code base}. For a positive {@code offset}, it is the start of the bar {@code offset}
+	 * bars after the first bar starting at or after {@code base}. Either way, the range between {@code base} and
+	 * the result contains more than {@code abs(offset)} bars.
+	 * 
+	 * @param base Base datetime, in the exchange timezone.
+	 * @param barWidth Bar width, ex. {@link BarInterval#MIN_15}.
+	 * @param offset Number of bars away from {@code base}.
+	 * 
+	 * @return Offset datetime, or {@code null} if the bar width has no fixed length in trading time, like weekly
+	 * and monthly bars, or either datetime is outside the calendar.
+	 */
+	public LocalDateTime offsetBars(LocalDateTime base, String barWidth, long offset) {
+		int barMinutes = barMinutes(barWidth);
+		int d = dayIndex(base.toLocalDate());
+		if (barMinutes < 0 || d < 0) {
+			return null;
+		}
+		else if (offset == 0) {
+			return base;
+		}
+		
+		int[] before = barsBefore(barMinutes);
+		// index of the bar containing base, or of the next bar if base is outside a session
+		long bar;
+		// whether base is within a bar, rather than before it
+		boolean within;
+		
+		int sinceOpen = base.getHour() * 60 + base.getMinute() - openMinute;
+		if (!tradingDays.get(d)) {
+			bar = before[d];
+			within = false;
+		}
+		else if (barMinutes == DAILY) {
+			bar = before[d];
+			within = true;
+		}
+		else if (sinceOpen < 0) {
+			bar = before[d];
+			within = false;
+		}
+		else if (sinceOpen >= dayMinutes(d)) {
+			bar = before[d + 1];
+			within = false;
+		}
+		else {
+			bar = before[d] + sinceOpen / barMinutes;
+			within = true;
+		}
+		
+		boolean atStart = within && (
+			(barMinutes == DAILY)
+				? base.toLocalTime().equals(LocalTime.MIDNIGHT)
+				: sinceOpen % barMinutes == 0 && isBarStart(base)
+		);
+		long anchor;
+		if (offset < 0) {
+			anchor = within ? bar : bar - 1;
+		}
+		else {
+			anchor = (within && !atStart) ? bar + 1 : bar;
+		}
+		
+		return barStart(anchor + offset, barMinutes);
+	}
+	
+	/**
+	 * @param from Start datetime, in the exchange timezone.
+	 * @param to End datetime, exclusive.
+	 * @param barWidth Intraday or daily bar width.
+	 * 
+	 * @return Number of bars starting in {@code [from, to)}, or {@code -1} if the bar width has no fixed length in
+	 * trading time or either datetime is outside the calendar.
+	 */
+	public long countBars(LocalDateTime from, LocalDateTime to, String barWidth) {
+		int barMinutes = barMinutes(barWidth);
+		if (barMinutes < 0) {
+			return -1;
+		}
+		
+		long start = barsBefore(from, barMinutes);
+		long end = barsBefore(to, barMinutes);
+		return (start < 0 || end < 0) ? -1 : Math.max(end - start, 0);
+	}
+	
+	/**
+	 * @param date Date.
+	 * 
+	 * @return Whether the exchange trades on {@code date}. Dates outside the calendar are assumed to be trading
+	 * days if they are weekdays.
+	 */
+	public boolean isTradingDay(LocalDate date) {
+		int d = dayIndex(date);
+		return (d >= 0)
+			? tradingDays.get(d)
+			: date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+	}
+	
+	/**
+	 * @param date Date.
+	 * 
+	 * @return Whether {@code date} is a trading day that closes at the half day close.
+	 */
+	public boolean isHalfDay(LocalDate date) {
+		int d = dayIndex(date);
+		return d >= 0 && halfDays.get(d);
+	}
+	
+	/**
+	 * @param date Trading day.
+	 * 
+	 * @return Session close of {@code date}.
+	 */
+	public LocalTime getClose(LocalDate date) {
+		return isHalfDay(date) ? halfDayClose : close;
+	}
+	
+	/**
+	 * @param epochMilli Instant, in epoch milliseconds.
+	 * 
+	 * @return Whether the exchange is in session at {@code epochMilli}.
+	 */
+	public boolean isOpen(long epochMilli) {
+		LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), getZoneId());
+		LocalDate date = local.toLocalDate();
+		LocalTime time = local.toLocalTime();
+		
+		return isTradingDay(date) && !time.isBefore(open) && time.isBefore(getClose(date));
+	}
+	
+	/**
+	 * @param epochMilli Instant, in epoch milliseconds.
+	 * 
+	 * @return Next session open at or after {@code epochMilli}, in epoch milliseconds, or {@code epochMilli} if the
+	 * exchange is in session.
+	 */
+	public long nextOpen(long epochMilli) {
+		if (isOpen(epochMilli)) {
+			return epochMilli;
+		}
+		
+		ZoneId zone = getZoneId();
+		LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), zone);
+		LocalDate date = local.toLocalDate();
+		if (!local.toLocalTime().isBefore(open)) {
+			date = date.plusDays(1);
+		}
+		// a year without trading days would be a broken calendar
+		for (int d=0; d<366 && !isTradingDay(date); d++) {
+			date = date.plusDays(1);
+		}
+		
+		return date.atTime(open).atZone(zone).toInstant().toEpochMilli();
+	}
+	
+	public String getTimezone() {
+		return timezone;
+	}
+	
+	public ZoneId getZoneId() {
+		return TimestampParser.zone(timezone);
+	}
+	
+	public LocalTime getOpen() {
+		return open;
+	}
+	
+	public LocalTime getClose() {
+		return close;
+	}
+	
+	public LocalTime getHalfDayClose() {
+		return halfDayClose;
+	}
+	
+	public LocalDate getFirstDate() {
+		return LocalDate.ofEpochDay(firstDay);
+	}
+	
+	public LocalDate getLastDate() {
+		return LocalDate.ofEpochDay(firstDay + days - 1);
+	}
+	
+	/**
+	 * @param date Date.
+	 * 
+	 * @return Index of {@code date} in the calendar, or {@code -1} if it's outside the calendar.
+	 */
+	private int dayIndex(LocalDate date) {
+		long d = date.toEpochDay() - firstDay;
+		return (d >= 0 && d < days) ? (int) d : -1;
+	}
+	
+	/**
+	 * @param d Index of a trading day.
+	 * 
+	 * @return Session minutes of the day.
+	 */
+	private int dayMinutes(int d) {
+		return halfDays.get(d) ? halfDayMinutes : sessionMinutes;
+	}
+	
+	/**
+	 * @param datetime Datetime.
+	 * 
+	 * @return Whether {@code datetime} has no seconds, so it can be the start of an intraday bar.
+	 */
+	private static boolean isBarStart(LocalDateTime datetime) {
+		return datetime.getSecond() == 0 && datetime.getNano() == 0;
+	}
+	
+	/**
+	 * @param datetime Datetime.
+	 * @param barMinutes Bar minutes, or {@link #DAILY}.
+	 * 
+	 * @return Number of bars of the calendar starting before {@code datetime}, or {@code -1} if it's outside
+	 * the calendar.
+	 */
+	private long barsBefore(LocalDateTime datetime, int barMinutes) {
+		int d = dayIndex(datetime.toLocalDate());
+		if (d < 0) {
+			return -1;
+		}
+		
+		int[] before = barsBefore(barMinutes);
+		if (!tradingDays.get(d)) {
+			return before[d];
+		}
+		else if (barMinutes == DAILY) {
+			// daily bars start at midnight
+			return (datetime.toLocalTime().equals(LocalTime.MIDNIGHT)) ? before[d] : before[d + 1];
+		}
+		
+		int sinceOpen = datetime.getHour() * 60 + datetime.getMinute() - openMinute;
+		if (sinceOpen < 0) {
+			return before[d];
+		}
+		else if (sinceOpen >= dayMinutes(d)) {
+			return before[d + 1];
+		}
+		else {
+			// bars starting at or before datetime, less the one starting exactly at datetime
+			long started = sinceOpen / barMinutes + 1;
+			if (sinceOpen % barMinutes == 0 && isBarStart(datetime)) {
+				started--;
+			}
+			return before[d] + started;
+		}
+	}
+	
+	/**
+	 * @param bar Index of a bar in the calendar.
+	 * @param barMinutes Bar minutes, or {@link #DAILY}.
+	 * 
+	 * @return Start of the bar, or {@code null} if it's outside the calendar.
+	 */
+	private LocalDateTime barStart(long bar, int barMinutes) {
+		int[] before = barsBefore(barMinutes);
+		if (bar < 0 || bar >= before[days]) {
+			return null;
+		}
+		
+		// last day with at most bar bars before it is the trading day containing the bar
+		int d = Arrays.binarySearch(before, (int) bar);
+		if (d < 0) {
+			d = -d - 2;
+		}
+		else {
+			while (d < days && before[d + 1] == bar) {
+				d++;
+			}
+		}
+		
+		LocalDate date = LocalDate.ofEpochDay(firstDay + d);
+		return (barMinutes == DAILY)
+			? date.atStartOfDay()
+			: date.atTime(open).plusMinutes((bar - before[d]) * barMinutes);
+	}
+	
+	/**
+	 * @param barMinutes Bar minutes, or {@link #DAILY}.
+	 * 
+	 * @return Prefix sum of bars before each day.
+	 */
+	private int[] barsBefore(int barMinutes) {
+		return barsBefore.computeIfAbsent(barMinutes, (minutes) -> {
+			int[] before = new int[days + 1];
+			for (int d=0; d<days; d++) {
+				int bars = 0;
+				if (tradingDays.get(d)) {
+					// a partial last bar still starts within the session
+					bars = (minutes == DAILY) ? 1 : (dayMinutes(d) + minutes - 1) / minutes;
+				}
+				before[d + 1] = before[d] + bars;
+			}
+			return before;
+		});
+	}
+	
+	/**
+	 * @param barWidth Bar width.
+	 * 
+	 * @return Minutes of an intraday bar, {@link #DAILY} for daily bars, or {@code -1} if the bar width has no
+	 * fixed length in trading time.
+	 */
+	static int barMinutes(String barWidth) {
+		switch (barWidth) {
+			case BarInterval.MIN_1:
+				return 1;
+			case BarInterval.MIN_5:
+				return 5;
+			case BarInterval.MIN_15:
+				return 15;
+			case BarInterval.MIN_30:
+				return 30;
+			case BarInterval.MIN_45:
+				return 45;
+			case BarInterval.HR_1:
+				return 60;
+			case BarInterval.HR_2:
+				return 120;
+			case BarInterval.HR_4:
+				return 240;
+			case BarInterval.HR_8:
+				return 480;
+			case BarInterval.DY_1:
+				return DAILY;
+			default:
+				return -1;
+		}
+	}
+	
+	/**
+	 * @return Calendar of the New York Stock Exchange, which Nasdaq shares.
+	 */
+	static TradingCalendar unitedStates() {
+		HashSet<LocalDate> holidays = new HashSet<>();
+		HashSet<LocalDate> halfDays = new HashSet<>();
+		
+		for (int year=DEFAULT_FIRST_YEAR; year<=DEFAULT_LAST_YEAR; year++) {
+			// new year's day is not observed on the friday before
+			LocalDate newYear = LocalDate.of(year, 1, 1);
+			holidays.add((newYear.getDayOfWeek() == DayOfWeek.SUNDAY) ? newYear.plusDays(1) : newYear);
+			
+			if (year >= 1998) {
+				holidays.add(nthWeekday(year, Month.JANUARY, DayOfWeek.MONDAY, 3));
+			}
+			holidays.add(nthWeekday(year, Month.FEBRUARY, DayOfWeek.MONDAY, 3));
+			holidays.add(easter(year).minusDays(2));
+			holidays.add(LocalDate.of(year, 5, 31).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+			if (year >= 2022) {
+				holidays.add(observed(LocalDate.of(year, 6, 19)));
+			}
+			holidays.add(observed(LocalDate.of(year, 7, 4)));
+			holidays.add(nthWeekday(year, Month.SEPTEMBER, DayOfWeek.MONDAY, 1));
+			LocalDate thanksgiving = nthWeekday(year, Month.NOVEMBER, DayOfWeek.THURSDAY, 4);
+			holidays.add(thanksgiving);
+			holidays.add(observed(LocalDate.of(year, 12, 25)));
+			
+			// early closes at 13:00
+			LocalDate july3 = LocalDate.of(year, 7, 3);
+			if (july3.getDayOfWeek().getValue() <= DayOfWeek.THURSDAY.getValue()) {
+				halfDays.add(july3);
+			}
+			halfDays.add(thanksgiving.plusDays(1));
+			LocalDate christmasEve = LocalDate.of(year, 12, 24);
+			if (christmasEve.getDayOfWeek().getValue() <= DayOfWeek.THURSDAY.getValue()) {
+				halfDays.add(christmasEve);
+			}
+		}
+		
+		// unscheduled closures
+		holidays.addAll(Arrays.asList(
+			LocalDate.of(1994, 4, 27),
+			LocalDate.of(2001, 9, 11), LocalDate.of(2001, 9, 12), LocalDate.of(2001, 9, 13), LocalDate.of(2001, 9, 14),
+			LocalDate.of(2004, 6, 11),
+			LocalDate.of(2007, 1, 2),
+			LocalDate.of(2012, 10, 29), LocalDate.of(2012, 10, 30),
+			LocalDate.of(2018, 12, 5),
+			LocalDate.of(2025, 1, 9)
+		));
+		
+		return new TradingCalendar(
+			"America/New_York", LocalTime.of(9, 30), LocalTime.of(16, 0), LocalTime.of(13, 0),
+			DEFAULT_FIRST_YEAR, DEFAULT_LAST_YEAR, holidays, halfDays
+		);
+	}
+	
+	/**
+	 * @return Calendar of the London Stock Exchange, which closes on English bank holidays.
+	 */
+	static TradingCalendar london() {
+		HashSet<LocalDate> holidays = new HashSet<>();
+		HashSet<LocalDate> halfDays = new HashSet<>();
+		
+		for (int year=DEFAULT_FIRST_YEAR; year<=DEFAULT_LAST_YEAR; year++) {
+			holidays.add(substitute(LocalDate.of(year, 1, 1)));
+			
+			LocalDate easter = easter(year);
+			holidays.add(easter.minusDays(2));
+			holidays.add(easter.plusDays(1));
+			
+			// early may and spring bank holidays moved for anniversaries and jubilees
+			if (year == 1995 || year == 2020) {
+				holidays.add(LocalDate.of(year, 5, 8));
+			}
+			else {
+				holidays.add(nthWeekday(year, Month.MAY, DayOfWeek.MONDAY, 1));
+			}
+			if (year == 2002 || year == 2012) {
+				holidays.add(LocalDate.of(year, 6, 4));
+			}
+			else if (year == 2022) {
+				holidays.add(LocalDate.of(year, 6, 2));
+			}
+			else {
+				holidays.add(LocalDate.of(year, 5, 31).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+			}
+			holidays.add(LocalDate.of(year, 8, 31).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+			
+			// christmas and boxing day substitutes fall on the following weekdays
+			LocalDate christmas = LocalDate.of(year, 12, 25);
+			LocalDate boxingDay = christmas.plusDays(1);
+			LocalDate christmasObserved = substitute(christmas);
+			holidays.add(christmasObserved);
+			LocalDate boxingDayObserved = boxingDay;
+			while (
+				boxingDayObserved.getDayOfWeek() == DayOfWeek.SATURDAY
+				|| boxingDayObserved.getDayOfWeek() == DayOfWeek.SUNDAY
+				|| boxingDayObserved.equals(christmasObserved)
+			) {
+				boxingDayObserved = boxingDayObserved.plusDays(1);
+			}
+			holidays.add(boxingDayObserved);
+			
+			// early closes at 12:30
+			halfDays.add(LocalDate.of(year, 12, 24));
+			halfDays.add(LocalDate.of(year, 12, 31));
+		}
+		
+		holidays.addAll(Arrays.asList(
+			LocalDate.of(1999, 12, 31),
+			LocalDate.of(2002, 6, 3),
+			LocalDate.of(2011, 4, 29),
+			LocalDate.of(2012, 6, 5),
+			LocalDate.of(2022, 6, 3),
+			LocalDate.of(2022, 9, 19),
+			LocalDate.of(2023, 5, 8)
+		));
+		
+		return new TradingCalendar(
+			"Europe/London", LocalTime.of(8, 0), LocalTime.of(16, 30), LocalTime.of(12, 30),
+			DEFAULT_FIRST_YEAR, DEFAULT_LAST_YEAR, holidays, halfDays
+		);
+	}
+	
+	/**
+	 * @param date Holiday date.
+	 * 
+	 * @return Weekday on which the holiday is observed: the friday before a saturday, or the monday after a sunday.
+	 */
+	private static LocalDate observed(LocalDate date) {
+		switch (date.getDayOfWeek()) {
+			case SATURDAY:
+				return date.minusDays(1);
+			case SUNDAY:
+				return date.plusDays(1);
+			default:
+				return date;
+		}
+	}
+	
+	/**
+	 * @param date Holiday date.
+	 * 
+	 * @return Weekday on which the holiday is observed: the monday after a weekend.
+	 */
+	private static LocalDate substitute(LocalDate date) {
+		return (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY)
+			? date.with(TemporalAdjusters.next(DayOfWeek.MONDAY))
+			: date;
+	}
+	
+	/**
+	 * @return The {@code n}th {@code dayOfWeek} of the month.
+	 */
+	private static LocalDate nthWeekday(int year, Month month, DayOfWeek dayOfWeek, int n) {
+		return LocalDate.of(year, month, 1).with(TemporalAdjusters.dayOfWeekInMonth(n, dayOfWeek));
+	}
+	
+	/**
+	 * @param year Year.
+	 * 
+	 * @return Western easter sunday of the year, by the anonymous gregorian algorithm.
+	 */
+	static LocalDate easter(int year) {
+		int a = year % 19;
+		int b = year / 100;
+		int c = year % 100;
+		int d = b / 4;
+		int e = b % 4;
+		int f = (b + 8) / 25;
+		int g = (b - f + 1) / 3;
+		int h = (19 * a + b - d - g + 15) % 30;
+		int i = c / 4;
+		int k = c % 4;
+		int l = (32 + 2 * e + 2 * i - h - k) % 7;
+		int m = (a + 11 * h + 22 * l) / 451;
+		int month = (h + l - 7 * m + 114) / 31;
+		int day = (h + l - 7 * m + 114) % 31 + 1;
+		
+		return LocalDate.of(year, month, day);
+	}
+	
+	@Override
+	public String toString() {
+		return "TradingCalendar("
+			+ "timezone=" + timezone + ","
+			+ "session=" + open + "-" + close + ","
+			+ "halfDayClose=" + halfDayClose + ","
+			+ "dates=" + getFirstDate() + "/" + getLastDate() + ","
+			+ "tradingDays=" + tradingDays.cardinality()
+			+ ")";
+	}
+}
@@ -1,26 +1,55 @@
 package ogallagher.twelvedata_client_java;
 
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.net.URL;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.System.Logger.Level;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Period;
-import java.util.Calendar;
-import java.util.Date;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonReader;
 
-import ogallagher.temp_fx_logger.System;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Price;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Quote;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.SecuritySet;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.TradeBar;
 
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
 import retrofit2.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
@@ -34,98 +63,300 @@ import retrofit2.converter.gson.GsonConverterFactory;
  * @author Owen Gallagher
  * @since 9 June 2021
  * @version {@value TwelvedataClient#VERSION}
- *
+ * 
  */
 public class TwelvedataClient {
 	public static final String VERSION = "0.3.0";
 	
 	public static final String API_PREFIX = "https://api.twelvedata.com";
 	
-	private final static Retrofit retrofit;
-	private final static TwelvedataInterface api;
+	/**
+	 * Max idle connections kept alive in the shared connection pool.
+	 */
+	public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 16;
+	/**
+	 * How long an idle connection is kept alive for reuse.
+	 */
+	public static final Duration DEFAULT_KEEP_ALIVE = Duration.ofMinutes(5);
+	/**
+	 * Max concurrent http requests of the shared dispatcher.
+	 */
+	public static final int DEFAULT_MAX_REQUESTS = 64;
+	/**
+	 * Max concurrent http requests to one host of the shared dispatcher.
+	 */
+	public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 16;
+	public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+	public static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
 	
-	public static final URL CONFIG_FILE = TwelvedataClient.class.getResource("resources/config.json");
+	/**
+	 * Classpath resource, relative to this class, of the optional json config file.
+	 */
+	public static final String CONFIG_RESOURCE = "resources/config.json";
 	public static final String CONFIG_KEY_API_KEY = "api_key";
-	private static HashMap<String,String> config = new HashMap<String,String>();
+	/**
+	 * Prefix of the system property of a config key, ex. {@code -Dtwelvedata.api_key=...}.
+	 */
+	public static final String CONFIG_PROPERTY_PREFIX = "twelvedata.";
+	/**
+	 * Prefix of the environment variable of a config key, ex. {@code TWELVEDATA_API_KEY}.
+	 */
+	public static final String CONFIG_ENV_PREFIX = "TWELVEDATA_";
 	
-	private static Calendar calendar;
+	/**
+	 * Logger of debug messages, ex. of each fetch, which are off by default.
+	 */
+	private static final System.Logger LOGGER = System.getLogger(TwelvedataClient.class.getName());
 	
 	/**
 	 * Max api calls per minute, according to the free plan.
 	 */
 	private static final int MAX_CALLS_PER_MINUTE_FREE = 8;
+	/**
+	 * Default max time to wait for the rate limiter to allow an api call.
+	 */
+	public static final Duration DEFAULT_MAX_CALL_WAIT = Duration.ofMinutes(1);
+	/**
+	 * Max number of symbols in a single batch request.
+	 */
+	public static final int MAX_BATCH_SYMBOLS = 120;
+	/**
+	 * Max number of bars returned by a single time series call.
+	 */
+	public static final int MAX_OUTPUT_SIZE = 5000;
+	/**
+	 * Default max number of windows of a {@link #fetchTimeSeriesPaged(String, String, LocalDateTime, LocalDateTime) 
+	 * paged fetch} in progress at once.
+	 */
+	public static final int DEFAULT_PAGE_PARALLELISM = 4;
+	
+	/**
+	 * Decodes csv time series responses. Stateless, so shared by all clients.
+	 */
+	private static final CsvTimeSeriesDecoder CSV_DECODER = new CsvTimeSeriesDecoder();
 	
-	static {
-		// define retrofit
-		retrofit = new Retrofit.Builder()
-			.baseUrl(API_PREFIX)
-			.addConverterFactory(GsonConverterFactory.create())
-			.build();
+	/**
+	 * Runs async api call results on the thread that received the response.
+	 */
+	private static final Executor DIRECT_EXECUTOR = Runnable::run;
+	
+	/**
+	 * Http client and api shared by all clients, so that they reuse the same connection pool and dispatcher. 
+	 * Created on first use, not when this class is loaded.
+	 */
+	private static class Shared {
+		static final OkHttpClient httpClient;
+		static final TwelvedataInterface api;
 		
-		// define api
-		api = retrofit.create(TwelvedataInterface.class);
+		static {
+			// define http client; okhttp negotiates http/2 and gzip on its own
+			Dispatcher dispatcher = new Dispatcher();
+			dispatcher.setMaxRequests(DEFAULT_MAX_REQUESTS);
+			dispatcher.setMaxRequestsPerHost(DEFAULT_MAX_REQUESTS_PER_HOST);
+			
+			httpClient = new OkHttpClient.Builder()
+				.connectionPool(new ConnectionPool(DEFAULT_MAX_IDLE_CONNECTIONS, DEFAULT_KEEP_ALIVE.toMillis(), TimeUnit.MILLISECONDS))
+				.dispatcher(dispatcher)
+				.connectTimeout(DEFAULT_CONNECT_TIMEOUT)
+				.readTimeout(DEFAULT_READ_TIMEOUT)
+				.build();
+			
+			// define api
+			api = createApi(API_PREFIX, httpClient, DefaultGson.gson, null);
+		}
+	}
+	
+	/**
+	 * Default json converter, created on first use.
+	 */
+	private static class DefaultGson {
+		static final Gson gson = configureGson(new GsonBuilder()).create();
+	}
+	
+	/**
+	 * Values of the config file, read on first use.
+	 */
+	private static class ConfigFile {
+		static final Map<String,String> values = read();
 		
-		// define config
-		if (CONFIG_FILE != null) {
-			File configFile = new File(CONFIG_FILE.getPath());
+		private static Map<String,String> read() {
+			Map<String,String> config = new HashMap<>();
 			
-			if (!configFile.exists()) {
-				System.out.println("ERROR: config file missing: " + configFile.getAbsolutePath());
+			InputStream in = TwelvedataClient.class.getResourceAsStream(CONFIG_RESOURCE);
+			if (in == null) {
+				return config;
 			}
-			else {
-				System.out.println("reading config file " + configFile.getAbsolutePath());
-				try {
-					JsonReader reader = new JsonReader(new FileReader(configFile));
-					reader.beginObject();
-					
-					while (reader.hasNext()) {
-						String key = reader.nextName();
-						String value = reader.nextString();
-						
-						config.put(key, value);
-						System.out.println("config." + key + "=" + value);
-					}
-				}
-				catch (IOException e) {
-					System.out.println(e.getMessage());
+			
+			try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					config.put(reader.nextName(), reader.nextString());
 				}
 			}
+			catch (IOException | IllegalStateException e) {
+				System.out.println("ERROR: failed to read config file " + CONFIG_RESOURCE + ": " + e.getMessage());
+			}
+			
+			return config;
 		}
-		else {
-			System.out.println("WARNING: twelvedata client has no config file");
+	}
+	
+	/**
+	 * Resolve a config value, from the first of:
+	 * 
+	 * <ol>
+	 * <li>system property {@value #CONFIG_PROPERTY_PREFIX}{@code <key>}, ex. {@code twelvedata.api_key}</li>
+	 * <li>environment variable {@value #CONFIG_ENV_PREFIX}{@code <KEY>}, ex. {@code TWELVEDATA_API_KEY}</li>
+	 * <li>the {@value #CONFIG_RESOURCE} classpath resource, which is only read if the others are missing</li>
+	 * </ol>
+	 * 
+	 * Values given explicitly, ex. to {@link Builder#key(String)}, take precedence over all of these.
+	 * 
+	 * @param key Config key, ex. {@link #CONFIG_KEY_API_KEY}.
+	 * 
+	 * @return Config value, or {@code null} if none is set.
+	 */
+	public static String getConfig(String key) {
+		String value = System.getProperty(CONFIG_PROPERTY_PREFIX + key);
+		if (value == null || value.isEmpty()) {
+			value = System.getenv(CONFIG_ENV_PREFIX + key.toUpperCase(Locale.ROOT));
+		}
+		if (value == null || value.isEmpty()) {
+			value = ConfigFile.values.get(key);
 		}
 		
-		// define calendar
-		calendar = Calendar.getInstance();
+		return (value == null || value.isEmpty()) ? null : value;
 	}
 	
+	/**
+	 * Api endpoints, bound to a base url and http client.
+	 */
+	private final TwelvedataInterface api;
+	/**
+	 * Json converter of {@link #api}.
+	 */
+	private final Gson gson;
+	/**
+	 * Receives measurements of api calls.
+	 */
+	private final MetricsListener metrics;
 	/**
 	 * API key required to access twelvedata.
 	 */
 	private String key = null;
 	/**
-	 * Max number of API calls per minute.
+	 * Limits the rate of API calls, shared by all threads that use this client.
+	 */
+	private RateLimiter limiter;
+	/**
+	 * Max time to wait for the rate limiter to allow an API call before failing with 
+	 * {@link Failure.ErrorCode#CALL_LIMIT}. If {@code null}, waits indefinitely.
+	 */
+	private Duration maxCallWait = DEFAULT_MAX_CALL_WAIT;
+	/**
+	 * Optional persistent cache of fetched trade bars. If {@code null}, every fetch goes to the api.
+	 */
+	private BarCache barCache = null;
+	/**
+	 * Optional in memory cache of symbol lookup results. If {@code null}, every lookup goes to the api.
+	 */
+	private SymbolLookupCache symbolLookupCache = null;
+	/**
+	 * Coalesces concurrent identical time series requests into one api call.
+	 */
+	private final SingleFlight<String,TimeSeries> timeSeriesFlights = new SingleFlight<>();
+	/**
+	 * Coalesces concurrent identical symbol lookups into one api call.
+	 */
+	private final SingleFlight<String,SecuritySet> symbolLookupFlights = new SingleFlight<>();
+	/**
+	 * Optional scheduler that grants the credits of {@link #limiter} by priority. If {@code null}, calls acquire
+	 * credits from the limiter first come first served.
+	 */
+	private RequestScheduler scheduler = null;
+	/**
+	 * Priority of this client's calls in the {@link #scheduler}.
+	 */
+	private RequestScheduler.Lane lane = RequestScheduler.Lane.INTERACTIVE;
+	/**
+	 * Caller of this client's calls in the {@link #scheduler}.
 	 */
-	private int maxCallsPerMinute;
+	private String caller = RequestScheduler.DEFAULT_CALLER;
 	/**
-	 * History of call timestamps, newest first.
+	 * Optional adjuster of the rate of {@link #limiter} from the credits reported by the api.
 	 */
-	private LinkedList<Long> callHistory = new LinkedList<>();
+	private AdaptiveRateLimit adaptiveRateLimit = null;
 	
 	public TwelvedataClient() {
-		this(config.get(CONFIG_KEY_API_KEY));
+		this(getConfig(CONFIG_KEY_API_KEY));
 	}
 	
 	public TwelvedataClient(String key) {
+		this(key, RateLimiter.perMinute(MAX_CALLS_PER_MINUTE_FREE));
+	}
+	
+	/**
+	 * @param key API key.
+	 * @param limiter API call rate limiter, ex. configured for a paid plan. Can be shared with other clients
+	 * that use the same key.
+	 */
+	public TwelvedataClient(String key, RateLimiter limiter) {
+		this(key, limiter, Shared.api, DefaultGson.gson, MetricsListener.NONE);
+	}
+	
+	private TwelvedataClient(String key, RateLimiter limiter, TwelvedataInterface api, Gson gson, MetricsListener metrics) {
+		this.api = api;
+		this.gson = gson;
+		this.metrics = metrics;
+		
 		this.key = key;
 		if (this.key == null || this.key.length() == 0) {
 			System.out.println("WARNING: twelvedata client initialized without api key");
 			this.key = null;
 		}
 		
-		this.maxCallsPerMinute = MAX_CALLS_PER_MINUTE_FREE;
+		this.limiter = limiter;
 		
-		System.out.println("init new " + this);
+		LOGGER.log(Level.DEBUG, () -> "init new " + this);
+	}
+	
+	/**
+	 * View of another client, whose calls are scheduled in a different lane or as a different caller.
+	 * 
+	 * @param base Client whose api, key, rate limiter, scheduler and caches are used.
+	 * @param lane Priority of calls.
+	 * @param caller Caller of calls.
+	 */
+	private TwelvedataClient(TwelvedataClient base, RequestScheduler.Lane lane, String caller) {
+		this.api = base.api;
+		this.gson = base.gson;
+		this.metrics = base.metrics;
+		this.key = base.key;
+		this.limiter = base.limiter;
+		this.maxCallWait = base.maxCallWait;
+		this.barCache = base.barCache;
+		this.symbolLookupCache = base.symbolLookupCache;
+		this.scheduler = base.scheduler;
+		this.adaptiveRateLimit = base.adaptiveRateLimit;
+		this.lane = lane;
+		this.caller = caller;
+	}
+	
+	/**
+	 * Create a view of this client whose calls are scheduled with a given priority and caller, ex. 
+	 * {@code client.withPriority(Lane.BACKFILL, "history-download")} for a bulk download that should not delay
+	 * interactive lookups. Views share the api key, rate limiter, scheduler and caches of this client, but not 
+	 * later changes to its settings, nor the coalescing of identical calls in progress.
+	 * 
+	 * Without a {@link Builder#scheduler(RequestScheduler) scheduler}, calls are not prioritized.
+	 * 
+	 * @param lane Priority of calls.
+	 * @param caller Caller of calls, which shares its lane fairly with other callers.
+	 * 
+	 * @return Client view. Create it once per caller and reuse it.
+	 */
+	public TwelvedataClient withPriority(RequestScheduler.Lane lane, String caller) {
+		return new TwelvedataClient(this, lane, caller);
 	}
 	
 	/**
@@ -141,82 +372,129 @@ public class TwelvedataClient {
 	 * @return {@link TimeSeries}. On failure, {@link TimeSeries#isFailure()} will return {@code true}.
 	 */
 	private TimeSeries fetchTimeSeries(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount) {
-		if (callAllowed()) {
-			if (startDate != null) {
-				// interval between start and end
-				if (startDate.isBefore(endDate)) {
-					try {
-						System.out.println("DEBUG fetching time series between start and end");
-						Response<TimeSeries> res = api
-							.timeSeries(symbol, interval, startDate.toString(), endDate.toString(), key)
-							.execute();
-						
-						TimeSeries out;
-						
-						if (res != null) {
-							if (res.isSuccessful()) {
-								TimeSeries timeSeries = res.body();
-								
-								if (!timeSeries.isFailure()) {
-									System.out.println("DEBUG fetched time series of length " + timeSeries.values.size());
-								}
-								
-								out = timeSeries;
-							}
-							else {
-								out = new TimeSeries(res.code(), res.errorBody().string());
-							}
-						}
-						else {
-							out = new TimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
-						}
-						
-						callHistory.addFirst(new Date().getTime());
-						return out;
-					}
-					catch (IOException e) {
-						return new TimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage());
-					}
-				}
-				else {
-					return new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate);
-				}
-			}
-			else {
-				// count until end
+		if (startDate != null && !startDate.isBefore(endDate)) {
+			return new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate);
+		}
+		
+		return timeSeriesFlights.execute(timeSeriesKey(symbol, interval, startDate, endDate, barCount), () -> {
+			if (acquireCall(1, MetricsListener.ENDPOINT_TIME_SERIES)) {
 				try {
-					System.out.println("DEBUG fetching time series of " + barCount + " bars until end");
-					Response<TimeSeries> res = api
-						.timeSeries(symbol, interval, endDate.toString(), barCount, key)
-						.execute();
+					Response<TimeSeries> res = timeSeriesCall(symbol, interval, startDate, endDate, barCount).execute();
 					
-					callHistory.addFirst(new Date().getTime());
-					
-					if (res != null) {
-						if (res.isSuccessful()) {
-							TimeSeries timeSeries = res.body();
-							
-							if (!timeSeries.isFailure()) {
-								System.out.print("DEBUG fetched time series of length " + timeSeries.values.size());
-							}
-							
-							return timeSeries;
-						}
-						else {
-							return new TimeSeries(res.code(), res.errorBody().string());
-						}
-					}
-					else {
-						return new TimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
-					}
+					return timeSeriesFromResponse(res);
 				}
 				catch (IOException e) {
 					return new TimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage());
 				}
 			}
+			else {
+				return new TimeSeries(Failure.ErrorCode.CALL_LIMIT, callLimitMessage());
+			}
+		});
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime, int)}, which 
+	 * enqueues the api call instead of blocking the calling thread.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * @param executor Executor on which the result is delivered. If {@code null}, the result is delivered
+	 * on the http client's thread.
+	 * @param timeout Max time to wait for the response. If {@code null}, waits indefinitely.
+	 * 
+	 * @return Future {@link TimeSeries}. Api failures complete the future normally with a {@link Failure}.
+	 */
+	private CompletableFuture<TimeSeries> fetchTimeSeriesAsync(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount, 
+			Executor executor, Duration timeout) {
+		if (startDate != null && !startDate.isBefore(endDate)) {
+			return CompletableFuture.completedFuture(
+				new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate)
+			);
+		}
+		
+		CompletableFuture<TimeSeries> shared = timeSeriesFlights.executeAsync(
+			timeSeriesKey(symbol, interval, startDate, endDate, barCount), 
+			() -> whenAllowed(
+				1, 
+				MetricsListener.ENDPOINT_TIME_SERIES, 
+				() -> enqueue(
+					timeSeriesCall(symbol, interval, startDate, endDate, barCount), 
+					this::timeSeriesFromResponse, 
+					(e) -> new TimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage())
+				),
+				() -> new TimeSeries(Failure.ErrorCode.CALL_LIMIT, callLimitMessage())
+			)
+		);
+		
+		return deliver(shared, executor, timeout, new TimeSeries(Failure.ErrorCode.TIMEOUT, "no response within " + timeout));
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, or {@code null}.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * 
+	 * @return Key of identical time series requests, for {@link #timeSeriesFlights coalescing}.
+	 */
+	private static String timeSeriesKey(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount) {
+		return normalizeSymbol(symbol) + "|" + interval + "|" + startDate + "|" + endDate + "|" + barCount;
+	}
+	
+	/**
+	 * Route a time series request to the appropriate {@code TwelvedataInterface} api call.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime. If {@code null}, {@code barCount} bars until {@code endDate} are requested.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * 
+	 * @return Unexecuted api call.
+	 */
+	private Call<TimeSeries> timeSeriesCall(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount) {
+		if (startDate != null) {
+			// interval between start and end
+			LOGGER.log(Level.DEBUG, () -> "fetching time series between start and end");
+			return api.timeSeries(symbol, interval, startDate.toString(), endDate.toString(), key);
+		}
+		else {
+			// count until end
+			LOGGER.log(Level.DEBUG, () -> "fetching time series of " + barCount + " bars until end");
+			return api.timeSeries(symbol, interval, endDate.toString(), barCount, key);
+		}
+	}
+	
+	/**
+	 * @param res Http api response.
+	 * 
+	 * @return {@link TimeSeries}. On failure, {@link TimeSeries#isFailure()} will return {@code true}.
+	 * 
+	 * @throws IOException Failed to read the error body of an unsuccessful response.
+	 */
+	private TimeSeries timeSeriesFromResponse(Response<TimeSeries> res) throws IOException {
+		if (res != null) {
+			if (res.isSuccessful()) {
+				TimeSeries timeSeries = res.body();
+				
+				if (!timeSeries.isFailure()) {
+					LOGGER.log(Level.DEBUG, () -> "fetched time series of length " + timeSeries.values.size());
+				}
+				
+				return timeSeries;
+			}
+			else {
+				return new TimeSeries(res.code(), res.errorBody().string());
+			}
 		}
 		else {
-			return new TimeSeries(Failure.ErrorCode.CALL_LIMIT, "ERROR hit max api call limit of " + maxCallsPerMinute + " per minute");
+			return new TimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
 		}
 	}
 	
@@ -233,6 +511,10 @@ public class TwelvedataClient {
 	}
 	
 	/**
+	 * Concurrent identical requests, from any thread, share one api call and its result, which should not be modified.
+	 * A range of more than {@link #MAX_OUTPUT_SIZE} bars is truncated by the api, unless fetched through the bar
+	 * cache; use {@link #fetchTimeSeriesPaged(String, String, LocalDateTime, LocalDateTime)} for long ranges.
+	 * 
 	 * @param symbol Security symbol.
 	 * @param interval Trade bar width.
 	 * @param startDate Start datetime.
@@ -241,113 +523,1420 @@ public class TwelvedataClient {
 	 * @return {@link TimeSeries}. On failure, {@link TimeSeries#isFailure()} will return {@code true}.
 	 */
 	public TimeSeries fetchTimeSeries(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate) {
-		return fetchTimeSeries(symbol, interval, startDate, endDate, -1);
+		return fetchTimeSeries(symbol, interval, startDate, endDate, (String) null);
 	}
 	
 	/**
+	 * Like {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime)}, but ranges missing from the bar
+	 * cache are paged in the trading calendar of the symbol's exchange, so they take fewer api calls.
 	 * 
 	 * @param symbol Security symbol.
-	 * @param maxResults Max number of results. Will be constrained to be within the range {@code [1..120]}.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * @param exchange Exchange of the symbol, ex. {@code NASDAQ}, or {@code null} if unknown.
 	 * 
-	 * @return {@link SecuritySet} or {@code null}.
+	 * @return {@link TimeSeries}. On failure, {@link TimeSeries#isFailure()} will return {@code true}.
 	 */
-	public SecuritySet symbolLookup(String symbol, int maxResults) {
-		if (maxResults < 1) {
-			maxResults = 1;
+	public TimeSeries fetchTimeSeries(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, String exchange) {
+		if (barCache != null) {
+			return fetchTimeSeriesCached(symbol, interval, startDate, endDate, exchange);
 		}
-		else if (maxResults > 120) {
-			maxResults = 120;
+		else {
+			return fetchTimeSeries(symbol, interval, startDate, endDate, -1);
+		}
+	}
+	
+	/**
+	 * Fetch a time series through the {@link #barCache bar cache}, only fetching from the api the sub-ranges
+	 * that are not cached yet.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * @param exchange Exchange of the symbol, or {@code null}.
+	 * 
+	 * @return {@link TimeSeries}. On failure, {@link TimeSeries#isFailure()} will return {@code true}.
+	 */
+	private TimeSeries fetchTimeSeriesCached(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, String exchange) {
+		if (!startDate.isBefore(endDate)) {
+			return new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate);
 		}
 		
-		if (callAllowed()) {
-			System.out.println("performing symbol lookup for " + symbol);
-			try {
-				Response<SecuritySet> res = api
-					.symbolSearch(symbol, maxResults)
-					.execute();
-				
-				SecuritySet out = null;
+		synchronized (barCache.lock(symbol, interval)) {
+			for (LocalDateTime[] missing : barCache.missingRanges(symbol, interval, startDate, endDate)) {
+				TimeSeries fetched = fetchTimeSeriesPaged(symbol, interval, missing[0], missing[1], exchange);
 				
-				if (res != null) {
-					if (res.isSuccessful()) {
-						SecuritySet securitySet = res.body();
-						
-						if (!securitySet.isFailure()) {
-							System.out.println("fetched " + securitySet.data.size() + " matching securities");
-							out = securitySet;
-						}
-						else {
-							System.out.println(((Failure) securitySet).toString());
-						}
-					}
-					else {
-						System.out.println(res.errorBody().string());
-					}
+				if (!fetched.isFailure()) {
+					barCache.put(symbol, interval, missing[0], missing[1], fetched);
+				}
+				else if (fetched.isNoData()) {
+					// range has no bars, ex. market closed; not a bad request, ex. unknown symbol
+					barCache.put(symbol, interval, missing[0], missing[1], null);
 				}
 				else {
-					System.out.println("http api response is null");
+					return fetched;
 				}
-				
-				return out;
-			} 
-			catch (IOException e) {
-				System.out.println(e.getMessage());
-				return null;
 			}
-		}
-		else {
-			System.out.println("hit max api call limit of " + maxCallsPerMinute + " per minute");
-			return null;
-		}
-	}
-	
-	public boolean callAllowed() {
-		int n = callHistory.size();
-		
-		if (n >= maxCallsPerMinute) {
-			int oldestIdx = maxCallsPerMinute-1;
-			long oldest = callHistory.get(oldestIdx);
 			
-			// see https://stackoverflow.com/a/11882964/10200417
-			calendar.setTime(new Date());
-			calendar.add(Calendar.MINUTE, -1);
-			if (oldest > calendar.getTime().getTime()) {
-				// too many calls within the last minute; call not allowed
-				return false;
+			TimeSeries cached = barCache.get(symbol, interval, startDate, endDate);
+			if (cached.values.isEmpty()) {
+				return new TimeSeries(Failure.ErrorCode.NO_BARS, Failure.NO_DATA_MESSAGE + " between " + startDate + " and " + endDate);
 			}
 			else {
-				// clear old calls
-				int oldCalls = n - oldestIdx;
-				for (int i=0; i<oldCalls; i++) {
-					callHistory.removeLast();
-				}
-				
-				return true;
+				LOGGER.log(Level.DEBUG, () -> "fetched time series of length " + cached.values.size() + " through cache");
+				return cached;
 			}
 		}
-		else {
-			return true;
-		}
 	}
 	
 	/**
-	 * Attempts to get one week of daily close prices for AAPL.
+	 * Fetch a time series of any length, splitting the range into windows of at most {@link #MAX_OUTPUT_SIZE} bars
+	 * that are fetched concurrently within the rate limit, then stitched into one series.
 	 * 
-	 * @return {@code true} if {@link TimeSeries#isFailure() TimeSeries.isFailure() == false}.
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * 
+	 * @return {@link TimeSeries} in descending chronological order, without duplicate bars. On failure of any window, 
+	 * {@link TimeSeries#isFailure()} will return {@code true}.
 	 */
-	public boolean testFetchTimeSeries(LocalDate from) {
-		if (from == null) {
-			from = LocalDate.now().minusDays(7);
+	public TimeSeries fetchTimeSeriesPaged(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate) {
+		return fetchTimeSeriesPaged(symbol, interval, startDate, endDate, null);
+	}
+	
+	/**
+	 * Like {@link #fetchTimeSeriesPaged(String, String, LocalDateTime, LocalDateTime)}, but windows are sized in
+	 * the {@link TradingCalendar trading calendar} of the symbol's exchange, so each holds close to 
+	 * {@link #MAX_OUTPUT_SIZE} bars instead of spanning closed hours, and the range takes fewer api calls.
+	 * If the calendar is wrong for a day, ex. an unscheduled closure, the api truncates the window to its latest bars,
+	 * and the remainder is fetched as another window.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * @param exchange Exchange of the symbol, ex. {@code NASDAQ}, or {@code null} if unknown.
+	 * 
+	 * @return {@link TimeSeries} in descending chronological order, without duplicate bars. On failure of any window, 
+	 * {@link TimeSeries#isFailure()} will return {@code true}.
+	 */
+	public TimeSeries fetchTimeSeriesPaged(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, String exchange) {
+		return fetchTimeSeriesPagedAsync(
+			symbol, interval, startDate, endDate, exchange, DEFAULT_PAGE_PARALLELISM, null, null
+		).join();
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeriesPaged(String, String, LocalDateTime, LocalDateTime)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * @param parallelism Max number of windows in progress at once. Each window uses one call of the rate limit.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response of each window, or {@code null}.
+	 * 
+	 * @return Future {@link TimeSeries}. Cancelling the future cancels windows in progress.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesPagedAsync(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, 
+			int parallelism, Executor executor, Duration timeout) {
+		return fetchTimeSeriesPagedAsync(symbol, interval, startDate, endDate, null, parallelism, executor, timeout);
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeriesPaged(String, String, LocalDateTime, LocalDateTime, String)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * @param exchange Exchange of the symbol, or {@code null}.
+	 * @param parallelism Max number of windows in progress at once. Each window uses one call of the rate limit.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response of each window, or {@code null}.
+	 * 
+	 * @return Future {@link TimeSeries}. Cancelling the future cancels windows in progress.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesPagedAsync(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, String exchange, 
+			int parallelism, Executor executor, Duration timeout) {
+		if (!startDate.isBefore(endDate)) {
+			return CompletableFuture.completedFuture(
+				new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate)
+			);
 		}
 		
-		final String TEST_SYMBOL = "AAPL";
-		final String TEST_INTERVAL = BarInterval.DY_1;
-		final LocalDate testStartDate = from;
-		final LocalDate TEST_END_DATE = testStartDate.plusDays(7);
-		System.out.println("expecting " + Period.between(testStartDate, TEST_END_DATE).getDays() + " x " + TEST_INTERVAL);
+		List<LocalDateTime[]> windows = pageWindows(interval, startDate, endDate, exchange);
 		
-		TimeSeries timeSeries = fetchTimeSeries(
-				TEST_SYMBOL, 
+		LOGGER.log(Level.DEBUG, () -> "fetching time series between start and end in " + windows.size() + " windows");
+		return new PagedFetch(symbol, interval, windows, Math.max(1, parallelism), executor, timeout).start();
+	}
+	
+	/**
+	 * Split a datetime range into adjacent windows that each contain at most {@link #MAX_OUTPUT_SIZE} bars.
+	 * 
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, inclusive.
+	 * @param endDate End datetime, exclusive.
+	 * @param exchange Exchange whose trading calendar bars are counted in, or {@code null} to count calendar bars.
+	 * 
+	 * @return Windows as {@code [start, end)} pairs in chronological order. If the bar width does not support
+	 * {@link BarInterval#offsetBars(LocalDateTime, String, long) offsets}, the whole range is one window.
+	 */
+	static List<LocalDateTime[]> pageWindows(String interval, LocalDateTime startDate, LocalDateTime endDate, String exchange) {
+		ArrayList<LocalDateTime[]> windows = new ArrayList<>();
+		LocalDateTime cursor = startDate;
+		
+		while (cursor.isBefore(endDate)) {
+			// bars of the exchange's sessions, or calendar bars, which are never fewer than trading bars
+			LocalDateTime next = BarInterval.offsetBarsCounted(cursor, interval, MAX_OUTPUT_SIZE, exchange);
+			if (next == null || !next.isBefore(endDate)) {
+				next = endDate;
+			}
+			
+			windows.add(new LocalDateTime[] {cursor, next});
+			cursor = next;
+		}
+		
+		return windows;
+	}
+	
+	/**
+	 * Fetches the windows of a paged time series request, keeping a bounded number in progress, and stitches
+	 * their bars together once all have completed.
+	 * 
+	 * A window sized in a trading calendar holds exactly {@link #MAX_OUTPUT_SIZE} bars, so if the calendar is wrong
+	 * for a day, the api truncates the window to its latest bars. A window that returns the max number of bars
+	 * and starts after the window start is treated as truncated, and the remainder is fetched as another window.
+	 */
+	private class PagedFetch {
+		private final String symbol;
+		private final String interval;
+		private final LocalDateTime startDate;
+		private final LocalDateTime endDate;
+		private final int parallelism;
+		private final Executor executor;
+		private final Duration timeout;
+		
+		/**
+		 * Windows to fetch, which grow by the remainder of each truncated window. Guarded by {@code this}.
+		 */
+		private final ArrayList<LocalDateTime[]> windows;
+		/**
+		 * Result of each window, by index in {@link #windows}. Guarded by {@code this}.
+		 */
+		private final ArrayList<TimeSeries> results;
+		/**
+		 * Result, completed on the thread of the last window, before it is delivered on the {@link #executor}.
+		 */
+		private final CompletableFuture<TimeSeries> result = new CompletableFuture<>();
+		/**
+		 * Windows in progress, cancelled once the result is complete, ex. after a failed window or cancellation.
+		 * Guarded by {@code this}.
+		 */
+		private final ArrayList<CompletableFuture<TimeSeries>> inProgress = new ArrayList<>();
+		private int nextWindow = 0;
+		private int completed = 0;
+		
+		PagedFetch(
+				String symbol, String interval, List<LocalDateTime[]> windows, int parallelism, 
+				Executor executor, Duration timeout) {
+			this.symbol = symbol;
+			this.interval = interval;
+			this.startDate = windows.get(0)[0];
+			this.endDate = windows.get(windows.size()-1)[1];
+			this.parallelism = parallelism;
+			this.executor = executor;
+			this.timeout = timeout;
+			this.windows = new ArrayList<>(windows);
+			this.results = new ArrayList<>(Collections.nCopies(windows.size(), (TimeSeries) null));
+		}
+		
+		CompletableFuture<TimeSeries> start() {
+			result.whenComplete((timeSeries, error) -> {
+				ArrayList<CompletableFuture<TimeSeries>> cancelled;
+				synchronized (this) {
+					cancelled = new ArrayList<>(inProgress);
+				}
+				for (CompletableFuture<TimeSeries> window : cancelled) {
+					window.cancel(true);
+				}
+			});
+			
+			// before any window starts, so a cancelled delivery cannot miss them
+			CompletableFuture<TimeSeries> delivered = deliver(result, executor, null, null);
+			
+			for (int i=0; i<parallelism; i++) {
+				next();
+			}
+			
+			return delivered;
+		}
+		
+		/**
+		 * Start the next window, if any remain and the result is not complete.
+		 */
+		private void next() {
+			int w;
+			LocalDateTime[] window;
+			synchronized (this) {
+				if (nextWindow == windows.size() || result.isDone()) {
+					return;
+				}
+				w = nextWindow++;
+				window = windows.get(w);
+			}
+			
+			CompletableFuture<TimeSeries> future = fetchTimeSeriesAsync(
+				symbol, interval, window[0], window[1], -1, DIRECT_EXECUTOR, timeout
+			);
+			
+			synchronized (this) {
+				inProgress.add(future);
+			}
+			if (result.isDone()) {
+				// completed while this window was starting
+				future.cancel(true);
+			}
+			
+			future.whenComplete((timeSeries, error) -> {
+				synchronized (this) {
+					inProgress.remove(future);
+				}
+				
+				if (error != null) {
+					result.complete(new TimeSeries(Failure.ErrorCode.NO_COMMS, error.getMessage()));
+				}
+				else if (timeSeries.isFailure() && !timeSeries.isNoData()) {
+					// fail fast; remaining windows are not started, and those in progress are cancelled
+					result.complete(timeSeries);
+				}
+				else {
+					LocalDateTime remainderEnd = truncatedAt(window, timeSeries);
+					
+					boolean done;
+					synchronized (this) {
+						results.set(w, timeSeries);
+						if (remainderEnd != null) {
+							windows.add(new LocalDateTime[] {window[0], remainderEnd});
+							results.add(null);
+						}
+						done = ++completed == windows.size();
+					}
+					
+					if (done) {
+						result.complete(stitch());
+					}
+					else {
+						next();
+					}
+				}
+			});
+		}
+		
+		/**
+		 * @param window Window as a {@code [start, end)} pair.
+		 * @param timeSeries Successful result of the window.
+		 * 
+		 * @return Datetime of the oldest bar of a window that the api truncated, which is the end of the remainder
+		 * to fetch, or {@code null} if the window was not truncated.
+		 */
+		private LocalDateTime truncatedAt(LocalDateTime[] window, TimeSeries timeSeries) {
+			if (timeSeries.isFailure() || timeSeries.values == null || timeSeries.values.size() < MAX_OUTPUT_SIZE) {
+				return null;
+			}
+			
+			long oldestMilli = Long.MAX_VALUE;
+			for (TradeBar bar : timeSeries.values) {
+				oldestMilli = Math.min(oldestMilli, TimestampParser.parseLocalEpochMilli(bar.datetime));
+			}
+			LocalDateTime oldest = LocalDateTime.ofEpochSecond(
+				Math.floorDiv(oldestMilli, 1000), Math.floorMod(oldestMilli, 1000) * 1000000, ZoneOffset.UTC
+			);
+			
+			return (oldest.isAfter(window[0]) && oldest.isBefore(window[1])) ? oldest : null;
+		}
+		
+		/**
+		 * @return Bars of all windows in descending chronological order, with bars on window boundaries deduplicated.
+		 */
+		private TimeSeries stitch() {
+			TimeSeries stitched = new TimeSeries();
+			stitched.values = new ArrayList<>();
+			
+			List<TimeSeries> results;
+			int windowCount;
+			synchronized (this) {
+				results = new ArrayList<>(this.results);
+				windowCount = windows.size();
+			}
+			
+			for (int w=results.size()-1; w>=0; w--) {
+				TimeSeries window = results.get(w);
+				
+				if (!window.isFailure()) {
+					if (stitched.meta == null) {
+						stitched.meta = window.meta;
+					}
+					window.ensureTimestamps();
+					stitched.values.addAll(window.values);
+				}
+			}
+			
+			if (stitched.values.isEmpty()) {
+				return new TimeSeries(
+					Failure.ErrorCode.NO_BARS, 
+					Failure.NO_DATA_MESSAGE + " between " + startDate + " and " + endDate
+				);
+			}
+			
+			// windows are already descending, so this mostly merges their runs
+			stitched.values.sort((a, b) -> Long.compare(b.timestamp, a.timestamp));
+			
+			int n = 1;
+			for (int i=1; i<stitched.values.size(); i++) {
+				TradeBar bar = stitched.values.get(i);
+				if (bar.timestamp != stitched.values.get(n-1).timestamp) {
+					stitched.values.set(n++, bar);
+				}
+			}
+			stitched.values.subList(n, stitched.values.size()).clear();
+			stitched.timestampsParsed = true;
+			
+			LOGGER.log(Level.DEBUG, () -> "fetched time series of length " + stitched.values.size() + " in " + windowCount + " windows");
+			return stitched;
+		}
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeries(String, String, LocalDateTime, int)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * 
+	 * @return Future {@link TimeSeries}, delivered on the http client's thread.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesAsync(String symbol, String interval, LocalDateTime endDate, int barCount) {
+		return fetchTimeSeriesAsync(symbol, interval, null, endDate, barCount, null, null);
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeries(String, String, LocalDateTime, int)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response, or {@code null}. On timeout the future completes with a
+	 * {@link Failure.ErrorCode#TIMEOUT} failure.
+	 * 
+	 * @return Future {@link TimeSeries}. Cancelling the future cancels the underlying http call, once no other caller shares it.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesAsync(
+			String symbol, String interval, LocalDateTime endDate, int barCount, Executor executor, Duration timeout) {
+		return fetchTimeSeriesAsync(symbol, interval, null, endDate, barCount, executor, timeout);
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * 
+	 * @return Future {@link TimeSeries}, delivered on the http client's thread.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesAsync(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate) {
+		return fetchTimeSeriesAsync(symbol, interval, startDate, endDate, -1, null, null);
+	}
+	
+	/**
+	 * Asynchronous version of {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response, or {@code null}. On timeout the future completes with a
+	 * {@link Failure.ErrorCode#TIMEOUT} failure.
+	 * 
+	 * @return Future {@link TimeSeries}. Cancelling the future cancels the underlying http call, once no other caller shares it.
+	 */
+	public CompletableFuture<TimeSeries> fetchTimeSeriesAsync(
+			String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, Executor executor, Duration timeout) {
+		return fetchTimeSeriesAsync(symbol, interval, startDate, endDate, -1, executor, timeout);
+	}
+	
+	/**
+	 * Columnar version of {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime)}, which decodes the 
+	 * response directly into primitive columns.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * 
+	 * @return {@link ColumnarTimeSeries} in ascending chronological order. On failure, 
+	 * {@link ColumnarTimeSeries#isFailure()} will return {@code true}.
+	 */
+	public ColumnarTimeSeries fetchColumnarTimeSeries(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate) {
+		return fetchColumnarTimeSeries(symbol, interval, startDate, endDate, -1);
+	}
+	
+	/**
+	 * Columnar version of {@link #fetchTimeSeries(String, String, LocalDateTime, int)}, which decodes the 
+	 * response directly into primitive columns.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * 
+	 * @return {@link ColumnarTimeSeries} in ascending chronological order. On failure, 
+	 * {@link ColumnarTimeSeries#isFailure()} will return {@code true}.
+	 */
+	public ColumnarTimeSeries fetchColumnarTimeSeries(String symbol, String interval, LocalDateTime endDate, int barCount) {
+		return fetchColumnarTimeSeries(symbol, interval, null, endDate, barCount);
+	}
+	
+	/**
+	 * Private version of the columnar time series fetch with all possible arguments.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime. If {@code null}, {@code barCount} bars until {@code endDate} are requested.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * 
+	 * @return {@link ColumnarTimeSeries}.
+	 */
+	private ColumnarTimeSeries fetchColumnarTimeSeries(String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount) {
+		if (startDate != null && !startDate.isBefore(endDate)) {
+			return new ColumnarTimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate);
+		}
+		
+		if (acquireCall(1, MetricsListener.ENDPOINT_TIME_SERIES)) {
+			try {
+				Call<ColumnarTimeSeries> call = (startDate != null)
+					? api.timeSeriesColumnar(symbol, interval, startDate.toString(), endDate.toString(), key)
+					: api.timeSeriesColumnar(symbol, interval, endDate.toString(), barCount, key);
+				Response<ColumnarTimeSeries> res = call.execute();
+				
+				if (res == null) {
+					return new ColumnarTimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
+				}
+				else if (res.isSuccessful()) {
+					ColumnarTimeSeries series = res.body();
+					
+					if (!series.isFailure()) {
+						LOGGER.log(Level.DEBUG, () -> "fetched columnar time series of length " + series.size());
+					}
+					
+					return series;
+				}
+				else {
+					return new ColumnarTimeSeries(res.code(), res.errorBody().string());
+				}
+			}
+			catch (IOException e) {
+				return new ColumnarTimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage());
+			}
+		}
+		else {
+			return new ColumnarTimeSeries(Failure.ErrorCode.CALL_LIMIT, callLimitMessage());
+		}
+	}
+	
+	/**
+	 * Csv version of {@link #fetchColumnarTimeSeries(String, String, LocalDateTime, LocalDateTime)}, which 
+	 * transfers less data for large bar counts, and streams the response body through a 
+	 * {@link CsvTimeSeriesDecoder}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime, in {@code timezone}.
+	 * @param endDate End datetime, in {@code timezone}.
+	 * @param timezone Timezone of the dates and returned bars, ex. the exchange timezone of a previous 
+	 * {@link ColumnarTimeSeries#exchangeTimezone}, or {@code UTC}.
+	 * 
+	 * @return {@link ColumnarTimeSeries} in ascending chronological order, whose 
+	 * {@link ColumnarTimeSeries#exchangeTimezone} is {@code timezone}, and whose exchange and type are unknown. 
+	 * On failure, {@link ColumnarTimeSeries#isFailure()} will return {@code true}.
+	 */
+	public ColumnarTimeSeries fetchColumnarTimeSeriesCsv(
+		String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, String timezone
+	) {
+		return fetchColumnarTimeSeriesCsv(symbol, interval, startDate, endDate, -1, timezone);
+	}
+	
+	/**
+	 * Csv version of {@link #fetchColumnarTimeSeries(String, String, LocalDateTime, int)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param endDate End datetime, in {@code timezone}.
+	 * @param barCount Number of bars.
+	 * @param timezone Timezone of the date and returned bars.
+	 * 
+	 * @return {@link ColumnarTimeSeries} in ascending chronological order.
+	 * 
+	 * @see #fetchColumnarTimeSeriesCsv(String, String, LocalDateTime, LocalDateTime, String)
+	 */
+	public ColumnarTimeSeries fetchColumnarTimeSeriesCsv(
+		String symbol, String interval, LocalDateTime endDate, int barCount, String timezone
+	) {
+		return fetchColumnarTimeSeriesCsv(symbol, interval, null, endDate, barCount, timezone);
+	}
+	
+	/**
+	 * Private version of the csv time series fetch with all possible arguments.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime. If {@code null}, {@code barCount} bars until {@code endDate} are requested.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars.
+	 * @param timezone Timezone of the dates and returned bars.
+	 * 
+	 * @return {@link ColumnarTimeSeries}.
+	 */
+	private ColumnarTimeSeries fetchColumnarTimeSeriesCsv(
+		String symbol, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount, String timezone
+	) {
+		if (startDate != null && !startDate.isBefore(endDate)) {
+			return new ColumnarTimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate);
+		}
+		
+		if (acquireCall(1, MetricsListener.ENDPOINT_TIME_SERIES)) {
+			try {
+				Call<ResponseBody> call = (startDate != null)
+					? api.timeSeriesCsv(symbol, interval, startDate.toString(), endDate.toString(), timezone, key)
+					: api.timeSeriesCsv(symbol, interval, endDate.toString(), barCount, timezone, key);
+				Response<ResponseBody> res = call.execute();
+				
+				if (res == null) {
+					return new ColumnarTimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
+				}
+				else if (res.isSuccessful()) {
+					ColumnarTimeSeries series;
+					try (ResponseBody body = res.body()) {
+						long start = System.nanoTime();
+						series = CSV_DECODER.read(body.source(), timezone);
+						metrics.onParse(MetricsListener.ENDPOINT_TIME_SERIES, System.nanoTime() - start);
+					}
+					
+					if (!series.isFailure()) {
+						series.symbol = symbol;
+						series.interval = interval;
+						LOGGER.log(Level.DEBUG, () -> "fetched csv time series of length " + series.size());
+					}
+					else {
+						metrics.onFailure(MetricsListener.ENDPOINT_TIME_SERIES, series.code);
+					}
+					
+					return series;
+				}
+				else {
+					return new ColumnarTimeSeries(res.code(), res.errorBody().string());
+				}
+			}
+			catch (IOException e) {
+				return new ColumnarTimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage());
+			}
+		}
+		else {
+			return new ColumnarTimeSeries(Failure.ErrorCode.CALL_LIMIT, callLimitMessage());
+		}
+	}
+	
+	/**
+	 * Fetch time series for multiple symbols, using as few batch requests as the api allows.
+	 * 
+	 * Symbols are split into batches of at most {@link #MAX_BATCH_SYMBOLS}, and at most the number of api 
+	 * credits available per minute, since each symbol in a batch costs one credit.
+	 * 
+	 * @param symbols Security symbols. Duplicates are fetched once.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * 
+	 * @return {@link TimeSeries} per symbol, in the order of {@code symbols}. Symbols that failed map to
+	 * a failure, where {@link TimeSeries#isFailure()} will return {@code true}.
+	 */
+	public Map<String,TimeSeries> fetchTimeSeriesBatch(Collection<String> symbols, String interval, LocalDateTime startDate, LocalDateTime endDate) {
+		return fetchTimeSeriesBatch(symbols, interval, startDate, endDate, -1);
+	}
+	
+	/**
+	 * Fetch time series for multiple symbols, using as few batch requests as the api allows.
+	 * 
+	 * @param symbols Security symbols. Duplicates are fetched once.
+	 * @param interval Trade bar width.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars per symbol.
+	 * 
+	 * @return {@link TimeSeries} per symbol, in the order of {@code symbols}. Symbols that failed map to
+	 * a failure, where {@link TimeSeries#isFailure()} will return {@code true}.
+	 * 
+	 * @see #fetchTimeSeriesBatch(Collection, String, LocalDateTime, LocalDateTime)
+	 */
+	public Map<String,TimeSeries> fetchTimeSeriesBatch(Collection<String> symbols, String interval, LocalDateTime endDate, int barCount) {
+		return fetchTimeSeriesBatch(symbols, interval, null, endDate, barCount);
+	}
+	
+	/**
+	 * Private version of the batch time series fetch with all possible arguments.
+	 * 
+	 * @param symbols Security symbols.
+	 * @param interval Trade bar width.
+	 * @param startDate Start datetime.
+	 * @param endDate End datetime.
+	 * @param barCount Number of bars per symbol.
+	 * 
+	 * @return {@link TimeSeries} per symbol.
+	 */
+	private Map<String,TimeSeries> fetchTimeSeriesBatch(
+			Collection<String> symbols, String interval, LocalDateTime startDate, LocalDateTime endDate, int barCount) {
+		LinkedHashMap<String,TimeSeries> out = new LinkedHashMap<>();
+		ArrayList<String> unique = new ArrayList<>(new LinkedHashSet<>(symbols));
+		
+		if (startDate != null && !startDate.isBefore(endDate)) {
+			for (String symbol : unique) {
+				out.put(symbol, new TimeSeries(Failure.ErrorCode.INVALID_DATES, "start " + startDate + " must be less than end " + endDate));
+			}
+			return out;
+		}
+		
+		int batchSize = Math.max(Math.min(MAX_BATCH_SYMBOLS, getMaxCallsPerMinute()), 1);
+		
+		for (int b=0; b<unique.size(); b+=batchSize) {
+			List<String> batch = unique.subList(b, Math.min(b + batchSize, unique.size()));
+			
+			if (batch.size() == 1) {
+				// a single symbol response is not keyed by symbol
+				String symbol = batch.get(0);
+				out.put(symbol, fetchTimeSeries(symbol, interval, startDate, endDate, barCount));
+			}
+			else if (acquireCall(batch.size(), MetricsListener.ENDPOINT_TIME_SERIES)) {
+				try {
+					LOGGER.log(Level.DEBUG, () -> "fetching batch of " + batch.size() + " time series");
+					String symbolList = String.join(",", batch);
+					Call<JsonObject> call = (startDate != null)
+						? api.timeSeriesBatch(symbolList, interval, startDate.toString(), endDate.toString(), key)
+						: api.timeSeriesBatch(symbolList, interval, endDate.toString(), barCount, key);
+					
+					timeSeriesBatchFromResponse(call.execute(), batch, out);
+				}
+				catch (IOException e) {
+					for (String symbol : batch) {
+						out.put(symbol, new TimeSeries(Failure.ErrorCode.NO_COMMS, e.getMessage()));
+					}
+				}
+			}
+			else {
+				for (String symbol : batch) {
+					out.put(symbol, new TimeSeries(Failure.ErrorCode.CALL_LIMIT, callLimitMessage()));
+				}
+			}
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * Split a batch time series response into a time series per symbol.
+	 * 
+	 * @param res Http api response.
+	 * @param batch Requested symbols.
+	 * @param out Map to which a {@link TimeSeries} is added for each symbol in {@code batch}.
+	 * 
+	 * @throws IOException Failed to read the error body of an unsuccessful response.
+	 */
+	private void timeSeriesBatchFromResponse(Response<JsonObject> res, List<String> batch, Map<String,TimeSeries> out) throws IOException {
+		TimeSeries batchFailure = null;
+		
+		if (res == null) {
+			batchFailure = new TimeSeries(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
+		}
+		else if (!res.isSuccessful()) {
+			batchFailure = new TimeSeries(res.code(), res.errorBody().string());
+		}
+		else if (res.body().has("code")) {
+			// whole batch failed
+			batchFailure = gson.fromJson(res.body(), TimeSeries.class);
+		}
+		
+		for (String symbol : batch) {
+			if (batchFailure != null) {
+				out.put(symbol, batchFailure);
+			}
+			else {
+				JsonElement symbolJson = res.body().get(symbol);
+				
+				if (symbolJson != null && symbolJson.isJsonObject()) {
+					TimeSeries timeSeries = gson.fromJson(symbolJson, TimeSeries.class);
+					
+					if (!timeSeries.isFailure()) {
+						LOGGER.log(Level.DEBUG, () -> "fetched " + symbol + " time series of length " + timeSeries.values.size());
+					}
+					
+					out.put(symbol, timeSeries);
+				}
+				else {
+					out.put(symbol, new TimeSeries(Failure.ErrorCode.NULL_RESPONSE, "batch response is missing symbol " + symbol));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Latest quote. On failure, {@link Quote#isFailure()} will return {@code true}.
+	 */
+	public Quote fetchQuote(String symbol) {
+		return fetchLatest(symbol, MetricsListener.ENDPOINT_QUOTE, (s) -> api.quote(s, key), Quote::new);
+	}
+	
+	/**
+	 * Fetch the latest quotes of multiple symbols, using as few batch requests as the api allows.
+	 * 
+	 * @param symbols Security symbols. Duplicates are fetched once.
+	 * 
+	 * @return {@link Quote} per symbol, in the order of {@code symbols}. Symbols that failed map to a failure.
+	 */
+	public Map<String,Quote> fetchQuoteBatch(Collection<String> symbols) {
+		return fetchLatestBatch(
+			symbols, MetricsListener.ENDPOINT_QUOTE, Quote.class, 
+			(s) -> api.quote(s, key), (s) -> api.quoteBatch(s, key), Quote::new
+		);
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Latest price. On failure, {@link Price#isFailure()} will return {@code true}.
+	 */
+	public Price fetchPrice(String symbol) {
+		return fetchLatest(symbol, MetricsListener.ENDPOINT_PRICE, (s) -> api.price(s, key), Price::new);
+	}
+	
+	/**
+	 * Fetch the latest prices of multiple symbols, using as few batch requests as the api allows.
+	 * 
+	 * @param symbols Security symbols. Duplicates are fetched once.
+	 * 
+	 * @return {@link Price} per symbol, in the order of {@code symbols}. Symbols that failed map to a failure.
+	 */
+	public Map<String,Price> fetchPriceBatch(Collection<String> symbols) {
+		return fetchLatestBatch(
+			symbols, MetricsListener.ENDPOINT_PRICE, Price.class, 
+			(s) -> api.price(s, key), (s) -> api.priceBatch(s, key), Price::new
+		);
+	}
+	
+	/**
+	 * Fetch a latest value endpoint, ex. quote or price, for one symbol.
+	 * 
+	 * @param <T> Response type.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param endpoint Api endpoint, for {@link #metrics}.
+	 * @param single Creates the api call for a symbol.
+	 * @param failure Failure constructor.
+	 * 
+	 * @return Response, or a failure.
+	 */
+	private <T extends Failure> T fetchLatest(
+			String symbol, String endpoint, Function<String,Call<T>> single, BiFunction<Integer,String,T> failure) {
+		if (!acquireCall(1, endpoint)) {
+			return failure.apply(Failure.ErrorCode.CALL_LIMIT, callLimitMessage());
+		}
+		
+		try {
+			Response<T> res = single.apply(symbol).execute();
+			
+			if (res == null) {
+				return failure.apply(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
+			}
+			else if (!res.isSuccessful()) {
+				return failure.apply(res.code(), res.errorBody().string());
+			}
+			else {
+				return res.body();
+			}
+		}
+		catch (IOException e) {
+			return failure.apply(Failure.ErrorCode.NO_COMMS, e.getMessage());
+		}
+	}
+	
+	/**
+	 * Fetch a latest value endpoint for multiple symbols, in batches of at most {@link #MAX_BATCH_SYMBOLS} and 
+	 * at most the number of api credits available per minute, like 
+	 * {@link #fetchTimeSeriesBatch(Collection, String, LocalDateTime, int)}.
+	 * 
+	 * @param <T> Response type.
+	 * 
+	 * @param symbols Security symbols.
+	 * @param endpoint Api endpoint, for {@link #metrics}.
+	 * @param type Response class, to decode each symbol of a batch response.
+	 * @param single Creates the api call for one symbol, whose response is not keyed by symbol.
+	 * @param batch Creates the api call for comma separated symbols.
+	 * @param failure Failure constructor.
+	 * 
+	 * @return Response or failure per symbol, in the order of {@code symbols}.
+	 */
+	private <T extends Failure> Map<String,T> fetchLatestBatch(
+			Collection<String> symbols, String endpoint, Class<T> type, 
+			Function<String,Call<T>> single, Function<String,Call<JsonObject>> batch, BiFunction<Integer,String,T> failure) {
+		LinkedHashMap<String,T> out = new LinkedHashMap<>();
+		ArrayList<String> unique = new ArrayList<>(new LinkedHashSet<>(symbols));
+		int batchSize = Math.max(Math.min(MAX_BATCH_SYMBOLS, getMaxCallsPerMinute()), 1);
+		
+		for (int b=0; b<unique.size(); b+=batchSize) {
+			List<String> symbolBatch = unique.subList(b, Math.min(b + batchSize, unique.size()));
+			
+			if (symbolBatch.size() == 1) {
+				String symbol = symbolBatch.get(0);
+				out.put(symbol, fetchLatest(symbol, endpoint, single, failure));
+				continue;
+			}
+			
+			T batchFailure = null;
+			JsonObject body = null;
+			
+			if (acquireCall(symbolBatch.size(), endpoint)) {
+				try {
+					Response<JsonObject> res = batch.apply(String.join(",", symbolBatch)).execute();
+					
+					if (res == null) {
+						batchFailure = failure.apply(Failure.ErrorCode.NULL_RESPONSE, "http api response is null");
+					}
+					else if (!res.isSuccessful()) {
+						batchFailure = failure.apply(res.code(), res.errorBody().string());
+					}
+					else if (res.body().has("code")) {
+						// whole batch failed
+						batchFailure = gson.fromJson(res.body(), type);
+					}
+					else {
+						body = res.body();
+					}
+				}
+				catch (IOException e) {
+					batchFailure = failure.apply(Failure.ErrorCode.NO_COMMS, e.getMessage());
+				}
+			}
+			else {
+				batchFailure = failure.apply(Failure.ErrorCode.CALL_LIMIT, callLimitMessage());
+			}
+			
+			for (String symbol : symbolBatch) {
+				if (batchFailure != null) {
+					out.put(symbol, batchFailure);
+				}
+				else {
+					JsonElement symbolJson = body.get(symbol);
+					out.put(
+						symbol, 
+						(symbolJson != null && symbolJson.isJsonObject()) 
+							? gson.fromJson(symbolJson, type) 
+							: failure.apply(Failure.ErrorCode.NULL_RESPONSE, "batch response is missing symbol " + symbol)
+					);
+				}
+			}
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * 
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results. Will be constrained to be within the range {@code [1..120]}.
+	 * 
+	 * @return {@link SecuritySet} or {@code null}.
+	 */
+	public SecuritySet symbolLookup(String symbol, int maxResults) {
+		maxResults = clampMaxResults(maxResults);
+		
+		if (symbolLookupCache != null) {
+			return symbolLookupCache
+				.lookup(symbol, maxResults, (s, n) -> CompletableFuture.completedFuture(symbolLookupUncached(s, n)))
+				.join();
+		}
+		else {
+			return symbolLookupUncached(symbol, maxResults);
+		}
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results, within the range {@code [1..120]}.
+	 * 
+	 * @return {@link SecuritySet} or {@code null}.
+	 */
+	private SecuritySet symbolLookupUncached(String symbol, int maxResults) {
+		return symbolLookupFlights.execute(normalizeSymbol(symbol) + "|" + maxResults, () -> {
+			if (acquireCall(1, MetricsListener.ENDPOINT_SYMBOL_SEARCH)) {
+				LOGGER.log(Level.DEBUG, () -> "performing symbol lookup for " + symbol);
+				try {
+					Response<SecuritySet> res = api
+						.symbolSearch(symbol, maxResults)
+						.execute();
+					
+					return securitySetFromResponse(res);
+				} 
+				catch (IOException e) {
+					LOGGER.log(Level.WARNING, () -> "symbol lookup for " + symbol + " failed: " + e.getMessage());
+					return null;
+				}
+			}
+			else {
+				LOGGER.log(Level.WARNING, this::callLimitMessage);
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Asynchronous version of {@link #symbolLookup(String, int)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results. Will be constrained to be within the range {@code [1..120]}.
+	 * 
+	 * @return Future {@link SecuritySet} or {@code null}, delivered on the http client's thread.
+	 */
+	public CompletableFuture<SecuritySet> symbolLookupAsync(String symbol, int maxResults) {
+		return symbolLookupAsync(symbol, maxResults, null, null);
+	}
+	
+	/**
+	 * Asynchronous version of {@link #symbolLookup(String, int)}.
+	 * 
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results. Will be constrained to be within the range {@code [1..120]}.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response, or {@code null}. On timeout the future completes with 
+	 * {@code null}.
+	 * 
+	 * @return Future {@link SecuritySet} or {@code null}. Cancelling the future cancels the underlying http call, once no other caller shares it.
+	 */
+	public CompletableFuture<SecuritySet> symbolLookupAsync(String symbol, int maxResults, Executor executor, Duration timeout) {
+		maxResults = clampMaxResults(maxResults);
+		
+		if (symbolLookupCache != null) {
+			// a cached result has no caller's executor or timeout, so they are applied to the result either way
+			CompletableFuture<SecuritySet> cached = symbolLookupCache.lookup(
+				symbol, maxResults, (s, n) -> symbolLookupUncachedAsync(s, n, null, null)
+			);
+			return deliver(cached, executor, timeout, null);
+		}
+		else {
+			return symbolLookupUncachedAsync(symbol, maxResults, executor, timeout);
+		}
+	}
+	
+	/**
+	 * @param symbol Security symbol.
+	 * @param maxResults Max number of results, within the range {@code [1..120]}.
+	 * @param executor Executor on which the result is delivered, or {@code null}.
+	 * @param timeout Max time to wait for the response, or {@code null}.
+	 * 
+	 * @return Future {@link SecuritySet} or {@code null}.
+	 */
+	private CompletableFuture<SecuritySet> symbolLookupUncachedAsync(String symbol, int maxResults, Executor executor, Duration timeout) {
+		CompletableFuture<SecuritySet> shared = symbolLookupFlights.executeAsync(
+			normalizeSymbol(symbol) + "|" + maxResults, 
+			() -> whenAllowed(
+				1, 
+				MetricsListener.ENDPOINT_SYMBOL_SEARCH, 
+				() -> {
+					LOGGER.log(Level.DEBUG, () -> "performing symbol lookup for " + symbol);
+					Call<SecuritySet> call = api.symbolSearch(symbol, maxResults);
+					
+					return enqueue(
+						call, 
+						this::securitySetFromResponse, 
+						(e) -> {
+							LOGGER.log(Level.WARNING, () -> "symbol lookup for " + symbol + " failed: " + e.getMessage());
+							return null;
+						}
+					);
+				},
+				() -> {
+					LOGGER.log(Level.WARNING, this::callLimitMessage);
+					return null;
+				}
+			)
+		);
+		
+		return deliver(shared, executor, timeout, null);
+	}
+	
+	/**
+	 * Symbols are case insensitive.
+	 * 
+	 * @param symbol Security symbol.
+	 * 
+	 * @return Normalized symbol, for request keys.
+	 */
+	private static String normalizeSymbol(String symbol) {
+		return symbol.trim().toUpperCase(Locale.ROOT);
+	}
+	
+	/**
+	 * @param maxResults Requested max number of symbol lookup results.
+	 * 
+	 * @return {@code maxResults} constrained to be within the range {@code [1..120]}.
+	 */
+	private static int clampMaxResults(int maxResults) {
+		if (maxResults < 1) {
+			return 1;
+		}
+		else if (maxResults > 120) {
+			return 120;
+		}
+		else {
+			return maxResults;
+		}
+	}
+	
+	/**
+	 * @param res Http api response.
+	 * 
+	 * @return {@link SecuritySet} or {@code null}.
+	 * 
+	 * @throws IOException Failed to read the error body of an unsuccessful response.
+	 */
+	private SecuritySet securitySetFromResponse(Response<SecuritySet> res) throws IOException {
+		SecuritySet out = null;
+		
+		if (res != null) {
+			if (res.isSuccessful()) {
+				SecuritySet securitySet = res.body();
+				
+				if (!securitySet.isFailure()) {
+					LOGGER.log(Level.DEBUG, () -> "fetched " + securitySet.data.size() + " matching securities");
+					out = securitySet;
+				}
+				else {
+					LOGGER.log(Level.WARNING, securitySet::toString);
+				}
+			}
+			else {
+				String errorBody = res.errorBody().string();
+				LOGGER.log(Level.WARNING, () -> errorBody);
+			}
+		}
+		else {
+			LOGGER.log(Level.WARNING, "http api response is null");
+		}
+		
+		return out;
+	}
+	
+	/**
+	 * Enqueue an api call and adapt its callback to a {@link CompletableFuture}, completed on the http client's thread.
+	 * 
+	 * Completing the returned future early, by cancellation, cancels the http call.
+	 * 
+	 * @param <T> Response body type.
+	 * @param <R> Result type.
+	 * 
+	 * @param call Unexecuted api call.
+	 * @param handler Converts a response to a result.
+	 * @param onFailure Converts a communication failure to a result.
+	 * 
+	 * @return Future result.
+	 */
+	private static <T,R> CompletableFuture<R> enqueue(
+			Call<T> call, ResponseHandler<T,R> handler, Function<IOException,R> onFailure) {
+		final CompletableFuture<R> future = new CompletableFuture<>();
+		
+		// a call that already finished ignores cancel
+		future.whenComplete((result, error) -> call.cancel());
+		
+		Callback<T> callback = new Callback<T>() {
+			@Override
+			public void onResponse(Call<T> call, Response<T> res) {
+				try {
+					future.complete(handler.handle(res));
+				}
+				catch (IOException e) {
+					future.complete(onFailure.apply(e));
+				}
+				catch (RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+			
+			@Override
+			public void onFailure(Call<T> call, Throwable t) {
+				try {
+					if (t instanceof IOException) {
+						future.complete(onFailure.apply((IOException) t));
+					}
+					else {
+						future.completeExceptionally(t);
+					}
+				}
+				catch (RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}
+		};
+		
+		call.enqueue(callback);
+		
+		return future;
+	}
+	
+	/**
+	 * Deliver a caller's result on its executor, with its timeout.
+	 * 
+	 * Completing the returned future early, by cancellation or timeout, cancels {@code source}.
+	 * 
+	 * @param <R> Result type.
+	 * 
+	 * @param source Future result, ex. a caller's view of a {@link SingleFlight coalesced} api call.
+	 * @param executor Executor on which the result is delivered. If {@code null}, the result is delivered
+	 * on the thread that completes {@code source}.
+	 * @param timeout Max time to wait for the result, or {@code null}.
+	 * @param onTimeout Result when {@code timeout} elapses before {@code source} completes.
+	 * 
+	 * @return Future result.
+	 */
+	private static <R> CompletableFuture<R> deliver(CompletableFuture<R> source, Executor executor, Duration timeout, R onTimeout) {
+		if (executor == null && timeout == null) {
+			return source;
+		}
+		
+		final Executor callbackExecutor = (executor != null) ? executor : DIRECT_EXECUTOR;
+		final CompletableFuture<R> future = new CompletableFuture<>();
+		
+		source.whenComplete((result, error) -> {
+			try {
+				callbackExecutor.execute(() -> {
+					if (error != null) {
+						future.completeExceptionally(error);
+					}
+					else {
+						future.complete(result);
+					}
+				});
+			}
+			catch (RejectedExecutionException e) {
+				future.completeExceptionally(e);
+			}
+		});
+		
+		// a source that already completed ignores cancel
+		future.whenComplete((result, error) -> source.cancel(true));
+		
+		if (timeout != null) {
+			future.completeOnTimeout(onTimeout, timeout.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Converts an api response to a result.
+	 * 
+	 * @param <T> Response body type.
+	 * @param <R> Result type.
+	 */
+	@FunctionalInterface
+	private static interface ResponseHandler<T,R> {
+		R handle(Response<T> res) throws IOException;
+	}
+	
+	/**
+	 * @return {@code true} if the rate limiter would allow an api call right now, without waiting.
+	 */
+	public boolean callAllowed() {
+		return limiter.availablePermits() > 0;
+	}
+	
+	/**
+	 * Wait for the rate limiter to allow an api call, up to {@link #maxCallWait}.
+	 * 
+	 * @param credits Number of api credits the call costs.
+	 * @param endpoint Api endpoint of the call, for {@link #metrics}.
+	 * 
+	 * @return {@code true} if the call is allowed, or {@code false} on timeout or interrupt.
+	 */
+	private boolean acquireCall(int credits, String endpoint) {
+		long start = System.nanoTime();
+		boolean allowed;
+		
+		try {
+			if (scheduler != null) {
+				allowed = scheduler.acquire(lane, caller, credits, maxCallWait);
+			}
+			else if (maxCallWait == null) {
+				limiter.acquire(credits);
+				allowed = true;
+			}
+			else {
+				allowed = limiter.acquire(credits, maxCallWait.toNanos(), TimeUnit.NANOSECONDS);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			allowed = false;
+		}
+		
+		if (allowed) {
+			metrics.onLimiterWait(System.nanoTime() - start, credits, limiter.getPermitsPerMinute());
+		}
+		else {
+			metrics.onFailure(endpoint, Failure.ErrorCode.CALL_LIMIT);
+		}
+		return allowed;
+	}
+	
+	/**
+	 * Reserve an api call from the rate limiter without blocking.
+	 * 
+	 * @param credits Number of api credits the call costs.
+	 * @param endpoint Api endpoint of the call, for {@link #metrics}.
+	 * 
+	 * @return Nanoseconds until the call is allowed, or {@code -1} if it would not be allowed within 
+	 * {@link #maxCallWait}.
+	 */
+	private long reserveCall(int credits, String endpoint) {
+		long wait = limiter.reserve(credits, (maxCallWait == null) ? Long.MAX_VALUE : maxCallWait.toNanos());
+		
+		if (wait >= 0) {
+			metrics.onLimiterWait(wait, credits, limiter.getPermitsPerMinute());
+		}
+		else {
+			metrics.onFailure(endpoint, Failure.ErrorCode.CALL_LIMIT);
+		}
+		return wait;
+	}
+	
+	/**
+	 * Start an async api call once the rate limiter, or the {@link #scheduler} if any, allows it, without blocking.
+	 * 
+	 * @param <R> Result type.
+	 * 
+	 * @param credits Number of api credits the call costs.
+	 * @param endpoint Api endpoint of the call, for {@link #metrics}.
+	 * @param allowed Starts the call.
+	 * @param limited Result when the call is not allowed within {@link #maxCallWait}.
+	 * 
+	 * @return Future result. Completing it early, by cancellation, withdraws the call from the scheduler or 
+	 * returns its reserved credits to the limiter, or cancels the started call.
+	 */
+	private <R> CompletableFuture<R> whenAllowed(
+			int credits, String endpoint, Supplier<CompletableFuture<R>> allowed, Supplier<R> limited) {
+		if (scheduler == null) {
+			long wait = reserveCall(credits, endpoint);
+			if (wait < 0) {
+				return CompletableFuture.completedFuture(limited.get());
+			}
+			else if (wait == 0) {
+				return allowed.get();
+			}
+			
+			final CompletableFuture<R> future = new CompletableFuture<>();
+			// either the call starts, or its credits are returned when the future completes first
+			final AtomicBoolean claimed = new AtomicBoolean(false);
+			
+			future.whenComplete((result, error) -> {
+				if (claimed.compareAndSet(false, true)) {
+					// cancelled or timed out while waiting; the call is never made
+					limiter.release(credits);
+				}
+			});
+			CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS).execute(() -> {
+				if (claimed.compareAndSet(false, true)) {
+					forward(allowed.get(), future);
+				}
+			});
+			return future;
+		}
+		
+		final long start = System.nanoTime();
+		final CompletableFuture<Boolean> grant = scheduler.acquireAsync(lane, caller, credits, maxCallWait);
+		final CompletableFuture<R> future = new CompletableFuture<>();
+		
+		grant.whenComplete((granted, error) -> {
+			if (Boolean.TRUE.equals(granted)) {
+				metrics.onLimiterWait(System.nanoTime() - start, credits, limiter.getPermitsPerMinute());
+				
+				forward(allowed.get(), future);
+			}
+			else {
+				metrics.onFailure(endpoint, Failure.ErrorCode.CALL_LIMIT);
+				future.complete(limited.get());
+			}
+		});
+		// a request that was already granted ignores this
+		future.whenComplete((result, error) -> grant.complete(false));
+		
+		return future;
+	}
+	
+	/**
+	 * Complete a future with the result of a started call, and cancel the call if the future completes first.
+	 * 
+	 * @param <R> Result type.
+	 * 
+	 * @param call Started call.
+	 * @param future Future result.
+	 */
+	private static <R> void forward(CompletableFuture<R> call, CompletableFuture<R> future) {
+		call.whenComplete((result, error) -> {
+			if (error != null) {
+				future.completeExceptionally(error);
+			}
+			else {
+				future.complete(result);
+			}
+		});
+		// a call that already finished ignores cancel
+		future.whenComplete((result, error) -> call.cancel(true));
+	}
+	
+	private String callLimitMessage() {
+		return "ERROR hit max api call limit of " + getMaxCallsPerMinute() + " per minute";
+	}
+	
+	/**
+	 * Attempts to get one week of daily close prices for AAPL.
+	 * 
+	 * @return {@code true} if {@link TimeSeries#isFailure() TimeSeries.isFailure() == false}.
+	 */
+	public boolean testFetchTimeSeries(LocalDate from) {
+		if (from == null) {
+			from = LocalDate.now().minusDays(7);
+		}
+		
+		final String TEST_SYMBOL = "AAPL";
+		final String TEST_INTERVAL = BarInterval.DY_1;
+		final LocalDate testStartDate = from;
+		final LocalDate TEST_END_DATE = testStartDate.plusDays(7);
+		System.out.println("expecting " + Period.between(testStartDate, TEST_END_DATE).getDays() + " x " + TEST_INTERVAL);
+		
+		TimeSeries timeSeries = fetchTimeSeries(
+				TEST_SYMBOL, 
 				TEST_INTERVAL, 
 				LocalDateTime.of(testStartDate, LocalTime.MIDNIGHT), 
 				LocalDateTime.of(TEST_END_DATE, LocalTime.MIDNIGHT));
@@ -364,6 +1953,16 @@ public class TwelvedataClient {
 		}
 	}
 	
+	/**
+	 * @param listener Receives prices and stream events, ex. a {@link PriceRingBuffer}.
+	 * 
+	 * @return Real time price stream using this client's api key, not yet {@link PriceStream#connect() connected}.
+	 * Websocket streaming is not rate limited by calls, so it does not use this client's rate limiter.
+	 */
+	public PriceStream priceStream(PriceListener listener) {
+		return new PriceStream(key, listener);
+	}
+	
 	public String getKey() {
 		return key;
 	}
@@ -373,15 +1972,410 @@ public class TwelvedataClient {
 	}
 	
 	public int getMaxCallsPerMinute() {
-		return maxCallsPerMinute;
+		return limiter.getPermitsPerMinute();
+	}
+	
+	/**
+	 * @param maxCallsPerMinute Max number of api calls per minute, according to the api key's plan.
+	 */
+	public void setMaxCallsPerMinute(int maxCallsPerMinute) {
+		limiter.setRate(maxCallsPerMinute, Duration.ofMinutes(1));
+	}
+	
+	public BarCache getBarCache() {
+		return barCache;
+	}
+	
+	/**
+	 * @param barCache Persistent cache of fetched trade bars, used by 
+	 * {@link #fetchTimeSeries(String, String, LocalDateTime, LocalDateTime)}, or {@code null} to disable caching.
+	 */
+	public void setBarCache(BarCache barCache) {
+		this.barCache = barCache;
+	}
+	
+	public SymbolLookupCache getSymbolLookupCache() {
+		return symbolLookupCache;
+	}
+	
+	/**
+	 * @param symbolLookupCache In memory cache of symbol lookup results, used by {@link #symbolLookup(String, int)}
+	 * and {@link #symbolLookupAsync(String, int)}, or {@code null} to disable caching.
+	 */
+	public void setSymbolLookupCache(SymbolLookupCache symbolLookupCache) {
+		this.symbolLookupCache = symbolLookupCache;
+	}
+	
+	/**
+	 * @return Receives measurements of api calls, set by {@link Builder#metrics(MetricsListener)}.
+	 */
+	public MetricsListener getMetrics() {
+		return metrics;
+	}
+	
+	public RateLimiter getRateLimiter() {
+		return limiter;
+	}
+	
+	/**
+	 * @return Scheduler of api credits, or {@code null} if calls are not prioritized.
+	 */
+	public RequestScheduler getScheduler() {
+		return scheduler;
+	}
+	
+	/**
+	 * @return Adjuster of the rate limit from api credits, or {@code null} if the rate is constant.
+	 */
+	public AdaptiveRateLimit getAdaptiveRateLimit() {
+		return adaptiveRateLimit;
+	}
+	
+	public Duration getMaxCallWait() {
+		return maxCallWait;
+	}
+	
+	/**
+	 * @param maxCallWait Max time to wait for the rate limiter to allow an api call. {@link Duration#ZERO} fails
+	 * immediately when the limit is reached, and {@code null} waits indefinitely.
+	 */
+	public void setMaxCallWait(Duration maxCallWait) {
+		this.maxCallWait = maxCallWait;
 	}
 	
 	public String toString() {
 		String out = 
 			"TwelvedataClient(" + 
-			this.key +
+			KeyPool.mask(this.key) +
 			")";
 		
 		return out;
 	}
+	
+	/**
+	 * @return Http client shared by all clients, ex. for a {@link PriceStream} to share its connection pool.
+	 */
+	static OkHttpClient getSharedHttpClient() {
+		return Shared.httpClient;
+	}
+	
+	/**
+	 * @param builder Gson builder.
+	 * 
+	 * @return {@code builder}, with the adapters the api responses require, ex. to decode recorded responses
+	 * without a client.
+	 */
+	public static GsonBuilder configureGson(GsonBuilder builder) {
+		return builder
+			.registerTypeAdapter(ColumnarTimeSeries.class, new ColumnarTimeSeriesAdapter())
+			.registerTypeAdapterFactory(TimestampParser.timeSeriesAdapterFactory());
+	}
+	
+	/**
+	 * @param baseUrl Api base url.
+	 * @param httpClient Http client.
+	 * @param gson Json converter.
+	 * @param metrics Receives measurements of api calls, or {@code null}.
+	 * 
+	 * @return Api endpoints.
+	 */
+	private static TwelvedataInterface createApi(String baseUrl, OkHttpClient httpClient, Gson gson, MetricsListener metrics) {
+		Retrofit.Builder builder = new Retrofit.Builder().baseUrl(baseUrl);
+		
+		if (metrics != null) {
+			// same connection pool and dispatcher
+			httpClient = httpClient.newBuilder().addInterceptor(new MetricsInterceptor(metrics)).build();
+			builder.addConverterFactory(new MetricsConverterFactory(metrics));
+		}
+		
+		return builder
+			.client(httpClient)
+			.addConverterFactory(GsonConverterFactory.create(gson))
+			.build()
+			.create(TwelvedataInterface.class);
+	}
+	
+	/**
+	 * @return Builder of a client with custom transport and settings.
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	/**
+	 * Builds a {@link TwelvedataClient}. Unless a custom {@link #httpClient(OkHttpClient) http client} is given,
+	 * built clients share the connection pool of all other clients, and their dispatcher too unless
+	 * dispatcher settings are given.
+	 */
+	public static class Builder {
+		private String baseUrl = API_PREFIX;
+		private String key = null;
+		private boolean keySet = false;
+		private RateLimiter limiter = null;
+		private RequestScheduler scheduler = null;
+		private KeyPool keyPool = null;
+		private AdaptiveRateLimit adaptiveRateLimit = null;
+		private int maxCallsPerMinute = MAX_CALLS_PER_MINUTE_FREE;
+		private Duration maxCallWait = DEFAULT_MAX_CALL_WAIT;
+		
+		private OkHttpClient httpClient = null;
+		private ExecutorService executor = null;
+		private int maxRequests = -1;
+		private int maxRequestsPerHost = -1;
+		private Duration connectTimeout = null;
+		private Duration readTimeout = null;
+		private GsonBuilder gsonBuilder = null;
+		private MetricsListener metrics = null;
+		
+		private BarCache barCache = null;
+		private SymbolLookupCache symbolLookupCache = null;
+		
+		private Builder() {}
+		
+		/**
+		 * @param baseUrl Api base url, ex. of a local stand in server. Default is {@link TwelvedataClient#API_PREFIX}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder baseUrl(String baseUrl) {
+			this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+			return this;
+		}
+		
+		/**
+		 * @param key API key. Default is the {@link TwelvedataClient#getConfig(String) configured} key.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder key(String key) {
+			this.key = key;
+			this.keySet = true;
+			return this;
+		}
+		
+		/**
+		 * @param maxCallsPerMinute Max api calls per minute of the rate plan. Default is the free plan.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder maxCallsPerMinute(int maxCallsPerMinute) {
+			this.maxCallsPerMinute = maxCallsPerMinute;
+			return this;
+		}
+		
+		/**
+		 * @param limiter Api call rate limiter, ex. shared with other clients that use the same key. Overrides
+		 * {@link #maxCallsPerMinute(int)}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder rateLimiter(RateLimiter limiter) {
+			this.limiter = limiter;
+			return this;
+		}
+		
+		/**
+		 * @param scheduler Scheduler that grants api credits by priority, ex. shared with other clients that use the
+		 * same key. Its rate limiter overrides {@link #rateLimiter(RateLimiter)} and 
+		 * {@link #maxCallsPerMinute(int)}. Calls of the built client are in the 
+		 * {@link RequestScheduler.Lane#INTERACTIVE interactive} lane; see 
+		 * {@link TwelvedataClient#withPriority(RequestScheduler.Lane, String)} for others.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder scheduler(RequestScheduler scheduler) {
+			this.scheduler = scheduler;
+			return this;
+		}
+		
+		/**
+		 * @param keyPool Pool of api keys to send calls with, instead of {@link #key(String)}. Its aggregate rate 
+		 * limiter overrides {@link #rateLimiter(RateLimiter)} and {@link #maxCallsPerMinute(int)}, but not the 
+		 * limiter of a {@link #scheduler(RequestScheduler) scheduler}, which should then be created with 
+		 * {@link KeyPool#getLimiter()}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder keyPool(KeyPool keyPool) {
+			this.keyPool = keyPool;
+			return this;
+		}
+		
+		/**
+		 * @param adaptiveRateLimit Adjuster of the rate limit from the api credits reported by the server. Its 
+		 * limiter overrides {@link #rateLimiter(RateLimiter)} and {@link #maxCallsPerMinute(int)}, but not the 
+		 * limiter of a {@link #scheduler(RequestScheduler) scheduler}, which should then be created with 
+		 * {@link AdaptiveRateLimit#getLimiter()}. Cannot be combined with a {@link #keyPool(KeyPool) key pool}, 
+		 * whose keys are limited separately.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder adaptiveRateLimit(AdaptiveRateLimit adaptiveRateLimit) {
+			this.adaptiveRateLimit = adaptiveRateLimit;
+			return this;
+		}
+		
+		/**
+		 * @param maxCallWait Max time to wait for the rate limiter, or {@code null} to wait indefinitely.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder maxCallWait(Duration maxCallWait) {
+			this.maxCallWait = maxCallWait;
+			return this;
+		}
+		
+		/**
+		 * @param httpClient Http client to use as is, instead of the shared one. Dispatcher and timeout settings
+		 * of this builder are then ignored.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder httpClient(OkHttpClient httpClient) {
+			this.httpClient = httpClient;
+			return this;
+		}
+		
+		/**
+		 * @param executor Executor that runs http calls, in a dedicated dispatcher.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder executor(ExecutorService executor) {
+			this.executor = executor;
+			return this;
+		}
+		
+		/**
+		 * @param maxRequests Max concurrent http requests, in a dedicated dispatcher.
+		 * @param maxRequestsPerHost Max concurrent http requests to one host.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder maxRequests(int maxRequests, int maxRequestsPerHost) {
+			this.maxRequests = maxRequests;
+			this.maxRequestsPerHost = maxRequestsPerHost;
+			return this;
+		}
+		
+		/**
+		 * @param connectTimeout Connect timeout. Default is {@link TwelvedataClient#DEFAULT_CONNECT_TIMEOUT}.
+		 * @param readTimeout Read timeout. Default is {@link TwelvedataClient#DEFAULT_READ_TIMEOUT}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder timeouts(Duration connectTimeout, Duration readTimeout) {
+			this.connectTimeout = connectTimeout;
+			this.readTimeout = readTimeout;
+			return this;
+		}
+		
+		/**
+		 * @param gsonBuilder Json converter settings. The adapters that api responses require are registered
+		 * on it when the client is built.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder gson(GsonBuilder gsonBuilder) {
+			this.gsonBuilder = gsonBuilder;
+			return this;
+		}
+		
+		/**
+		 * @param metrics Receives measurements of api calls, ex. {@link InProcessMetrics}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder metrics(MetricsListener metrics) {
+			this.metrics = metrics;
+			return this;
+		}
+		
+		/**
+		 * @param barCache Persistent cache of fetched trade bars, or {@code null}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder barCache(BarCache barCache) {
+			this.barCache = barCache;
+			return this;
+		}
+		
+		/**
+		 * @param symbolLookupCache In memory cache of symbol lookup results, or {@code null}.
+		 * 
+		 * @return This builder.
+		 */
+		public Builder symbolLookupCache(SymbolLookupCache symbolLookupCache) {
+			this.symbolLookupCache = symbolLookupCache;
+			return this;
+		}
+		
+		public TwelvedataClient build() {
+			if (keyPool != null && adaptiveRateLimit != null) {
+				throw new IllegalStateException("adaptive rate limit cannot be combined with a key pool");
+			}
+			
+			OkHttpClient client = httpClient;
+			if (client == null) {
+				client = Shared.httpClient;
+				
+				if (executor != null || maxRequests > 0 || connectTimeout != null || readTimeout != null) {
+					// same connection pool, own dispatcher and timeouts
+					OkHttpClient.Builder clientBuilder = Shared.httpClient.newBuilder();
+					
+					if (executor != null || maxRequests > 0) {
+						Dispatcher dispatcher = (executor != null) ? new Dispatcher(executor) : new Dispatcher();
+						dispatcher.setMaxRequests((maxRequests > 0) ? maxRequests : DEFAULT_MAX_REQUESTS);
+						dispatcher.setMaxRequestsPerHost((maxRequestsPerHost > 0) ? maxRequestsPerHost : DEFAULT_MAX_REQUESTS_PER_HOST);
+						clientBuilder.dispatcher(dispatcher);
+					}
+					if (connectTimeout != null) {
+						clientBuilder.connectTimeout(connectTimeout);
+					}
+					if (readTimeout != null) {
+						clientBuilder.readTimeout(readTimeout);
+					}
+					
+					client = clientBuilder.build();
+				}
+			}
+			if (keyPool != null) {
+				// before the metrics interceptor, which then measures each attempt
+				client = client.newBuilder().addInterceptor(keyPool.interceptor()).build();
+			}
+			if (adaptiveRateLimit != null) {
+				client = client.newBuilder().addInterceptor(adaptiveRateLimit.interceptor()).build();
+			}
+			
+			Gson gson = (gsonBuilder != null) ? configureGson(gsonBuilder).create() : DefaultGson.gson;
+			
+			TwelvedataInterface api = (
+				client == Shared.httpClient && gson == DefaultGson.gson && metrics == null && API_PREFIX.equals(baseUrl)
+			)
+				? Shared.api
+				: createApi(baseUrl, client, gson, metrics);
+			
+			TwelvedataClient tdclient = new TwelvedataClient(
+				(keyPool != null) ? keyPool.getFirstKey() : keySet ? key : getConfig(CONFIG_KEY_API_KEY), 
+				(scheduler != null) 
+					? scheduler.getLimiter() 
+					: (keyPool != null) 
+						? keyPool.getLimiter() 
+						: (adaptiveRateLimit != null)
+							? adaptiveRateLimit.getLimiter()
+							: (limiter != null) ? limiter : RateLimiter.perMinute(maxCallsPerMinute),
+				api,
+				gson,
+				(metrics != null) ? metrics : MetricsListener.NONE
+			);
+			tdclient.scheduler = scheduler;
+			tdclient.adaptiveRateLimit = adaptiveRateLimit;
+			tdclient.setMaxCallWait(maxCallWait);
+			tdclient.setBarCache(barCache);
+			tdclient.setSymbolLookupCache(symbolLookupCache);
+			
+			return tdclient;
+		}
+	}
 }
@@ -2,18 +2,23 @@ package ogallagher.twelvedata_client_java;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 
+import com.google.gson.JsonObject;
+
+import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.GET;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 /**
  * Use <a href="https://square.github.io/retrofit">retrofit</a> to convert twelvedata endpoint responses to typed and
  * structured Java objects.
  * 
  * @author Owen Gallagher
- *
+ * 
  */
 public interface TwelvedataInterface {
 	/**
@@ -65,6 +70,157 @@ public interface TwelvedataInterface {
 		@Query("apikey") String apiKey
 	);
 	
+	/**
+	 * Columnar version of {@link #timeSeries(String, String, String, String, String)}, decoded by 
+	 * {@link ColumnarTimeSeriesAdapter} without an object per trade bar.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param interval Width of each trade bar.
+	 * @param startDate When to begin fetching trade bars.
+	 * @param endDate When to stop fetching trade bars.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars in json format.
+	 */
+	@GET(
+		"time_series?&format=json"
+	)
+	Call<ColumnarTimeSeries> timeSeriesColumnar(
+		@Query("symbol") String symbol,
+		@Query("interval") String interval,
+		@Query("start_date") String startDate,
+		@Query("end_date") String endDate,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Columnar version of {@link #timeSeries(String, String, String, int, String)}, decoded by 
+	 * {@link ColumnarTimeSeriesAdapter} without an object per trade bar.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param interval Width of each trade bar.
+	 * @param endDate When to stop fetching trade bars.
+	 * @param outputSize Number of trade bars to include.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars in json format.
+	 */
+	@GET(
+		"time_series?&format=json"
+	)
+	Call<ColumnarTimeSeries> timeSeriesColumnar(
+		@Query("symbol") String symbol,
+		@Query("interval") String interval,
+		@Query("end_date") String endDate,
+		@Query("outputsize") int outputSize,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Csv version of {@link #timeSeries(String, String, String, String, String)}, whose body is streamed to
+	 * {@link CsvTimeSeriesDecoder} instead of converted. Csv bodies are smaller than json, since field names are
+	 * not repeated per bar.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param interval Width of each trade bar.
+	 * @param startDate When to begin fetching trade bars, in {@code timezone}.
+	 * @param endDate When to stop fetching trade bars, in {@code timezone}.
+	 * @param timezone Timezone of the dates and of the returned bar datetimes (ex. UTC, America/New_York),
+	 * since a csv response has no meta with the exchange timezone.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars in csv format, or a failure in json format.
+	 */
+	@Streaming
+	@GET(
+		"time_series?&format=CSV"
+	)
+	Call<ResponseBody> timeSeriesCsv(
+		@Query("symbol") String symbol,
+		@Query("interval") String interval,
+		@Query("start_date") String startDate,
+		@Query("end_date") String endDate,
+		@Query("timezone") String timezone,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Csv version of {@link #timeSeries(String, String, String, int, String)}, whose body is streamed to
+	 * {@link CsvTimeSeriesDecoder} instead of converted.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param interval Width of each trade bar.
+	 * @param endDate When to stop fetching trade bars, in {@code timezone}.
+	 * @param outputSize Number of trade bars to include.
+	 * @param timezone Timezone of the date and of the returned bar datetimes.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars in csv format, or a failure in json format.
+	 */
+	@Streaming
+	@GET(
+		"time_series?&format=CSV"
+	)
+	Call<ResponseBody> timeSeriesCsv(
+		@Query("symbol") String symbol,
+		@Query("interval") String interval,
+		@Query("end_date") String endDate,
+		@Query("outputsize") int outputSize,
+		@Query("timezone") String timezone,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Fetch trade bar sequences for multiple securities over a specified interval, in one request.
+	 * 
+	 * Each symbol costs one api credit. The response is an object with a {@link TimeSeries} per symbol, keyed
+	 * by symbol, where a symbol that failed has a {@link Failure} instead. If the whole request failed, the 
+	 * response is a single {@link Failure}.
+	 * 
+	 * @param symbols Comma separated security symbols (ex. ABC,DEF).
+	 * @param interval Width of each trade bar.
+	 * @param startDate When to begin fetching trade bars.
+	 * @param endDate When to stop fetching trade bars.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars per symbol in json format.
+	 */
+	@GET(
+		"time_series?&format=json"
+	)
+	Call<JsonObject> timeSeriesBatch(
+		@Query("symbol") String symbols,
+		@Query("interval") String interval,
+		@Query("start_date") String startDate,
+		@Query("end_date") String endDate,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Fetch trade bar sequences for multiple securities, each ending at {@code endDate} and containing 
+	 * {@code outputSize} bars, in one request.
+	 * 
+	 * @param symbols Comma separated security symbols (ex. ABC,DEF).
+	 * @param interval Width of each trade bar.
+	 * @param endDate When to stop fetching trade bars.
+	 * @param outputSize Number of trade bars to include per symbol.
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return trade bars per symbol in json format.
+	 * 
+	 * @see #timeSeriesBatch(String, String, String, String, String)
+	 */
+	@GET(
+		"time_series?&format=json"
+	)
+	Call<JsonObject> timeSeriesBatch(
+		@Query("symbol") String symbols,
+		@Query("interval") String interval,
+		@Query("end_date") String endDate,
+		@Query("outputsize") int outputSize,
+		@Query("apikey") String apiKey
+	);
+	
 	/**
 	 * Perform a security symbol lookup to retrieve important identifying information.
 	 * 
@@ -81,6 +237,72 @@ public interface TwelvedataInterface {
 		@Query("outputsize") int outputSize
 	);
 	
+	/**
+	 * Fetch the latest quote of a security, which costs one api credit.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return Quote in json format.
+	 */
+	@GET(
+		"quote?&format=json"
+	)
+	Call<Quote> quote(
+		@Query("symbol") String symbol,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Fetch the latest quotes of multiple securities, in one request. Each symbol costs one api credit.
+	 * 
+	 * @param symbols Comma separated security symbols (ex. ABC,DEF).
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return {@link Quote} per symbol in json format, keyed by symbol like 
+	 * {@link #timeSeriesBatch(String, String, String, int, String)}.
+	 */
+	@GET(
+		"quote?&format=json"
+	)
+	Call<JsonObject> quoteBatch(
+		@Query("symbol") String symbols,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Fetch the latest price of a security, which costs one api credit. The response is much smaller than a
+	 * {@link #quote(String, String) quote}.
+	 * 
+	 * @param symbol Security symbol (ex. ABC).
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return Price in json format.
+	 */
+	@GET(
+		"price?&format=json"
+	)
+	Call<Price> price(
+		@Query("symbol") String symbol,
+		@Query("apikey") String apiKey
+	);
+	
+	/**
+	 * Fetch the latest prices of multiple securities, in one request. Each symbol costs one api credit.
+	 * 
+	 * @param symbols Comma separated security symbols (ex. ABC,DEF).
+	 * @param apiKey twelvedata API key.
+	 * 
+	 * @return {@link Price} per symbol in json format, keyed by symbol.
+	 */
+	@GET(
+		"price?&format=json"
+	)
+	Call<JsonObject> priceBatch(
+		@Query("symbol") String symbols,
+		@Query("apikey") String apiKey
+	);
+	
 	public class BarInterval {
 		public static final String 
 			MIN_1 = "1min",
@@ -257,37 +479,42 @@ public interface TwelvedataInterface {
 		 * Similar to {@link #offsetBars(LocalDateTime, String, long) offsetBars}, but with an additional constraint
 		 * that ensures the number of trade bars is at least {@code abs(offsetMin)}.
 		 * 
-		 * @throws UnsupportedOperationException This method is not yet implemented.
+		 * Bars are counted in the {@link TradingCalendar} of the exchange, skipping nights, weekends, holidays and
+		 * the closed part of half days, so the range between {@code base} and the result is only as wide as
+		 * needed. Without a calendar for the exchange, or for weekly and monthly bars, this falls back to
+		 * {@link #offsetBars(LocalDateTime, String, long) offsetBars}, whose ranges always contain at least as many bars.
 		 * 
-		 * @param base Base datetime to offset from.
+		 * @param base Base datetime to offset from, in the exchange timezone.
 		 * @param barWidth The width of a bar, corresponding to a time duration.
 		 * @param offsetMin Estimated/minimum number of bars away from the base.
 		 * @param exchange The exchange to whose asset these bars belong.
 		 * 
-		 * @return Calculated datetime, displaced from {@code base}.
+		 * @return Calculated datetime, displaced from {@code base}, or {@code null} if the given bar width
+		 * is not supported.
+		 * 
+		 * @see TradingCalendar#offsetBars(LocalDateTime, String, long)
 		 */
-		@SuppressWarnings("unused")
-		public static LocalDateTime offsetBarsCounted(LocalDateTime base, String barWidth, long offsetMin, String exchange) throws UnsupportedOperationException {
-			Duration barDuration = IntervalDuration.valueOf(barWidth).getDuration();
-			Duration offsetDuration = barDuration.multipliedBy(offsetMin);
-			
-			// determine preliminary dest date
-			LocalDateTime dest = base.plus(offsetDuration);
-			
-			// count without accounting for holidays, weekends, closures
-			long barCount = Math.abs(offsetMin);
-			
-			// subtract holidays, weekends, closures
+		public static LocalDateTime offsetBarsCounted(LocalDateTime base, String barWidth, long offsetMin, String exchange) {
+			TradingCalendar calendar = TradingCalendar.forExchange(exchange);
 			
-			// add back needed bars
-			
-			// return new dest
+			if (calendar != null) {
+				LocalDateTime dest = calendar.offsetBars(base, barWidth, offsetMin);
+				if (dest != null) {
+					return dest;
+				}
+			}
 			
-			throw new UnsupportedOperationException("offsetBarsCounted not yet implemented");
+			return offsetBars(base, barWidth, offsetMin);
 		}
 	}
 	
 	public class Failure {
+		/**
+		 * Start of the message of a {@link ErrorCode#NO_BARS} failure when the request is valid but has no data,
+		 * unlike ex. an unknown symbol, which fails with the same code.
+		 */
+		public static final String NO_DATA_MESSAGE = "No data is available";
+		
 		public Integer code = null;
 		public String message = null;
 		
@@ -305,6 +532,17 @@ public interface TwelvedataInterface {
 			return code != null;
 		}
 		
+		/**
+		 * @return {@code true} if this is a {@link ErrorCode#NO_BARS} failure because no data is available for a 
+		 * valid request, ex. a range when the market was closed, rather than because of a bad request.
+		 */
+		public boolean isNoData() {
+			return (
+				code != null && code == ErrorCode.NO_BARS 
+				&& message != null && message.regionMatches(true, 0, NO_DATA_MESSAGE, 0, NO_DATA_MESSAGE.length())
+			);
+		}
+		
 		public String toString() {
 			return "TimeSeries.Failure("
 				+ code + ","
@@ -320,7 +558,8 @@ public interface TwelvedataInterface {
 		 */
 		public class ErrorCode {
 			/**
-			 * No data available between the specified datetimes.
+			 * No data available between the specified datetimes, or otherwise a bad request, ex. an unknown 
+			 * symbol. See {@link Failure#isNoData()}.
 			 */
 			public static final int NO_BARS = 400;
 			/**
@@ -346,6 +585,10 @@ public interface TwelvedataInterface {
 			 * Limit of max API calls per minute exceeded.
 			 */
 			public static final int CALL_LIMIT = -4;
+			/**
+			 * No response from the server within the requested timeout.
+			 */
+			public static final int TIMEOUT = -5;
 		}
 	}
 	
@@ -356,12 +599,24 @@ public interface TwelvedataInterface {
 	 * by default as returned from the twelvedata api.
 	 * 
 	 * @author Owen Gallagher
-	 *
+	 * 
 	 */
 	public class TimeSeries extends Failure {
 		public Meta meta = null;
 		public ArrayList<TradeBar> values = null;
 		
+		/**
+		 * Whether {@link TradeBar#timestamp} of each bar is set.
+		 */
+		transient boolean timestampsParsed = false;
+		
+		/**
+		 * Success constructor, for a series assembled locally instead of parsed from a response.
+		 */
+		public TimeSeries() {
+			super();
+		}
+		
 		/**
 		 * Failure constructor; calls {@link Failure#Failure(int, String)}.
 		 * 
@@ -372,6 +627,39 @@ public interface TwelvedataInterface {
 			super(errorCode, message);
 		}
 		
+		/**
+		 * Parse {@link TradeBar#datetime} of each bar into {@link TradeBar#timestamp}, in the exchange timezone.
+		 * Series decoded by {@link TwelvedataClient} are already parsed; call this after assembling or
+		 * modifying a series locally.
+		 */
+		public void parseTimestamps() {
+			if (values != null) {
+				TimestampParser parser = new TimestampParser((meta != null) ? meta.exchange_timezone : null);
+				
+				for (TradeBar bar : values) {
+					bar.timestamp = parser.parse(bar.datetime);
+				}
+			}
+			
+			timestampsParsed = true;
+		}
+		
+		/**
+		 * Parse timestamps if they were not already parsed.
+		 */
+		void ensureTimestamps() {
+			if (!timestampsParsed) {
+				parseTimestamps();
+			}
+		}
+		
+		/**
+		 * @return Exchange timezone, or UTC if unknown.
+		 */
+		public ZoneId getZoneId() {
+			return TimestampParser.zone((meta != null) ? meta.exchange_timezone : null);
+		}
+		
 		public class Meta {
 			public String symbol;
 			public String interval;
@@ -392,6 +680,11 @@ public interface TwelvedataInterface {
 		
 		public class TradeBar {
 			public String datetime;
+			/**
+			 * {@link #datetime} in epoch milliseconds, parsed once in the exchange timezone. Not part of the
+			 * json representation.
+			 */
+			public transient long timestamp;
 			public float open;
 			public float high;
 			public float low;
@@ -411,6 +704,98 @@ public interface TwelvedataInterface {
 		}
 	}
 	
+	/**
+	 * Latest quote of a security.
+	 * 
+	 * @author Owen Gallagher
+	 * @since 2026-10-16
+	 */
+	public class Quote extends Failure {
+		public String symbol;
+		public String name;
+		public String exchange;
+		public String currency;
+		/**
+		 * Datetime of the quote, in the exchange timezone.
+		 */
+		public String datetime;
+		/**
+		 * Epoch seconds of the quote.
+		 */
+		public long timestamp;
+		/**
+		 * Epoch seconds of the last trade, or {@code 0} if not reported.
+		 */
+		public long last_quote_at;
+		public double open;
+		public double high;
+		public double low;
+		public double close;
+		public long volume;
+		public double previous_close;
+		public double change;
+		public double percent_change;
+		public boolean is_market_open;
+		
+		public Quote() {
+			super();
+		}
+		
+		/**
+		 * Failure constructor; calls {@link Failure#Failure(int, String)}.
+		 * 
+		 * @param errorCode Error code.
+		 * @param message Error message.
+		 */
+		public Quote(int errorCode, String message) {
+			super(errorCode, message);
+		}
+		
+		@Override
+		public String toString() {
+			if (isFailure()) {
+				return super.toString();
+			}
+			
+			return "Quote("
+				+ symbol + ","
+				+ datetime + ","
+				+ close + ","
+				+ volume + ","
+				+ is_market_open
+				+ ")";
+		}
+	}
+	
+	/**
+	 * Latest price of a security.
+	 * 
+	 * @author Owen Gallagher
+	 * @since 2026-10-16
+	 */
+	public class Price extends Failure {
+		public double price;
+		
+		public Price() {
+			super();
+		}
+		
+		/**
+		 * Failure constructor; calls {@link Failure#Failure(int, String)}.
+		 * 
+		 * @param errorCode Error code.
+		 * @param message Error message.
+		 */
+		public Price(int errorCode, String message) {
+			super(errorCode, message);
+		}
+		
+		@Override
+		public String toString() {
+			return isFailure() ? super.toString() : "Price(" + price + ")";
+		}
+	}
+	
 	public class SecurityType {
 		public static final String
 			COMMON_STOCK = "Common Stock",
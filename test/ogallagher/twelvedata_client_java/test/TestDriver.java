@@ -1,16 +1,30 @@
 package ogallagher.twelvedata_client_java.test;
 
+import java.io.File;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.stage.Stage;
 import ogallagher.temp_fx_logger.System;
+import ogallagher.twelvedata_client_java.AdaptiveRateLimit;
+import ogallagher.twelvedata_client_java.BarCache;
+import ogallagher.twelvedata_client_java.InProcessMetrics;
+import ogallagher.twelvedata_client_java.KeyPool;
+import ogallagher.twelvedata_client_java.PriceRingBuffer;
+import ogallagher.twelvedata_client_java.PriceStream;
+import ogallagher.twelvedata_client_java.RateLimiter;
+import ogallagher.twelvedata_client_java.Resampler;
 import ogallagher.twelvedata_client_java.TwelvedataClient;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.BarInterval;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.Failure;
+import ogallagher.twelvedata_client_java.TwelvedataInterface.Price;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.SecuritySet;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries;
 import ogallagher.twelvedata_client_java.TwelvedataInterface.TimeSeries.TradeBar;
@@ -128,6 +142,164 @@ public class TestDriver {
 					System.out.println("ERROR failed to fetch time series with bar count until " + end + ":\n" + ((Failure)bars));
 				}
 			}
+			
+			// test cached fetch, where the second fetch is answered from disk
+			
+			doTest = false;
+			if (doTest) {
+				tdclient.setBarCache(new BarCache(new File(java.lang.System.getProperty("java.io.tmpdir"), "twelvedata_bar_cache")));
+				LocalDateTime start = LocalDateTime.now().minusMonths(13);
+				LocalDateTime end = start.plusDays(14);
+				
+				for (int i=0; i<2; i++) {
+					TimeSeries bars = tdclient.fetchTimeSeries("AAPL", BarInterval.DY_1, start, end);
+					if (!bars.isFailure()) {
+						System.out.println("cached fetch " + i + " returned " + bars.values.size() + " bars");
+					}
+					else {
+						System.out.println("ERROR failed cached fetch " + i + ":\n" + ((Failure)bars));
+					}
+				}
+				
+				tdclient.setBarCache(null);
+			}
+			
+			// test paged fetch of a range longer than one api call
+			
+			doTest = false;
+			if (doTest) {
+				LocalDateTime end = LocalDateTime.now().minusMonths(13);
+				LocalDateTime start = end.minusMonths(6);
+				
+				TimeSeries bars = tdclient.fetchTimeSeriesPaged("AAPL", BarInterval.MIN_15, start, end, "NASDAQ");
+				if (!bars.isFailure()) {
+					System.out.println(
+						"paged time series of " + bars.values.size() + " bars from " 
+						+ bars.values.get(bars.values.size()-1).datetime + " to " + bars.values.get(0).datetime
+					);
+				}
+				else {
+					System.out.println("ERROR failed paged fetch from " + start + ":\n" + ((Failure)bars));
+				}
+			}
+			
+			// test resampling one fetch of fine bars to coarser intervals
+			
+			doTest = false;
+			if (doTest) {
+				LocalDateTime end = LocalDateTime.now().minusMonths(13);
+				TimeSeries fine = tdclient.fetchTimeSeries("AAPL", BarInterval.MIN_1, end, 2000);
+				
+				if (!fine.isFailure()) {
+					for (String interval : new String[] {BarInterval.MIN_5, BarInterval.HR_1, BarInterval.DY_1}) {
+						TimeSeries coarse = Resampler.resample(fine, interval);
+						System.out.println(
+							"resampled " + fine.values.size() + " " + BarInterval.MIN_1 + " bars to " 
+							+ coarse.values.size() + " " + interval + " bars ending " + coarse.values.get(0)
+						);
+					}
+				}
+				else {
+					System.out.println("ERROR failed to fetch bars to resample:\n" + ((Failure)fine));
+				}
+			}
+			
+			// test metrics of a client built with a metrics listener
+			
+			doTest = false;
+			if (doTest) {
+				InProcessMetrics metrics = new InProcessMetrics();
+				TwelvedataClient measured = TwelvedataClient.builder()
+					.key(tdclient.getKey())
+					.rateLimiter(tdclient.getRateLimiter())
+					.metrics(metrics)
+					.build();
+				
+				LocalDateTime end = LocalDateTime.now().minusMonths(13);
+				measured.fetchTimeSeries("AAPL", BarInterval.DY_1, end, 30);
+				measured.symbolLookup("AAPL", 5);
+				
+				System.out.println(metrics);
+			}
+			
+			// test async fetch of multiple symbols
+			
+			doTest = false;
+			if (doTest) {
+				LocalDateTime end = LocalDateTime.now().minusMonths(13);
+				String[] symbols = new String[] {"AAPL", "MSFT", "AMZN"};
+				
+				ArrayList<CompletableFuture<TimeSeries>> futures = new ArrayList<>();
+				for (int i=0; i<symbols.length; i++) {
+					futures.add(tdclient.fetchTimeSeriesAsync(symbols[i], BarInterval.DY_1, end, 5, null, Duration.ofSeconds(10)));
+				}
+				
+				for (int i=0; i<symbols.length; i++) {
+					TimeSeries bars = futures.get(i).join();
+					if (!bars.isFailure()) {
+						System.out.println("async time series of " + bars.values.size() + " bars for " + symbols[i]);
+					}
+					else {
+						System.out.println("ERROR failed to fetch async time series for " + symbols[i] + ":\n" + ((Failure)bars));
+					}
+				}
+			}
+			
+			// test real time price stream
+			
+			doTest = false;
+			if (doTest) {
+				PriceRingBuffer prices = new PriceRingBuffer();
+				try (PriceStream stream = tdclient.priceStream(prices)) {
+					stream.subscribe("AAPL", "EUR/USD");
+					stream.connect();
+					
+					long sequence = 0;
+					for (int i=0; i<10; i++) {
+						Thread.sleep(1000);
+						sequence = prices.poll(sequence, (symbolId, symbol, timestamp, price, dayVolume) -> {
+							System.out.println("stream price " + symbol + " = " + price + " at " + timestamp);
+						});
+					}
+					
+					System.out.println(stream);
+				}
+				catch (InterruptedException e) {
+					System.out.println("ERROR price stream test interrupted");
+				}
+			}
+			
+			// test api key pool
+			
+			doTest = false;
+			if (doTest) {
+				// free plan limit per key
+				KeyPool pool = new KeyPool(List.of(tdclient.getKey(), "second-api-key"), 8);
+				TwelvedataClient pooled = TwelvedataClient.builder().keyPool(pool).build();
+				
+				for (String symbol : new String[] {"AAPL", "MSFT", "EUR/USD"}) {
+					Price price = pooled.fetchPrice(symbol);
+					System.out.println("pooled price " + symbol + " = " + (price.isFailure() ? price : price.price));
+				}
+				
+				System.out.println(pool + " " + pool.getKeyStates());
+			}
+			
+			// test adaptive rate limit
+			
+			doTest = false;
+			if (doTest) {
+				// starts at the free plan rate, then follows the credits reported by the api
+				AdaptiveRateLimit adaptive = new AdaptiveRateLimit(RateLimiter.perMinute(8));
+				TwelvedataClient adapted = TwelvedataClient.builder().adaptiveRateLimit(adaptive).build();
+				
+				for (String symbol : new String[] {"AAPL", "MSFT", "EUR/USD"}) {
+					Price price = adapted.fetchPrice(symbol);
+					System.out.println("adapted price " + symbol + " = " + (price.isFailure() ? price : price.price));
+				}
+				
+				System.out.println(adaptive + " " + adapted.getRateLimiter());
+			}
 		}
 	}
 }